@@ -37,16 +37,26 @@ import org.ow2.proactive.catalog.graphql.fetcher.CatalogObjectFetcher;
 import org.ow2.proactive.catalog.graphql.handler.FilterHandler;
 import org.ow2.proactive.catalog.graphql.handler.catalogobject.*;
 import org.ow2.proactive.catalog.mocks.RestApiAccessServiceMock;
+import org.ow2.proactive.catalog.repository.BucketRepository;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.service.BucketRegistry;
 import org.ow2.proactive.catalog.service.BucketService;
 import org.ow2.proactive.catalog.service.CatalogObjectService;
 import org.ow2.proactive.catalog.service.GraphqlService;
 import org.ow2.proactive.catalog.service.KeyValueLabelMetadataHelper;
+import org.ow2.proactive.catalog.service.KeyValueMetadataLoader;
+import org.ow2.proactive.catalog.service.LatestRevisionCache;
 import org.ow2.proactive.catalog.service.OwnerGroupStringHelper;
+import org.ow2.proactive.catalog.service.ParseResultCache;
+import org.ow2.proactive.catalog.service.RawObjectService;
 import org.ow2.proactive.catalog.service.RestApiAccessService;
+import org.ow2.proactive.catalog.service.StaxWorkflowXmlManipulator;
 import org.ow2.proactive.catalog.service.WorkflowInfoAdder;
 import org.ow2.proactive.catalog.service.WorkflowXmlManipulator;
+import org.ow2.proactive.catalog.service.store.DatabaseRawObjectStore;
+import org.ow2.proactive.catalog.service.store.RawObjectStore;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper;
+import org.ow2.proactive.catalog.util.MimeTypeDetector;
 import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.ow2.proactive.catalog.util.RevisionCommitMessageBuilder;
 import org.ow2.proactive.catalog.util.SeparatorUtility;
@@ -132,11 +142,31 @@ public class IntegrationTestConfig {
         return new BucketService();
     }
 
+    @Bean
+    public BucketRegistry bucketRegistry(BucketRepository bucketRepository) {
+        return new BucketRegistry(bucketRepository);
+    }
+
     @Bean
     public CatalogObjectService catalogObjectService() {
         return new CatalogObjectService();
     }
 
+    @Bean
+    public KeyValueMetadataLoader keyValueMetadataLoader() {
+        return new KeyValueMetadataLoader();
+    }
+
+    @Bean
+    public RawObjectService rawObjectService() {
+        return new RawObjectService();
+    }
+
+    @Bean
+    public RawObjectStore rawObjectStore() {
+        return new DatabaseRawObjectStore();
+    }
+
     @Bean
     public GraphqlService graphqlService() {
         return new GraphqlService();
@@ -192,6 +222,11 @@ public class IntegrationTestConfig {
         return new ArchiveManagerHelper();
     }
 
+    @Bean
+    public MimeTypeDetector mimeTypeDetector() {
+        return new MimeTypeDetector();
+    }
+
     @Bean
     public WorkflowParser workflowParser() {
         return new WorkflowParser();
@@ -236,7 +271,17 @@ public class IntegrationTestConfig {
                                                                        infrastructureParser(),
                                                                        nodeSourceParser(),
                                                                        scriptParser());
-        return new KeyValueLabelMetadataHelper(new OwnerGroupStringHelper(), parsers);
+        return new KeyValueLabelMetadataHelper(new OwnerGroupStringHelper(), parsers, parseResultCache());
+    }
+
+    @Bean
+    public ParseResultCache parseResultCache() {
+        return new ParseResultCache();
+    }
+
+    @Bean
+    public LatestRevisionCache latestRevisionCache() {
+        return new LatestRevisionCache();
     }
 
     @Bean
@@ -246,7 +291,7 @@ public class IntegrationTestConfig {
 
     @Bean
     public WorkflowXmlManipulator workflowXmlManipulator() {
-        return new WorkflowXmlManipulator();
+        return new StaxWorkflowXmlManipulator();
     }
 
     @Bean
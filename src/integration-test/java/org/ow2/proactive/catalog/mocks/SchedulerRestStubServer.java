@@ -0,0 +1,133 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.mocks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * Local stub of the scheduler REST API answering the user data requests sent for session validation.
+ *
+ * Session ids starting with {@link #INVALID_SESSION_PREFIX} are rejected, all the others belong to a user named after
+ * the session id. The number of requests received is recorded so that tests can measure how many of them reach the
+ * scheduler.
+ */
+public class SchedulerRestStubServer {
+
+    public static final String INVALID_SESSION_PREFIX = "invalid";
+
+    private static final String USER_DATA_PATH_SUFFIX = "/userdata";
+
+    private final AtomicInteger userDataRequests = new AtomicInteger();
+
+    private volatile long responseDelayMillis;
+
+    private HttpServer httpServer;
+
+    private ExecutorService executorService;
+
+    public SchedulerRestStubServer(long responseDelayMillis) {
+        this.responseDelayMillis = responseDelayMillis;
+    }
+
+    public void start() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executorService = Executors.newFixedThreadPool(32);
+        httpServer.setExecutor(executorService);
+        httpServer.createContext("/rest/scheduler", this::handle);
+        httpServer.start();
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executorService.shutdownNow();
+            httpServer = null;
+        }
+    }
+
+    public String getRestUrl() {
+        return "http://localhost:" + httpServer.getAddress().getPort() + "/rest";
+    }
+
+    public int getUserDataRequests() {
+        return userDataRequests.get();
+    }
+
+    /**
+     * Changes the delay of the next responses, for instance beyond the read timeout of the client to make the
+     * scheduler look unresponsive.
+     */
+    public void setResponseDelayMillis(long responseDelayMillis) {
+        this.responseDelayMillis = responseDelayMillis;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.endsWith(USER_DATA_PATH_SUFFIX)) {
+            respond(exchange, 404, "");
+            return;
+        }
+        userDataRequests.incrementAndGet();
+        delayResponse();
+
+        String pathWithoutSuffix = path.substring(0, path.length() - USER_DATA_PATH_SUFFIX.length());
+        String sessionId = pathWithoutSuffix.substring(pathWithoutSuffix.lastIndexOf('/') + 1);
+        if (sessionId.startsWith(INVALID_SESSION_PREFIX)) {
+            respond(exchange, 200, "{\"userName\":\"\",\"groups\":[]}");
+        } else {
+            respond(exchange, 200, "{\"userName\":\"user-" + sessionId + "\",\"groups\":[\"user\"]}");
+        }
+    }
+
+    private void delayResponse() {
+        if (responseDelayMillis > 0) {
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.ow2.proactive.catalog.util.LinkUtil.SPACE_ENCODED_AS_PERCENT_20;
 import static org.ow2.proactive.catalog.util.LinkUtil.SPACE_ENCODED_AS_PLUS;
 
@@ -54,8 +55,10 @@ import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
 import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
 import org.ow2.proactive.catalog.service.exception.RevisionNotFoundException;
 import org.ow2.proactive.catalog.util.IntegrationTestUtil;
+import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.springframework.boot.test.SpringApplicationConfiguration;
 import org.springframework.boot.test.WebIntegrationTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -319,6 +322,53 @@ public class CatalogObjectRevisionControllerIntegrationTest extends AbstractCata
         response.then().assertThat().statusCode(HttpStatus.SC_OK);
     }
 
+    @Test
+    public void testGetWorkflowRevisionPayloadShouldBeModifiedByAMetadataUpdate() {
+        Response response = given().pathParam("bucketName", bucket.getName())
+                                   .pathParam("name", "WF_1_Rev_1.xml")
+                                   .pathParam("commitTimeRaw", secondCatalogObjectRevision.get("commit_time_raw"))
+                                   .when()
+                                   .get(CATALOG_OBJECT_REVISION_RESOURCE_WITH_TIME + "/raw");
+        response.then().assertThat().statusCode(HttpStatus.SC_OK);
+        String eTag = response.header(HttpHeaders.ETAG);
+        String lastModified = response.header(HttpHeaders.LAST_MODIFIED);
+
+        // rewrites the raw object of the latest revision, keeping its commit time
+        given().header("sessionID", "12345")
+               .pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .queryParam("kind", "workflow")
+               .queryParam("projectName", "updated project")
+               .when()
+               .put(CATALOG_OBJECT_RESOURCE)
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK);
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .pathParam("commitTimeRaw", secondCatalogObjectRevision.get("commit_time_raw"))
+               .header(HttpHeaders.IF_MODIFIED_SINCE, lastModified)
+               .when()
+               .get(CATALOG_OBJECT_REVISION_RESOURCE_WITH_TIME + "/raw")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK)
+               .header(HttpHeaders.ETAG, not(eTag))
+               .header(HttpHeaders.CACHE_CONTROL, RawObjectResponseCreator.REVISION_CACHE_CONTROL)
+               .body(containsString("updated project"));
+
+        given().pathParam("bucketName", bucket.getName())
+               .pathParam("name", "WF_1_Rev_1.xml")
+               .pathParam("commitTimeRaw", secondCatalogObjectRevision.get("commit_time_raw"))
+               .header(HttpHeaders.IF_NONE_MATCH, eTag)
+               .when()
+               .get(CATALOG_OBJECT_REVISION_RESOURCE_WITH_TIME + "/raw")
+               .then()
+               .assertThat()
+               .statusCode(HttpStatus.SC_OK);
+    }
+
     @Test
     public void testGetWorkflowShouldReturnNotFoundIfNonExistingBucketName() {
         given().pathParam("bucketName", "non-existing")
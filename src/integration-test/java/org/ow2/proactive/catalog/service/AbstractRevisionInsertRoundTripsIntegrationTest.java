@@ -0,0 +1,131 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.dto.BucketMetadata;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+import org.ow2.proactive.catalog.util.JdbcRoundTripCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Stores revisions with many metadata while counting the JDBC round trips it takes.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+@TestPropertySource(properties = { "spring.jpa.properties.hibernate.session.events.auto=org.ow2.proactive.catalog.util.JdbcRoundTripCounter",
+                                   "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.ow2.proactive.catalog.util.JdbcRoundTripCounter" })
+public abstract class AbstractRevisionInsertRoundTripsIntegrationTest {
+
+    protected static final int OBJECT_COUNT = 20;
+
+    protected static final int KEY_VALUE_COUNT = 40;
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    @Autowired
+    private BucketService bucketService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private BucketMetadata bucket;
+
+    private Statistics statistics;
+
+    @Before
+    public void setup() {
+        bucket = bucketService.createBucket("bucket", getClass().getSimpleName());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void deleteBucket() {
+        statistics.setStatisticsEnabled(false);
+        bucketService.cleanAll();
+    }
+
+    /**
+     * Creates OBJECT_COUNT objects having KEY_VALUE_COUNT key values each, counting from scratch
+     * the round trips of {@link JdbcRoundTripCounter} and the statistics of the session factory.
+     */
+    protected void createObjects() {
+        List<Metadata> keyValues = new ArrayList<>();
+        for (int i = 0; i < KEY_VALUE_COUNT; i++) {
+            keyValues.add(new Metadata("key-" + i, "value-" + i, "label"));
+        }
+
+        statistics.clear();
+        JdbcRoundTripCounter.reset();
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            catalogObjectService.createCatalogObject(bucket.getName(),
+                                                     "object-" + i,
+                                                     "project",
+                                                     "object",
+                                                     "commit message",
+                                                     "username",
+                                                     "application/xml",
+                                                     keyValues,
+                                                     ("content " + i).getBytes(),
+                                                     null);
+        }
+    }
+
+    protected long getInsertedRows() {
+        return statistics.getEntityInsertCount();
+    }
+
+    protected long getInsertedRevisions() {
+        return statistics.getEntityStatistics(CatalogObjectRevisionEntity.class.getName()).getInsertCount();
+    }
+
+    protected long getInsertedKeyValues() {
+        return statistics.getEntityStatistics(KeyValueLabelMetadataEntity.class.getName()).getInsertCount();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.dto.BucketMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Checks that the number of queries issued to list revisions does not depend on how many of them
+ * are listed.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+public class KeyValueMetadataLoaderIntegrationTest {
+
+    private static final List<Metadata> KEY_VALUES = Collections.singletonList(new Metadata("key", "value", "label"));
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    @Autowired
+    private BucketService bucketService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private BucketMetadata bucket;
+
+    private Statistics statistics;
+
+    @Before
+    public void setup() {
+        bucket = bucketService.createBucket("bucket", "KeyValueMetadataLoaderIntegrationTest");
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void deleteBucket() {
+        statistics.setStatisticsEnabled(false);
+        bucketService.cleanAll();
+    }
+
+    @Test
+    public void testRevisionsAreListedWithAConstantNumberOfQueries() throws InterruptedException {
+        createObjectWithRevisions("small-object", 2);
+        createObjectWithRevisions("large-object", 30);
+
+        long smallObjectQueries = countQueries(() -> assertThat(catalogObjectService.listCatalogObjectRevisions(bucket.getName(),
+                                                                                                                  "small-object")).hasSize(2));
+        long largeObjectQueries = countQueries(() -> assertThat(catalogObjectService.listCatalogObjectRevisions(bucket.getName(),
+                                                                                                                  "large-object")).hasSize(30));
+
+        assertThat(largeObjectQueries).isEqualTo(smallObjectQueries);
+    }
+
+    @Test
+    public void testObjectsAreListedWithAConstantNumberOfQueries() throws InterruptedException {
+        for (int i = 0; i < 30; i++) {
+            createObjectWithRevisions("object-" + i, 1);
+        }
+
+        long smallPageQueries = countQueries(() -> assertThat(catalogObjectService.listCatalogObjects(Collections.singletonList(bucket.getName()),
+                                                                                                      0,
+                                                                                                      2)).hasSize(2));
+        long largePageQueries = countQueries(() -> {
+            List<CatalogObjectMetadata> catalogObjects = catalogObjectService.listCatalogObjects(Collections.singletonList(bucket.getName()),
+                                                                                                 0,
+                                                                                                 30);
+            assertThat(catalogObjects).hasSize(30);
+            assertThat(catalogObjects.get(0).getMetadataList()).contains(KEY_VALUES.get(0));
+        });
+
+        assertThat(largePageQueries).isEqualTo(smallPageQueries);
+    }
+
+    private void createObjectWithRevisions(String name, int revisionCount) throws InterruptedException {
+        catalogObjectService.createCatalogObject(bucket.getName(),
+                                                 name,
+                                                 "project",
+                                                 "object",
+                                                 "commit message",
+                                                 "username",
+                                                 "application/xml",
+                                                 KEY_VALUES,
+                                                 name.getBytes(),
+                                                 null);
+        for (int i = 1; i < revisionCount; i++) {
+            Thread.sleep(1); // to be sure that a new revision time will be different from previous revision time
+            catalogObjectService.createCatalogObjectRevision(bucket.getName(),
+                                                             name,
+                                                             "project",
+                                                             "commit message " + i,
+                                                             "username",
+                                                             KEY_VALUES,
+                                                             (name + i).getBytes());
+        }
+    }
+
+    /**
+     * @return the number of statements prepared by the listing, once run a first time so that
+     * nothing it caches is counted
+     */
+    private long countQueries(Runnable listing) {
+        listing.run();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ow2.proactive.catalog.IntegrationTestConfig;
+import org.ow2.proactive.catalog.dto.BucketMetadata;
+import org.ow2.proactive.catalog.repository.RawObjectRepository;
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Stores the same new content from concurrent transactions, which must all end up referencing a
+ * single raw object instead of failing on its primary key.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = IntegrationTestConfig.class)
+public class RawObjectConcurrentStoreIntegrationTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    @Autowired
+    private CatalogObjectService catalogObjectService;
+
+    @Autowired
+    private BucketService bucketService;
+
+    @Autowired
+    private RawObjectRepository rawObjectRepository;
+
+    private BucketMetadata bucket;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        bucket = bucketService.createBucket("bucket", "RawObjectConcurrentStoreIntegrationTest");
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @After
+    public void deleteBucket() {
+        executor.shutdownNow();
+        bucketService.cleanAll();
+    }
+
+    @Test
+    public void testConcurrentTransactionsStoringTheSameContentShareItsRawObject() throws Exception {
+        byte[] content = ("content stored concurrently " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+        CyclicBarrier barrier = new CyclicBarrier(THREAD_COUNT);
+
+        List<Future<?>> creations = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            String name = "object-" + i;
+            creations.add(executor.submit(() -> {
+                barrier.await();
+                return catalogObjectService.createCatalogObject(bucket.getName(),
+                                                                name,
+                                                                "project",
+                                                                "object",
+                                                                "commit message",
+                                                                "username",
+                                                                "application/xml",
+                                                                Collections.emptyList(),
+                                                                content,
+                                                                null);
+            }));
+        }
+        for (Future<?> creation : creations) {
+            // rethrows the failure of a creation, if any
+            creation.get(60, TimeUnit.SECONDS);
+        }
+
+        RawObjectEntity rawObject = rawObjectRepository.findOne(RawObjectService.computeHash(content));
+        assertThat(rawObject).isNotNull();
+        assertThat(rawObject.getReferenceCount()).isEqualTo((long) THREAD_COUNT);
+    }
+}
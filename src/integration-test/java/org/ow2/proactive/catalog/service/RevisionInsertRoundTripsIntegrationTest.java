@@ -0,0 +1,76 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.ow2.proactive.catalog.util.JdbcRoundTripCounter;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Measures the database round trips needed to store revisions with many metadata, their rows being
+ * inserted in JDBC batches with ids allocated by blocks. {@link UnbatchedRevisionInsertRoundTripsIntegrationTest}
+ * measures the same revisions inserted one row at a time.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Log4j2
+public class RevisionInsertRoundTripsIntegrationTest extends AbstractRevisionInsertRoundTripsIntegrationTest {
+
+    // the increment_size of the revision and key value sequences, and the hibernate.jdbc.batch_size
+    private static final int BLOCK_SIZE = 50;
+
+    // each object is created by its own transactions, sending a batch for the raw object, the catalog object,
+    // the revision, the key values and the update of the latest revision of the catalog object
+    private static final int BATCHES_PER_OBJECT = 5;
+
+    @Test
+    public void testRevisionsAndTheirMetadataAreInsertedInBatches() {
+        createObjects();
+
+        long insertedRows = getInsertedRows();
+        long insertedRevisions = getInsertedRevisions();
+        long insertedKeyValues = getInsertedKeyValues();
+        log.info("{} rows inserted: {} batches, {} statements of which {} sequence calls",
+                 insertedRows,
+                 JdbcRoundTripCounter.getBatchExecutions(),
+                 JdbcRoundTripCounter.getStatementExecutions(),
+                 JdbcRoundTripCounter.getSequenceCalls());
+
+        assertThat(insertedRevisions).isEqualTo((long) OBJECT_COUNT);
+        assertThat(insertedKeyValues).isEqualTo((long) OBJECT_COUNT * KEY_VALUE_COUNT);
+        // a sequence call per block of ids, the last block of each sequence being partly used
+        assertThat(JdbcRoundTripCounter.getSequenceCalls()).isAtMost(insertedRevisions / BLOCK_SIZE +
+                                                                     insertedKeyValues / BLOCK_SIZE + 2);
+        // the key values of an object fit in a single batch
+        assertThat(JdbcRoundTripCounter.getBatchExecutions()).isAtMost((long) OBJECT_COUNT * BATCHES_PER_OBJECT);
+        assertThat(JdbcRoundTripCounter.getRoundTrips()).isLessThan(insertedRows / 2);
+    }
+}
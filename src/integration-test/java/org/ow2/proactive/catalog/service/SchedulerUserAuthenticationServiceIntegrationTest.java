@@ -0,0 +1,180 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.catalog.mocks.SchedulerRestStubServer;
+import org.ow2.proactive.catalog.service.model.AuthenticatedUser;
+import org.ow2.proactive.microservices.common.exception.NotAuthenticatedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Authenticates sessions concurrently against a local stub of the scheduler REST API, using the shared pooled client.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Log4j2
+public class SchedulerUserAuthenticationServiceIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    private static final int CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+
+    private static final int READ_TIMEOUT_MILLIS = 500;
+
+    private SchedulerRestStubServer stubServer;
+
+    private SchedulerRestClientCreator schedulerRestClientCreator;
+
+    private SchedulerUserAuthenticationService schedulerUserAuthenticationService;
+
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() throws Exception {
+        stubServer = new SchedulerRestStubServer(20);
+        stubServer.start();
+
+        schedulerRestClientCreator = new SchedulerRestClientCreator();
+        ReflectionTestUtils.setField(schedulerRestClientCreator, "schedulerRestUrl", stubServer.getRestUrl());
+        ReflectionTestUtils.setField(schedulerRestClientCreator, "readTimeoutMillis", READ_TIMEOUT_MILLIS);
+
+        schedulerUserAuthenticationService = new SchedulerUserAuthenticationService(schedulerRestClientCreator);
+        schedulerUserAuthenticationService.initSessionCaches(10000, 60, 300, 5);
+        schedulerUserAuthenticationService.initCircuitBreaker(CIRCUIT_BREAKER_FAILURE_THRESHOLD, 60000);
+
+        executorService = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void cleanup() {
+        executorService.shutdownNow();
+        schedulerRestClientCreator.closeSharedClient();
+        stubServer.stop();
+    }
+
+    @Test
+    public void testConcurrentAuthenticationsOfDistinctSessions() throws Exception {
+        int sessions = 1000;
+        List<Future<AuthenticatedUser>> results = new ArrayList<>();
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            String sessionId = "session" + i;
+            results.add(executorService.submit(() -> schedulerUserAuthenticationService.authenticateBySessionId(sessionId)));
+        }
+        for (int i = 0; i < sessions; i++) {
+            assertThat(results.get(i).get().getName()).isEqualTo("user-session" + i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        log.info("{} sessions validated by {} threads in {} ms ({} validations/s)",
+                 sessions,
+                 THREADS,
+                 elapsedMillis,
+                 sessions * 1000 / Math.max(1, elapsedMillis));
+        assertThat(stubServer.getUserDataRequests()).isEqualTo(sessions);
+    }
+
+    @Test
+    public void testConcurrentAuthenticationsOfTheSameSessionReachTheSchedulerOnce() throws Exception {
+        List<Future<AuthenticatedUser>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS * 10; i++) {
+            results.add(executorService.submit(() -> schedulerUserAuthenticationService.authenticateBySessionId("shared")));
+        }
+        for (Future<AuthenticatedUser> result : results) {
+            assertThat(result.get().getName()).isEqualTo("user-shared");
+        }
+        assertThat(stubServer.getUserDataRequests()).isEqualTo(1);
+    }
+
+    @Test(expected = NotAuthenticatedException.class)
+    public void testInvalidSessionIsRejected() {
+        schedulerUserAuthenticationService.authenticateBySessionId(SchedulerRestStubServer.INVALID_SESSION_PREFIX +
+                                                                   "-session");
+    }
+
+    @Test
+    public void testUnreachableSchedulerFailsFast() {
+        stubServer.stop();
+        int failures = 0;
+        for (int i = 0; i < 20; i++) {
+            try {
+                schedulerUserAuthenticationService.authenticateBySessionId("session" + i);
+            } catch (NotAuthenticatedException expected) {
+                failures++;
+            }
+        }
+        assertThat(failures).isEqualTo(20);
+    }
+
+    @Test
+    public void testUnresponsiveSchedulerIsNoLongerCalledOnceTheCircuitIsOpen() {
+        stubServer.setResponseDelayMillis(4 * READ_TIMEOUT_MILLIS);
+        for (int i = 0; i < CIRCUIT_BREAKER_FAILURE_THRESHOLD; i++) {
+            assertNotAuthenticated("timed-out-session" + i);
+        }
+        int requestsBeforeOpening = stubServer.getUserDataRequests();
+        assertThat(requestsBeforeOpening).isEqualTo(CIRCUIT_BREAKER_FAILURE_THRESHOLD);
+
+        long slowestFailureMillis = 0;
+        for (int i = 0; i < 20; i++) {
+            long startTime = System.nanoTime();
+            assertNotAuthenticated("session" + i);
+            slowestFailureMillis = Math.max(slowestFailureMillis,
+                                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+
+        log.info("Slowest failure once the circuit is open: {} ms", slowestFailureMillis);
+        assertThat(stubServer.getUserDataRequests()).isEqualTo(requestsBeforeOpening);
+        assertThat(slowestFailureMillis).isLessThan((long) READ_TIMEOUT_MILLIS / 5);
+    }
+
+    private void assertNotAuthenticated(String sessionId) {
+        try {
+            schedulerUserAuthenticationService.authenticateBySessionId(sessionId);
+            fail("The session " + sessionId + " should not be authenticated");
+        } catch (NotAuthenticatedException expected) {
+            // the scheduler could not validate it
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.ow2.proactive.catalog.util.JdbcRoundTripCounter;
+import org.springframework.test.context.TestPropertySource;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Measures the database round trips needed to store revisions with many metadata when JDBC batches
+ * are disabled, as a reference for {@link RevisionInsertRoundTripsIntegrationTest}. The increment of
+ * the sequences is set by the mappings, so ids are still allocated by blocks: without them, each row
+ * having a sequence id would take one more round trip.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Log4j2
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=1")
+public class UnbatchedRevisionInsertRoundTripsIntegrationTest extends AbstractRevisionInsertRoundTripsIntegrationTest {
+
+    @Test
+    public void testEachRowIsInsertedByItsOwnStatement() {
+        createObjects();
+
+        long insertedRows = getInsertedRows();
+        log.info("{} rows inserted without batches: {} statements of which {} sequence calls, {} more with an id per sequence call",
+                 insertedRows,
+                 JdbcRoundTripCounter.getStatementExecutions(),
+                 JdbcRoundTripCounter.getSequenceCalls(),
+                 getInsertedRevisions() + getInsertedKeyValues() - JdbcRoundTripCounter.getSequenceCalls());
+
+        assertThat(JdbcRoundTripCounter.getBatchExecutions()).isEqualTo(0L);
+        assertThat(JdbcRoundTripCounter.getStatementExecutions()).isAtLeast(insertedRows);
+    }
+}
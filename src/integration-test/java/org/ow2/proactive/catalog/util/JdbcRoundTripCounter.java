@@ -0,0 +1,100 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+
+/**
+ * Counts the JDBC round trips of every Hibernate session, once registered as session events
+ * listener (hibernate.session.events.auto) and as statement inspector
+ * (hibernate.session_factory.statement_inspector).
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class JdbcRoundTripCounter extends BaseSessionEventListener implements StatementInspector {
+
+    private static final AtomicLong statementExecutions = new AtomicLong();
+
+    private static final AtomicLong batchExecutions = new AtomicLong();
+
+    private static final AtomicLong sequenceCalls = new AtomicLong();
+
+    public static void reset() {
+        statementExecutions.set(0);
+        batchExecutions.set(0);
+        sequenceCalls.set(0);
+    }
+
+    /**
+     * @return the number of statements executed on their own, sequence calls included
+     */
+    public static long getStatementExecutions() {
+        return statementExecutions.get();
+    }
+
+    /**
+     * @return the number of JDBC batches executed, each sending the rows added to it at once
+     */
+    public static long getBatchExecutions() {
+        return batchExecutions.get();
+    }
+
+    /**
+     * @return the number of statements reading the next value of a sequence
+     */
+    public static long getSequenceCalls() {
+        return sequenceCalls.get();
+    }
+
+    public static long getRoundTrips() {
+        return statementExecutions.get() + batchExecutions.get();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementExecutions.incrementAndGet();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchExecutions.incrementAndGet();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String lowerCaseSql = sql.toLowerCase(Locale.ROOT);
+        if (lowerCaseSql.contains("next value for") || lowerCaseSql.contains("nextval")) {
+            sequenceCalls.incrementAndGet();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the DOM and StAX workflow manipulators on the rewrite done for every new workflow
+ * revision, for workflows of growing size.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkflowXmlManipulatorBenchmark {
+
+    @Param({ "dom", "stax" })
+    private String manipulator;
+
+    @Param({ "1", "20", "200" })
+    private int tasks;
+
+    private WorkflowXmlManipulator workflowXmlManipulator;
+
+    private byte[] workflow;
+
+    private Map<String, String> genericInformation;
+
+    @Setup
+    public void setUp() {
+        workflowXmlManipulator = "dom".equals(manipulator) ? new DomWorkflowXmlManipulator()
+                                                           : new StaxWorkflowXmlManipulator();
+        workflow = workflow(tasks);
+        genericInformation = new LinkedHashMap<>();
+        genericInformation.put("bucketName", "basic-examples");
+        genericInformation.put("group", "public-objects");
+        genericInformation.put("Documentation", "user/ProActiveUserGuide.html");
+    }
+
+    @Benchmark
+    public byte[] replaceGenericInformationNameAndProjectName() {
+        return workflowXmlManipulator.replaceGenericInformationNameAndProjectNameOnJobLevel(workflow,
+                                                                                           genericInformation,
+                                                                                           "Renamed_Workflow",
+                                                                                           "Benchmarks");
+    }
+
+    private static byte[] workflow(int tasks) {
+        StringBuilder workflow = new StringBuilder();
+        workflow.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<job xmlns=\"urn:proactive:jobdescriptor:3.10\" name=\"Workflow\" projectName=\"Examples\" priority=\"normal\">\n")
+                .append("  <variables>\n")
+                .append("    <variable name=\"ITERATIONS\" value=\"10\"/>\n")
+                .append("  </variables>\n")
+                .append("  <description><![CDATA[ A workflow of ")
+                .append(tasks)
+                .append(" tasks ]]></description>\n")
+                .append("  <genericInformation>\n")
+                .append("    <info name=\"bucketName\" value=\"examples\"/>\n")
+                .append("  </genericInformation>\n")
+                .append("  <taskFlow>\n");
+        for (int task = 0; task < tasks; task++) {
+            workflow.append("    <task name=\"Task_")
+                    .append(task)
+                    .append("\">\n")
+                    .append("      <genericInformation>\n")
+                    .append("        <info name=\"PRE_SCRIPT_AS_FILE\" value=\"false\"/>\n")
+                    .append("      </genericInformation>\n")
+                    .append("      <scriptExecutable>\n")
+                    .append("        <script>\n")
+                    .append("          <code language=\"groovy\">\n")
+                    .append("            <![CDATA[\n")
+                    .append("for (i in 1..variables.get(\"ITERATIONS\") as int) {\n")
+                    .append("    println \"Task ")
+                    .append(task)
+                    .append(" iteration \" + i\n")
+                    .append("}\n")
+                    .append("]]>\n")
+                    .append("          </code>\n")
+                    .append("        </script>\n")
+                    .append("      </scriptExecutable>\n")
+                    .append("    </task>\n");
+        }
+        workflow.append("  </taskFlow>\n").append("</job>\n");
+        return workflow.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -135,6 +135,26 @@ public class CatalogObjectMetadata extends ResourceSupport {
 
     }
 
+    /**
+     * Copies the given metadata and their key values, without their links.
+     */
+    public CatalogObjectMetadata(CatalogObjectMetadata other) {
+        this.bucketName = other.bucketName;
+        this.name = other.name;
+        this.kind = other.kind;
+        this.contentType = other.contentType;
+        this.commitTimeRaw = other.commitTimeRaw;
+        this.commitDateTime = other.commitDateTime;
+        this.commitMessage = other.commitMessage;
+        this.username = other.username;
+        this.metadataList = new ArrayList<>(other.metadataList.size());
+        for (Metadata metadata : other.metadataList) {
+            this.metadataList.add(new Metadata(metadata.getKey(), metadata.getValue(), metadata.getLabel()));
+        }
+        this.projectName = other.projectName;
+        this.extension = other.extension;
+    }
+
     private String getProjectNameIfExistsOrEmptyString() {
         Optional<Metadata> projectNameIfExists = metadataList.stream()
                                                              .filter(property -> property.getKey()
@@ -0,0 +1,90 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+
+/**
+ * Columns of a catalog object revision needed to list it, read by a constructor expression so that
+ * listings do not load revision entities and their associations.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Data
+public class CatalogObjectRevisionSummary {
+
+    private final Long revisionId;
+
+    private final String bucketName;
+
+    private final String name;
+
+    private final String projectName;
+
+    private final String kind;
+
+    private final String contentType;
+
+    private final long commitTime;
+
+    private final String commitMessage;
+
+    private final String username;
+
+    private final String extension;
+
+    public CatalogObjectRevisionSummary(Long revisionId, String bucketName, String name, String projectName,
+            String kind, String contentType, long commitTime, String commitMessage, String username,
+            String extension) {
+        this.revisionId = revisionId;
+        this.bucketName = bucketName;
+        this.name = name;
+        this.projectName = projectName;
+        this.kind = kind;
+        this.contentType = contentType;
+        this.commitTime = commitTime;
+        this.commitMessage = commitMessage;
+        this.username = username;
+        this.extension = extension;
+    }
+
+    public CatalogObjectMetadata toCatalogObjectMetadata(List<Metadata> metadataList) {
+        return new CatalogObjectMetadata(bucketName,
+                                         name,
+                                         projectName,
+                                         kind,
+                                         contentType,
+                                         commitTime,
+                                         commitMessage,
+                                         username,
+                                         metadataList,
+                                         extension);
+    }
+}
@@ -25,10 +25,17 @@
  */
 package org.ow2.proactive.catalog.dto;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
-import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.hash.Hashing;
 
 import lombok.EqualsAndHashCode;
 
@@ -40,16 +47,37 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = true)
 public class CatalogRawObject extends CatalogObjectMetadata {
 
-    private final byte[] rawObject;
+    private final String hash;
 
-    public CatalogRawObject(CatalogObjectEntity catalogObject) {
-        super(catalogObject);
-        this.rawObject = catalogObject.getRevisions().first().getRawObject();
+    private final Resource rawObjectResource;
+
+    private final long rawObjectLength;
+
+    private final String contentEncoding;
+
+    private final Resource encodedRawObjectResource;
+
+    private final long encodedRawObjectLength;
+
+    private final long lastModifiedTime;
+
+    public CatalogRawObject(CatalogObjectRevisionEntity catalogObject, Resource rawObjectResource,
+            long rawObjectLength) {
+        this(catalogObject, null, rawObjectResource, rawObjectLength, null, null, 0);
     }
 
-    public CatalogRawObject(CatalogObjectRevisionEntity catalogObject) {
+    public CatalogRawObject(CatalogObjectRevisionEntity catalogObject, String hash, Resource rawObjectResource,
+            long rawObjectLength, String contentEncoding, Resource encodedRawObjectResource,
+            long encodedRawObjectLength) {
         super(catalogObject);
-        this.rawObject = catalogObject.getRawObject();
+        this.hash = hash;
+        this.rawObjectResource = rawObjectResource;
+        this.rawObjectLength = rawObjectLength;
+        this.contentEncoding = contentEncoding;
+        this.encodedRawObjectResource = encodedRawObjectResource;
+        this.encodedRawObjectLength = encodedRawObjectLength;
+        this.lastModifiedTime = catalogObject.getModificationTime() != null ? catalogObject.getModificationTime()
+                                                                            : catalogObject.getCommitTime();
     }
 
     public CatalogRawObject(String bucketName, String name, String projectName, String kind, String contentType,
@@ -65,10 +93,79 @@ public class CatalogRawObject extends CatalogObjectMetadata {
               username,
               metadataList,
               extension);
-        this.rawObject = rawObject;
+        this.hash = Hashing.sha256().hashBytes(rawObject).toString();
+        this.rawObjectResource = new ByteArrayResource(rawObject);
+        this.rawObjectLength = rawObject.length;
+        this.contentEncoding = null;
+        this.encodedRawObjectResource = null;
+        this.encodedRawObjectLength = 0;
+        this.lastModifiedTime = createdAt;
+    }
+
+    /**
+     * Copies the given raw object, which shares its resources with the copy.
+     */
+    public CatalogRawObject(CatalogRawObject other) {
+        super(other);
+        this.hash = other.hash;
+        this.rawObjectResource = other.rawObjectResource;
+        this.rawObjectLength = other.rawObjectLength;
+        this.contentEncoding = other.contentEncoding;
+        this.encodedRawObjectResource = other.encodedRawObjectResource;
+        this.encodedRawObjectLength = other.encodedRawObjectLength;
+        this.lastModifiedTime = other.lastModifiedTime;
     }
 
     public byte[] getRawObject() {
-        return rawObject;
+        try (InputStream inputStream = rawObjectResource.getInputStream()) {
+            return StreamUtils.copyToByteArray(inputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read the raw object " + getName(), e);
+        }
+    }
+
+    /**
+     * @return the SHA-256 digest of the raw content, in hexadecimal, or null if it is not known
+     */
+    @JsonIgnore
+    public String getHash() {
+        return hash;
+    }
+
+    @JsonIgnore
+    public Resource getRawObjectResource() {
+        return rawObjectResource;
+    }
+
+    @JsonIgnore
+    public long getRawObjectLength() {
+        return rawObjectLength;
+    }
+
+    /**
+     * @return the HTTP content coding of the stored raw object, or null if it is not encoded
+     */
+    @JsonIgnore
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    @JsonIgnore
+    public Resource getEncodedRawObjectResource() {
+        return encodedRawObjectResource;
+    }
+
+    @JsonIgnore
+    public long getEncodedRawObjectLength() {
+        return encodedRawObjectLength;
+    }
+
+    /**
+     * @return the time at which the raw object was last changed, which is the commit time unless the
+     *         raw object of the revision was rewritten since
+     */
+    @JsonIgnore
+    public long getLastModifiedTime() {
+        return lastModifiedTime;
     }
 }
@@ -47,6 +47,7 @@ import org.ow2.proactive.catalog.repository.CatalogObjectRevisionRepository;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.repository.specification.catalogobject.DefaultSpecification;
 import org.ow2.proactive.catalog.rest.controller.CatalogObjectController;
+import org.ow2.proactive.catalog.service.KeyValueMetadataLoader;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.microservices.common.exception.NotAuthenticatedException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -83,6 +84,9 @@ public class CatalogObjectFetcher implements DataFetcher<CatalogObjectConnection
     @Autowired
     private CatalogObjectRevisionRepository catalogObjectRevisionRepository;
 
+    @Autowired
+    private KeyValueMetadataLoader keyValueMetadataLoader;
+
     @Autowired
     private CatalogObjectMapper catalogObjectMapper;
 
@@ -108,6 +112,8 @@ public class CatalogObjectFetcher implements DataFetcher<CatalogObjectConnection
                                                                                                         : catalogObjectRevisionRepository.findAll(new DefaultSpecification(),
                                                                                                                                                   pageable);
 
+        keyValueMetadataLoader.load(catalogObjectEntitiesPage.getContent());
+
         return CatalogObjectConnection.builder()
                                       .edges(catalogObjectMapper.apply(catalogObjectEntitiesPage.getContent().stream())
                                                                 .collect(Collectors.toList()))
@@ -180,7 +186,8 @@ public class CatalogObjectFetcher implements DataFetcher<CatalogObjectConnection
                 ControllerLinkBuilder controllerLinkBuilder = linkTo(methodOn(CatalogObjectController.class).getRaw("dummy",
                                                                                                                     bucketName,
                                                                                                                     URLEncoder.encode(name,
-                                                                                                                                      "UTF-8")));
+                                                                                                                                      "UTF-8"),
+                                                                                                                    null));
 
                 return new Link(controllerLinkBuilder.toString()).withRel("content").getHref();
             } catch (UnsupportedEncodingException | NotAuthenticatedException | AccessDeniedException e) {
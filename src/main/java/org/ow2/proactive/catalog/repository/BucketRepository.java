@@ -35,6 +35,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QueryDslPredicateExecutor;
@@ -61,6 +62,15 @@ public interface BucketRepository extends JpaRepository<BucketEntity, Long>, Jpa
     @Query(value = "SELECT bk FROM BucketEntity bk WHERE bk.bucketName = ?1")
     BucketEntity findBucketForUpdate(String bucketName);
 
+    @Modifying
+    @Query(value = "UPDATE BucketEntity bk SET bk.objectCount = bk.objectCount + ?2 WHERE bk.id = ?1")
+    int addToObjectCount(Long bucketId, int delta);
+
+    @Modifying
+    @Query(value = "UPDATE BucketEntity bk SET bk.objectCount = (SELECT COUNT(co) FROM CatalogObjectEntity co WHERE co.bucket = bk)" +
+                   " WHERE bk.objectCount IS NULL")
+    int initializeMissingObjectCounts();
+
     @Query(value = "SELECT bk.bucketName, bk.owner, COUNT(cos.id.name) as objectCount, bk.id FROM BucketEntity bk LEFT JOIN bk.catalogObjects cos" +
                    " WHERE lower(cos.kind) LIKE lower(concat(?1, '%')) AND lower(cos.contentType) LIKE lower(concat(?2, '%'))" +
                    " AND lower(cos.id.name) LIKE lower(concat('%', ?3, '%')) OR bk.catalogObjects IS EMPTY GROUP BY bk.bucketName, bk.owner, bk.id")
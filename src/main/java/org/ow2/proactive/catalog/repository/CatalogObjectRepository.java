@@ -32,6 +32,7 @@ import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QueryDslPredicateExecutor;
 
@@ -52,4 +53,22 @@ public interface CatalogObjectRepository
     @Query(value = "SELECT DISTINCT cos.contentType FROM CatalogObjectEntity cos")
     Set<String> findAllContentTypes();
 
+    // a catalog object has a single revision per commit time
+    @Modifying
+    @Query(value = "UPDATE CatalogObjectEntity cos SET cos.latestRevision = (SELECT cor FROM CatalogObjectRevisionEntity cor" +
+                   " WHERE cor.catalogObject.id.bucketId = cos.id.bucketId AND cor.catalogObject.id.name = cos.id.name" +
+                   " AND cor.commitTime = cos.lastCommitTime) WHERE cos.latestRevision IS NULL AND EXISTS (SELECT cor.id" +
+                   " FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.id.bucketId = cos.id.bucketId" +
+                   " AND cor.catalogObject.id.name = cos.id.name AND cor.commitTime = cos.lastCommitTime)")
+    int setMissingLatestRevisions();
+
+    // the latest revision pointer must be released before revisions are removed by cascade
+    @Modifying
+    @Query(value = "UPDATE CatalogObjectEntity cos SET cos.latestRevision = NULL WHERE cos.id.bucketId = ?1 AND cos.id.name = ?2")
+    int clearLatestRevision(Long bucketId, String name);
+
+    @Modifying
+    @Query(value = "UPDATE CatalogObjectEntity cos SET cos.latestRevision = NULL")
+    int clearAllLatestRevisions();
+
 }
@@ -25,9 +25,12 @@
  */
 package org.ow2.proactive.catalog.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
+import org.ow2.proactive.catalog.dto.CatalogObjectNameReference;
+import org.ow2.proactive.catalog.dto.CatalogObjectRevisionSummary;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.util.parser.WorkflowParser;
 import org.springframework.data.domain.Page;
@@ -48,20 +51,55 @@ public interface CatalogObjectRevisionRepository extends JpaRepository<CatalogOb
     @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.projectName = null OR cor.projectName = ''")
     List<CatalogObjectRevisionEntity> findWithEmptyOrNullProjectName();
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND cor.catalogObject.lastCommitTime = cor.commitTime ORDER BY cor.projectName")
-    Page<CatalogObjectRevisionEntity> findDefaultCatalogObjectsInBucket(List<String> bucketNames, Pageable pageable);
+    @Query("SELECT cor.rawObjectEntity.hash FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.id.bucketId = ?1 AND cor.catalogObject.id.name = ?2 AND cor.rawObjectEntity IS NOT NULL")
+    List<String> findRawObjectHashesOfCatalogObject(Long bucketId, String name);
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1" +
-           " AND lower(cor.catalogObject.kind) LIKE lower(concat(?2, '%')) AND lower(cor.catalogObject.contentType) LIKE lower(concat(?3, '%'))" +
-           " AND lower(cor.catalogObject.id.name) LIKE lower(concat('%', ?4, '%')) AND cor.catalogObject.lastCommitTime = cor.commitTime ORDER BY cor.projectName")
-    Page<CatalogObjectRevisionEntity> findDefaultCatalogObjectsOfKindAndContentTypeAndObjectNameInBucket(
-            List<String> bucketNames, String kind, String contentType, String objectName, Pageable pageable);
+    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co WHERE co.id.bucketId in ?1 AND co.latestRevision = cor ORDER BY cor.projectName")
+    Page<CatalogObjectRevisionEntity> findDefaultCatalogObjectsInBucket(List<Long> bucketIds, Pageable pageable);
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND cor.catalogObject.id.name = ?2 AND cor.catalogObject.lastCommitTime = cor.commitTime")
-    CatalogObjectRevisionEntity findDefaultCatalogObjectByNameInBucket(List<String> bucketNames, String name);
+    @Query(value = "SELECT new org.ow2.proactive.catalog.dto.CatalogObjectRevisionSummary(cor.id, bk.bucketName, co.id.name, " +
+                   "cor.projectName, co.kind, co.contentType, cor.commitTime, cor.commitMessage, cor.username, co.extension) " +
+                   "FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co JOIN co.bucket bk " +
+                   "WHERE co.id.bucketId in ?1 AND co.latestRevision = cor ORDER BY cor.projectName")
+    List<CatalogObjectRevisionSummary> findDefaultCatalogObjectSummariesInBucket(List<Long> bucketIds,
+            Pageable pageable);
 
-    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor WHERE cor.catalogObject.bucket.bucketName in ?1 AND cor.catalogObject.id.name = ?2 AND cor.commitTime = ?3")
-    CatalogObjectRevisionEntity findCatalogObjectRevisionByCommitTime(List<String> bucketNames, String name,
+    @Query(value = "SELECT new org.ow2.proactive.catalog.dto.CatalogObjectRevisionSummary(cor.id, bk.bucketName, co.id.name, " +
+                   "cor.projectName, co.kind, co.contentType, cor.commitTime, cor.commitMessage, cor.username, co.extension) " +
+                   "FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co JOIN co.bucket bk " +
+                   "WHERE co.id.bucketId in ?1 AND lower(co.kind) LIKE lower(concat(?2, '%')) " +
+                   "AND lower(co.contentType) LIKE lower(concat(?3, '%')) " +
+                   "AND lower(co.id.name) LIKE lower(concat('%', ?4, '%')) AND co.latestRevision = cor ORDER BY cor.projectName")
+    List<CatalogObjectRevisionSummary> findDefaultCatalogObjectSummariesOfKindAndContentTypeAndObjectNameInBucket(
+            List<Long> bucketIds, String kind, String contentType, String objectName, Pageable pageable);
+
+    /**
+     * Initializes the key values of the given revisions when they are already managed
+     */
+    @Query("SELECT DISTINCT cor FROM CatalogObjectRevisionEntity cor LEFT JOIN FETCH cor.keyValueMetadataList " +
+           "WHERE cor.id IN ?1")
+    List<CatalogObjectRevisionEntity> fetchKeyValueMetadata(Collection<Long> revisionIds);
+
+    /**
+     * @return the revision id, key, value and label of each metadata of the given revisions
+     */
+    @Query("SELECT kv.catalogObjectRevision.id, kv.key, kv.value, kv.label FROM KeyValueLabelMetadataEntity kv " +
+           "WHERE kv.catalogObjectRevision.id IN ?1 ORDER BY kv.id")
+    List<Object[]> findKeyValueMetadataOfRevisions(Collection<Long> revisionIds);
+
+    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co WHERE co.id.bucketId in ?1 AND co.id.name = ?2 AND co.latestRevision = cor")
+    CatalogObjectRevisionEntity findDefaultCatalogObjectByNameInBucket(List<Long> bucketIds, String name);
+
+    @Query("SELECT co.id.name FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co WHERE co.id.bucketId in ?1 AND co.id.name in ?2 AND co.latestRevision = cor")
+    List<String> findDefaultCatalogObjectNamesInBucket(List<Long> bucketIds, Collection<String> names);
+
+    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor JOIN FETCH cor.catalogObject co LEFT JOIN FETCH cor.rawObjectEntity " +
+           "WHERE co.id.bucketId in ?1 AND co.id.name in ?2 AND co.latestRevision = cor")
+    List<CatalogObjectRevisionEntity> findDefaultCatalogObjectsByNamesInBucket(List<Long> bucketIds,
+            Collection<String> names);
+
+    @Query("SELECT cor FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co WHERE co.id.bucketId in ?1 AND co.id.name = ?2 AND cor.commitTime = ?3")
+    CatalogObjectRevisionEntity findCatalogObjectRevisionByCommitTime(List<Long> bucketIds, String name,
             long commitTime);
 
     @Query("SELECT metadata.key FROM CatalogObjectRevisionEntity cor INNER JOIN cor.keyValueMetadataList metadata WHERE metadata.label = '" +
@@ -86,15 +124,24 @@ public interface CatalogObjectRevisionRepository extends JpaRepository<CatalogOb
      */
     @Query("SELECT cor FROM CatalogObjectRevisionEntity cor INNER JOIN cor.keyValueMetadataList metadata WHERE metadata.label = '" +
            WorkflowParser.ATTRIBUTE_DEPENDS_ON_LABEL + "' AND metadata.key = :bucketObjectName" +
-           " AND cor.commitTime = cor.catalogObject.lastCommitTime")
+           " AND cor.catalogObject.latestRevision = cor")
     List<CatalogObjectRevisionEntity>
             findCalledByCatalogObjectsFromKeyValueMetadata(@Param("bucketObjectName") String bucketObjectName);
 
-    @Query(value = "SELECT  cor FROM CatalogObjectRevisionEntity cor " +
-                   "WHERE lower(cor.catalogObject.kind) LIKE lower(concat('%', ?1, '%')) " +
-                   "AND lower(cor.catalogObject.contentType) LIKE lower(concat('%', ?2, '%'))  " +
-                   "AND cor.commitTime = cor.catalogObject.lastCommitTime ")
-    List<CatalogObjectRevisionEntity> findCatalogObjectNameReferenceByKindAndContentType(String kind,
+    @Query(value = "SELECT new org.ow2.proactive.catalog.dto.CatalogObjectNameReference(bk.bucketName, cor.projectName, co.id.name) " +
+                   "FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co JOIN co.bucket bk " +
+                   "WHERE lower(co.kind) LIKE lower(concat('%', ?1, '%')) " +
+                   "AND lower(co.contentType) LIKE lower(concat('%', ?2, '%')) " +
+                   "AND co.latestRevision = cor ORDER BY bk.id, co.id.name")
+    List<CatalogObjectNameReference> findCatalogObjectNameReferenceByKindAndContentType(String kind,
             String contentType);
 
+    @Query(value = "SELECT new org.ow2.proactive.catalog.dto.CatalogObjectNameReference(bk.bucketName, cor.projectName, co.id.name) " +
+                   "FROM CatalogObjectRevisionEntity cor JOIN cor.catalogObject co JOIN co.bucket bk " +
+                   "WHERE bk.owner IN ?1 AND lower(co.kind) LIKE lower(concat('%', ?2, '%')) " +
+                   "AND lower(co.contentType) LIKE lower(concat('%', ?3, '%')) " +
+                   "AND co.latestRevision = cor ORDER BY bk.id, co.id.name")
+    List<CatalogObjectNameReference> findCatalogObjectNameReferenceByKindAndContentTypeInBucketsOwnedBy(
+            Collection<String> owners, String kind, String contentType);
+
 }
@@ -0,0 +1,76 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public interface RawObjectRepository extends JpaRepository<RawObjectEntity, String> {
+
+    @Query(value = "SELECT ro FROM RawObjectEntity ro WHERE ro.codec IS NULL")
+    List<RawObjectEntity> findWithoutCodec(Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE RawObjectEntity ro SET ro.referenceCount = ro.referenceCount + ?2 WHERE ro.hash = ?1")
+    int addToReferenceCount(String hash, long delta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT ro.hash FROM RawObjectEntity ro WHERE ro.hash IN ?1 AND ro.referenceCount <= 0")
+    List<String> findUnreferencedForUpdate(Collection<String> hashes);
+
+    @Query(value = "SELECT ro.hash FROM RawObjectEntity ro WHERE ro.hash IN ?1")
+    List<String> findExistingHashes(Collection<String> hashes);
+
+    @Query(value = "SELECT ro.baseHash FROM RawObjectEntity ro WHERE ro.hash IN ?1 AND ro.baseHash IS NOT NULL")
+    List<String> findBaseHashes(Collection<String> hashes);
+
+    /**
+     * @return the hash, content length, codec, stored length and base hash of the raw object of
+     *         the given revision, read without its content
+     */
+    @Query(value = "SELECT ro.hash, ro.contentLength, ro.codec, ro.storedLength, ro.baseHash FROM CatalogObjectRevisionEntity cor " +
+                   "JOIN cor.rawObjectEntity ro WHERE cor.id = ?1")
+    List<Object[]> findDescriptionOfRevision(Long revisionId);
+
+    @Modifying
+    @Query(value = "DELETE FROM RawObjectEntity ro WHERE ro.hash IN ?1 AND ro.referenceCount <= 0")
+    int deleteUnreferenced(Collection<String> hashes);
+
+}
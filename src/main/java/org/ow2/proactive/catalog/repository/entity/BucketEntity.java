@@ -77,6 +77,10 @@ public class BucketEntity implements Serializable {
     @Column(name = "OWNER", nullable = false)
     protected String owner;
 
+    // maintained with bulk updates by the catalog object service, never written back from a loaded entity
+    @Column(name = "OBJECT_COUNT", updatable = false)
+    protected Integer objectCount = 0;
+
     @OneToMany(mappedBy = "bucket", fetch = FetchType.LAZY, cascade = { CascadeType.PERSIST,
                                                                         CascadeType.REMOVE }, orphanRemoval = true)
     @Fetch(FetchMode.SELECT)
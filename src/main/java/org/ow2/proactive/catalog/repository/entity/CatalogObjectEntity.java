@@ -42,6 +42,7 @@ import javax.persistence.MapsId;
 import javax.persistence.NamedAttributeNode;
 import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
 import javax.persistence.OrderBy;
 import javax.persistence.Table;
 
@@ -64,7 +65,8 @@ import lombok.NoArgsConstructor;
 @BatchSize(size = 25)
 @Entity
 @NamedEntityGraph(name = "catalogObject.withRevisions", attributeNodes = { @NamedAttributeNode("revisions") })
-@Table(name = "CATALOG_OBJECT", indexes = { @Index(columnList = "LAST_COMMIT_TIME") })
+@Table(name = "CATALOG_OBJECT", indexes = { @Index(columnList = "LAST_COMMIT_TIME"),
+                                            @Index(columnList = "LATEST_REVISION_ID") })
 public class CatalogObjectEntity implements Serializable {
 
     @AllArgsConstructor
@@ -132,6 +134,10 @@ public class CatalogObjectEntity implements Serializable {
     @Column(name = "LAST_COMMIT_TIME")
     private long lastCommitTime;
 
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "LATEST_REVISION_ID")
+    private CatalogObjectRevisionEntity latestRevision;
+
     public CatalogObjectEntity() {
         revisions = new TreeSet<>();
     }
@@ -139,6 +145,7 @@ public class CatalogObjectEntity implements Serializable {
     public void addRevision(CatalogObjectRevisionEntity catalogObjectRevision) {
         this.revisions.add(catalogObjectRevision);
         this.lastCommitTime = catalogObjectRevision.getCommitTime();
+        this.latestRevision = catalogObjectRevision;
     }
 
     @Override
@@ -60,7 +60,8 @@ public class CatalogObjectRevisionEntity implements Comparable, Serializable {
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CATALOG_OBJECT_REVISION_SEQ")
     @GenericGenerator(name = "CATALOG_OBJECT_REVISION_SEQ", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = { @Parameter(name = "sequence_name", value = "CATALOG_OBJECT_REVISION_SEQ"),
                                                                                                                                           @Parameter(name = "initial_value", value = "1"),
-                                                                                                                                          @Parameter(name = "increment_size", value = "1") })
+                                                                                                                                          @Parameter(name = "increment_size", value = "50"),
+                                                                                                                                          @Parameter(name = "optimizer", value = "pooled-lo") })
     @Column(name = "ID")
     protected Long id;
 
@@ -76,20 +77,25 @@ public class CatalogObjectRevisionEntity implements Comparable, Serializable {
     @Column(name = "COMMIT_TIME", nullable = false)
     private long commitTime;
 
+    // time at which the raw object was last rewritten in place, null if it is still the committed one
+    @Column(name = "MODIFICATION_TIME")
+    private Long modificationTime;
+
     @ManyToOne(fetch = FetchType.EAGER, cascade = { CascadeType.PERSIST })
     @JoinColumns({ @JoinColumn(name = "BUCKET", referencedColumnName = "BUCKET_ID"),
                    @JoinColumn(name = "NAME", referencedColumnName = "NAME") })
     private CatalogObjectEntity catalogObject;
 
-    @OneToMany(mappedBy = "catalogObjectRevision", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    // loaded a page at a time by KeyValueMetadataLoader where revisions are listed
+    @OneToMany(mappedBy = "catalogObjectRevision", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Fetch(FetchMode.SELECT)
     @BatchSize(size = 10)
     @Builder.Default
     private List<KeyValueLabelMetadataEntity> keyValueMetadataList = new ArrayList<>();
 
-    @Lob
-    @Column(name = "RAW_OBJECT", length = Integer.MAX_VALUE)
-    private byte[] rawObject;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "RAW_OBJECT_HASH")
+    private RawObjectEntity rawObjectEntity;
 
     @Override
     public int compareTo(Object o) {
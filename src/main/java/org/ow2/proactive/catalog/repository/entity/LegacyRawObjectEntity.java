@@ -0,0 +1,83 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Raw content stored inline by the revisions committed before RAW_OBJECT existed. It is mapped
+ * apart from {@link CatalogObjectRevisionEntity} on the same table, so that loading revisions never
+ * reads this column, and only used to move that content to the raw object table at startup.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "CATALOG_OBJECT_REVISION")
+public class LegacyRawObjectEntity implements Serializable {
+
+    @Id
+    @Column(name = "ID")
+    private Long id;
+
+    @Lob
+    @Column(name = "RAW_OBJECT", length = Integer.MAX_VALUE)
+    private byte[] rawObject;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        LegacyRawObjectEntity that = (LegacyRawObjectEntity) o;
+
+        return id != null ? id.equals(that.id) : that.id == null;
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "LegacyRawObjectEntity{" + "id=" + id + '}';
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.entity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+
+/**
+ * Encoding of the bytes stored for a raw object. The gzip codec produces a valid HTTP gzip
+ * content coding, so that stored bytes can be sent as they are to clients accepting it.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public enum RawObjectCodec {
+
+    NONE(null) {
+        @Override
+        public byte[] encode(byte[] content) {
+            return content;
+        }
+
+        @Override
+        public InputStream decode(InputStream stored) {
+            return stored;
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        public byte[] encode(byte[] content) {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(encoded)) {
+                gzipOutputStream.write(content);
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot compress raw object", e);
+            }
+            return encoded.toByteArray();
+        }
+
+        @Override
+        public InputStream decode(InputStream stored) throws IOException {
+            return new GZIPInputStream(stored);
+        }
+    };
+
+    private final String contentEncoding;
+
+    RawObjectCodec(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * @return the HTTP content coding matching this codec, or null if stored bytes are not encoded
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public abstract byte[] encode(byte[] content);
+
+    public abstract InputStream decode(InputStream stored) throws IOException;
+
+    public byte[] decode(byte[] stored) {
+        if (this == NONE || stored == null) {
+            return stored;
+        }
+        try (InputStream decoded = decode(new ByteArrayInputStream(stored))) {
+            return StreamUtils.copyToByteArray(decoded);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot decompress raw object", e);
+        }
+    }
+
+    /**
+     * @return a resource decoding the given stored resource each time it is read
+     */
+    public Resource decode(Resource stored) {
+        if (this == NONE) {
+            return stored;
+        }
+        return new AbstractResource() {
+            @Override
+            public String getDescription() {
+                return name().toLowerCase() + " decoded " + stored.getDescription();
+            }
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return decode(stored.getInputStream());
+            }
+        };
+    }
+
+    /**
+     * @return the codec of a raw object, rows stored before codecs existed being not encoded
+     */
+    public static RawObjectCodec of(RawObjectEntity rawObject) {
+        return rawObject.getCodec() != null ? rawObject.getCodec() : NONE;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Raw content of catalog object revisions, stored once per distinct SHA-256 digest and shared by
+ * every revision having the same bytes.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "RAW_OBJECT")
+public class RawObjectEntity implements Serializable {
+
+    @Id
+    @Column(name = "HASH", length = 64)
+    private String hash;
+
+    @Lob
+    @Column(name = "CONTENT", length = Integer.MAX_VALUE)
+    private byte[] content;
+
+    @Column(name = "CONTENT_LENGTH", nullable = false)
+    private long contentLength;
+
+    // null for the rows stored before codecs existed, whose content is not encoded
+    @Enumerated(EnumType.STRING)
+    @Column(name = "CODEC", length = 16)
+    private RawObjectCodec codec;
+
+    // length of the encoded content, null when it is not encoded
+    @Column(name = "STORED_LENGTH")
+    private Long storedLength;
+
+    // raw object this content is a delta against, null when the content is stored in full
+    @Column(name = "BASE_HASH", length = 64)
+    private String baseHash;
+
+    // number of deltas to apply from the closest raw object stored in full, null when stored in full
+    @Column(name = "DELTA_DEPTH")
+    private Integer deltaDepth;
+
+    // maintained with bulk updates by the raw object service, never written back from a loaded entity
+    @Column(name = "REFERENCE_COUNT", nullable = false, updatable = false)
+    private long referenceCount;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        RawObjectEntity that = (RawObjectEntity) o;
+
+        return hash != null ? hash.equals(that.hash) : that.hash == null;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash != null ? hash.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RawObjectEntity{" + "hash='" + hash + '\'' + ", contentLength=" + contentLength + ", codec=" +
+               codec + ", storedLength=" + storedLength + ", baseHash='" + baseHash + '\'' + ", deltaDepth=" + deltaDepth +
+               ", referenceCount=" + referenceCount + '}';
+    }
+}
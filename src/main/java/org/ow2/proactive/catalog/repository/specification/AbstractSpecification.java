@@ -69,8 +69,8 @@ public abstract class AbstractSpecification<T> implements Specification<CatalogO
             CriteriaBuilder cb) {
         if (root.getJoins().size() == 0) {
             catalogObjectJoin = getOrCreateJoin(root, "catalogObject");
-            Predicate revisionPredicate = cb.equal(root.get(CatalogObjectEntityMetaModelEnum.COMMIT_TIME.getName()),
-                                                   catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.LAST_COMMIT_TIME.getName()));
+            Predicate revisionPredicate = cb.equal(catalogObjectJoin.get(CatalogObjectEntityMetaModelEnum.LATEST_REVISION.getName()),
+                                                   root);
 
             catalogObjectJoin.on(revisionPredicate);
             query.distinct(true);
@@ -48,8 +48,8 @@ public class DefaultSpecification implements Specification<CatalogObjectRevision
     public Predicate toPredicate(Root<CatalogObjectRevisionEntity> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
         final Join<CatalogObjectRevisionEntity, CatalogObjectEntity> catalogObject = root.join(CatalogObjectEntityMetaModelEnum.CATALOG_OBJECT.getName(),
                                                                                                JoinType.INNER);
-        Predicate lastCommit = cb.equal(root.get(CatalogObjectEntityMetaModelEnum.COMMIT_TIME.getName()),
-                                        catalogObject.get(CatalogObjectEntityMetaModelEnum.LAST_COMMIT_TIME.getName()));
+        Predicate lastCommit = cb.equal(catalogObject.get(CatalogObjectEntityMetaModelEnum.LATEST_REVISION.getName()),
+                                        root);
         return lastCommit;
     }
 }
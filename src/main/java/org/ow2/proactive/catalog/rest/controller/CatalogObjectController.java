@@ -27,10 +27,12 @@ package org.ow2.proactive.catalog.rest.controller;
 
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
+import static org.springframework.web.bind.annotation.RequestMethod.HEAD;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.util.Arrays;
@@ -50,7 +52,6 @@ import org.ow2.proactive.catalog.service.CatalogObjectService;
 import org.ow2.proactive.catalog.service.RestApiAccessService;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.catalog.service.model.RestApiAccessResponse;
-import org.ow2.proactive.catalog.util.ArchiveManagerHelper.ZipArchiveContent;
 import org.ow2.proactive.catalog.util.LinkUtil;
 import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.ow2.proactive.microservices.common.exception.NotAuthenticatedException;
@@ -137,13 +138,16 @@ public class CatalogObjectController {
 
             return new CatalogObjectMetadataList(catalogObject);
         } else {
-            List<CatalogObjectMetadata> catalogObjects = catalogObjectService.createCatalogObjects(bucketName,
-                                                                                                   projectName.orElse(""),
-                                                                                                   kind,
-                                                                                                   commitMessage,
-                                                                                                   restApiAccessResponse.getAuthenticatedUser()
-                                                                                                                        .getName(),
-                                                                                                   file.getBytes());
+            List<CatalogObjectMetadata> catalogObjects;
+            try (InputStream zipArchive = file.getInputStream()) {
+                catalogObjects = catalogObjectService.createCatalogObjects(bucketName,
+                                                                           projectName.orElse(""),
+                                                                           kind,
+                                                                           commitMessage,
+                                                                           restApiAccessResponse.getAuthenticatedUser()
+                                                                                                .getName(),
+                                                                           zipArchive);
+            }
 
             for (CatalogObjectMetadata catalogObject : catalogObjects) {
                 catalogObject.add(LinkUtil.createLink(bucketName, catalogObject.getName()));
@@ -223,24 +227,66 @@ public class CatalogObjectController {
         return metadata;
     }
 
-    @ApiOperation(value = "Gets the raw content of the last revision of a catalog object")
+    @ApiOperation(value = "Gets the raw content of the last revision of a catalog object", notes = "Supports the Range and If-Range headers, several ranges being sent in a multipart/byteranges body.")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Ok"),
+                            @ApiResponse(code = 206, message = "Requested ranges of the raw content"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
                             @ApiResponse(code = 403, message = "Permission denied"),
-                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found") })
+                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found"),
+                            @ApiResponse(code = 416, message = "None of the requested ranges is satisfiable") })
 
     @RequestMapping(value = REQUEST_API_QUERY + "/{name:.+}/raw", method = GET, produces = MediaType.ALL_VALUE)
     public ResponseEntity<String> getRaw(
             @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
-            @PathVariable String bucketName, @PathVariable String name)
+            @PathVariable String bucketName, @PathVariable String name,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange)
             throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
                                                                                sessionId,
                                                                                bucketName);
 
         CatalogRawObject rawObject = catalogObjectService.getCatalogRawObject(bucketName, name);
-        return rawObjectResponseCreator.createRawObjectResponse(rawObject);
+        return rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                acceptEncoding,
+                                                                ifNoneMatch,
+                                                                ifModifiedSince,
+                                                                range,
+                                                                ifRange,
+                                                                RawObjectResponseCreator.LATEST_REVISION_CACHE_CONTROL);
+
+    }
+
+    @ApiOperation(value = "Gets the size and content digest of the last revision of a catalog object", notes = "Returns the headers of the raw content without reading it, the ETag holding the SHA-256 digest of the content.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Ok"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied"),
+                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found") })
+    @RequestMapping(value = REQUEST_API_QUERY + "/{name:.+}/raw", method = HEAD, produces = MediaType.ALL_VALUE)
+    public ResponseEntity<String> headRaw(
+            @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
+            @PathVariable String bucketName, @PathVariable String name,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange)
+            throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
+        restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
+                                                                               sessionId,
+                                                                               bucketName);
 
+        CatalogRawObject rawObject = catalogObjectService.getCatalogRawObject(bucketName, name);
+        return rawObjectResponseCreator.createRawObjectHeadResponse(rawObject,
+                                                                    acceptEncoding,
+                                                                    ifNoneMatch,
+                                                                    ifModifiedSince,
+                                                                    range,
+                                                                    ifRange,
+                                                                    RawObjectResponseCreator.LATEST_REVISION_CACHE_CONTROL);
     }
 
     @ApiOperation(value = "Gets dependencies (dependsOn and calledBy) of a catalog object")
@@ -289,11 +335,11 @@ public class CatalogObjectController {
         objectNameFilter = objectNameFilter.filter(s -> !s.isEmpty());
         if (names.isPresent()) {
 
-            ZipArchiveContent zipArchiveContent = catalogObjectService.getCatalogObjectsAsZipArchive(bucketName,
-                                                                                                     names.get());
+            // the status is sent before the archive is streamed, so missing objects are looked up first
+            List<String> missingNames = catalogObjectService.findMissingCatalogObjectNames(bucketName, names.get());
 
             HttpStatus status;
-            if (zipArchiveContent.isPartial()) {
+            if (!missingNames.isEmpty()) {
                 status = HttpStatus.PARTIAL_CONTENT;
                 response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
             } else {
@@ -305,7 +351,9 @@ public class CatalogObjectController {
             response.addHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"archive.zip\"");
             response.addHeader(HttpHeaders.CONTENT_ENCODING, "binary");
             try {
-                response.getOutputStream().write(zipArchiveContent.getContent());
+                catalogObjectService.writeCatalogObjectsAsZipArchive(bucketName,
+                                                                     names.get(),
+                                                                     response.getOutputStream());
                 response.getOutputStream().flush();
             } catch (IOException ioe) {
                 throw new RuntimeException(ioe);
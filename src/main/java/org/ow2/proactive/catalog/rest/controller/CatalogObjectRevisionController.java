@@ -26,6 +26,7 @@
 package org.ow2.proactive.catalog.rest.controller;
 
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
+import static org.springframework.web.bind.annotation.RequestMethod.HEAD;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 
@@ -45,6 +46,7 @@ import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.ow2.proactive.microservices.common.exception.NotAuthenticatedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -138,16 +140,55 @@ public class CatalogObjectRevisionController {
 
     }
 
-    @ApiOperation(value = "Gets the raw content of a specific revision")
+    @ApiOperation(value = "Gets the raw content of a specific revision", notes = "Supports the Range and If-Range headers, several ranges being sent in a multipart/byteranges body.")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Ok"),
+                            @ApiResponse(code = 206, message = "Requested ranges of the raw content"),
                             @ApiResponse(code = 401, message = "User not authenticated"),
                             @ApiResponse(code = 403, message = "Permission denied"),
-                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found") })
+                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found"),
+                            @ApiResponse(code = 416, message = "None of the requested ranges is satisfiable") })
     @RequestMapping(value = "/{commitTimeRaw}/raw", method = GET, produces = MediaType.ALL_VALUE)
     @ResponseStatus(HttpStatus.OK)
     public ResponseEntity<String> getRaw(
             @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
-            @PathVariable String bucketName, @PathVariable String name, @PathVariable long commitTimeRaw)
+            @PathVariable String bucketName, @PathVariable String name, @PathVariable long commitTimeRaw,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange)
+            throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
+        restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
+                                                                               sessionId,
+                                                                               bucketName);
+
+        CatalogRawObject objectRevisionRaw = catalogObjectService.getCatalogObjectRevisionRaw(bucketName,
+                                                                                              name,
+                                                                                              commitTimeRaw);
+
+        return rawObjectResponseCreator.createRawObjectResponse(objectRevisionRaw,
+                                                                acceptEncoding,
+                                                                ifNoneMatch,
+                                                                ifModifiedSince,
+                                                                range,
+                                                                ifRange,
+                                                                RawObjectResponseCreator.REVISION_CACHE_CONTROL);
+    }
+
+    @ApiOperation(value = "Gets the size and content digest of a specific revision", notes = "Returns the headers of the raw content without reading it, the ETag holding the SHA-256 digest of the content.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Ok"),
+                            @ApiResponse(code = 401, message = "User not authenticated"),
+                            @ApiResponse(code = 403, message = "Permission denied"),
+                            @ApiResponse(code = 404, message = "Bucket, catalog object or catalog object revision not found") })
+    @RequestMapping(value = "/{commitTimeRaw}/raw", method = HEAD, produces = MediaType.ALL_VALUE)
+    public ResponseEntity<String> headRaw(
+            @ApiParam(value = "sessionID", required = false) @RequestHeader(value = "sessionID", required = false) String sessionId,
+            @PathVariable String bucketName, @PathVariable String name, @PathVariable long commitTimeRaw,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange)
             throws UnsupportedEncodingException, NotAuthenticatedException, AccessDeniedException {
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(sessionIdRequired,
                                                                                sessionId,
@@ -157,7 +198,13 @@ public class CatalogObjectRevisionController {
                                                                                               name,
                                                                                               commitTimeRaw);
 
-        return rawObjectResponseCreator.createRawObjectResponse(objectRevisionRaw);
+        return rawObjectResponseCreator.createRawObjectHeadResponse(objectRevisionRaw,
+                                                                    acceptEncoding,
+                                                                    ifNoneMatch,
+                                                                    ifModifiedSince,
+                                                                    range,
+                                                                    ifRange,
+                                                                    RawObjectResponseCreator.REVISION_CACHE_CONTROL);
     }
 
     @ApiOperation(value = "Lists a catalog object revisions")
@@ -25,6 +25,9 @@
  */
 package org.ow2.proactive.catalog.service;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.ow2.proactive.catalog.service.model.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -55,4 +58,19 @@ public class AuthorizationService {
         String groupName = ownerGroupStringHelper.extractGroupFromBucketOwnerOrGroupString(bucketOwnerOrGroup);
         return authenticatedUser.getGroups().contains(groupName);
     }
+
+    /**
+     * Computes every bucket owner string accepted by {@link #askUserAuthorizationByBucketOwner} for the given user, so
+     * that accessible buckets can be selected in a single query instead of being checked one by one.
+     */
+    public Set<String> getAuthorizedBucketOwners(AuthenticatedUser authenticatedUser) {
+        Set<String> authorizedBucketOwners = new HashSet<>();
+        if (authenticatedUser == null) {
+            return authorizedBucketOwners;
+        }
+        authorizedBucketOwners.add(BucketService.DEFAULT_BUCKET_OWNER);
+        authorizedBucketOwners.addAll(authenticatedUser.getGroups());
+        authorizedBucketOwners.addAll(ownerGroupStringHelper.getGroupsWithPrefixFromGroupList(authenticatedUser.getGroups()));
+        return authorizedBucketOwners;
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.entity.BucketEntity;
+import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
+import org.ow2.proactive.catalog.service.model.RegisteredBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/**
+ * In-process registry of buckets (name, id and owner), shared by the access checks and the catalog object lookups so
+ * that resolving a bucket name does not query the database on every request.
+ *
+ * Buckets are loaded on first use. Every service method which creates, updates or deletes buckets must notify the
+ * registry: entries are evicted immediately and once more when the surrounding transaction completes, and a written
+ * bucket is only published once its transaction is committed. Buckets read inside a transaction which modified them are
+ * never registered, so a rollback cannot leave uncommitted values behind.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Component
+public class BucketRegistry {
+
+    private static final String ALL_BUCKETS = "";
+
+    private final BucketRepository bucketRepository;
+
+    private final ConcurrentMap<String, RegisteredBucket> bucketsByName = new ConcurrentHashMap<>();
+
+    // incremented on every change so that a lookup racing with a change does not register a stale bucket
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public BucketRegistry(BucketRepository bucketRepository) {
+        this.bucketRepository = bucketRepository;
+    }
+
+    /**
+     * @return the registered bucket with the given name
+     * @throws BucketNotFoundException if no such bucket exists
+     */
+    public RegisteredBucket getBucket(String bucketName) {
+        RegisteredBucket bucket = findBucket(bucketName);
+        if (bucket == null) {
+            throw new BucketNotFoundException(bucketName);
+        }
+        return bucket;
+    }
+
+    /**
+     * @return the registered bucket with the given name or null if no such bucket exists
+     */
+    public RegisteredBucket findBucket(String bucketName) {
+        if (bucketName == null) {
+            return null;
+        }
+        RegisteredBucket bucket = bucketsByName.get(bucketName);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        long generationBeforeLoading = generation.get();
+        BucketEntity bucketEntity = bucketRepository.findOneByBucketName(bucketName);
+        if (bucketEntity == null) {
+            return null;
+        }
+        bucket = RegisteredBucket.of(bucketEntity);
+        if (!isModifiedByCurrentTransaction(bucketName)) {
+            bucketsByName.putIfAbsent(bucketName, bucket);
+            if (generation.get() != generationBeforeLoading) {
+                bucketsByName.remove(bucketName, bucket);
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Publishes a created or updated bucket once the current transaction commits.
+     */
+    public void register(BucketEntity bucketEntity) {
+        RegisteredBucket bucket = RegisteredBucket.of(bucketEntity);
+        evict(bucket.getName());
+        afterTransaction(bucket.getName(), committed -> {
+            evict(bucket.getName());
+            if (committed) {
+                bucketsByName.put(bucket.getName(), bucket);
+            }
+        });
+    }
+
+    /**
+     * Evicts a deleted or modified bucket, now and when the current transaction completes.
+     */
+    public void invalidate(String bucketName) {
+        evict(bucketName);
+        afterTransaction(bucketName, committed -> evict(bucketName));
+    }
+
+    /**
+     * Evicts every bucket, now and when the current transaction completes.
+     */
+    public void invalidateAll() {
+        evictAll();
+        afterTransaction(ALL_BUCKETS, committed -> evictAll());
+    }
+
+    private void evict(String bucketName) {
+        generation.incrementAndGet();
+        bucketsByName.remove(bucketName);
+    }
+
+    private void evictAll() {
+        generation.incrementAndGet();
+        bucketsByName.clear();
+    }
+
+    private boolean isModifiedByCurrentTransaction(String bucketName) {
+        Set<String> modifiedBuckets = getModifiedBucketsOfCurrentTransaction();
+        return modifiedBuckets != null &&
+               (modifiedBuckets.contains(bucketName) || modifiedBuckets.contains(ALL_BUCKETS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> getModifiedBucketsOfCurrentTransaction() {
+        return (Set<String>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private void afterTransaction(String bucketName, CompletionCallback callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.onCompletion(true);
+            return;
+        }
+        Set<String> modifiedBuckets = getModifiedBucketsOfCurrentTransaction();
+        if (modifiedBuckets == null) {
+            modifiedBuckets = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, modifiedBuckets);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BucketRegistry.this);
+                }
+            });
+        }
+        modifiedBuckets.add(bucketName);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.onCompletion(status == TransactionSynchronization.STATUS_COMMITTED);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface CompletionCallback {
+        void onCompletion(boolean committed);
+    }
+}
@@ -35,12 +35,14 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.ow2.proactive.catalog.dto.BucketMetadata;
 import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
 import org.ow2.proactive.catalog.repository.entity.BucketEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.catalog.service.exception.BucketNameIsNotValidException;
 import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
 import org.ow2.proactive.catalog.service.exception.DeleteNonEmptyBucketException;
+import org.ow2.proactive.catalog.service.model.RegisteredBucket;
 import org.ow2.proactive.catalog.util.name.validator.BucketNameValidator;
 import org.ow2.proactive.microservices.common.exception.NotAuthenticatedException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -69,6 +71,18 @@ public class BucketService {
     @Autowired
     private BucketRepository bucketRepository;
 
+    @Autowired
+    private CatalogObjectRepository catalogObjectRepository;
+
+    @Autowired
+    private BucketRegistry bucketRegistry;
+
+    @Autowired
+    private RawObjectService rawObjectService;
+
+    @Autowired
+    private LatestRevisionCache latestRevisionCache;
+
     @Autowired
     private BucketNameValidator bucketNameValidator;
 
@@ -90,6 +104,7 @@ public class BucketService {
         BucketEntity bucketEntity = new BucketEntity(name, owner);
 
         bucketEntity = bucketRepository.save(bucketEntity);
+        bucketRegistry.register(bucketEntity);
         return new BucketMetadata(bucketEntity, 0);
     }
 
@@ -99,10 +114,12 @@ public class BucketService {
         bucketEntity.setOwner(owner);
 
         bucketEntity = bucketRepository.save(bucketEntity);
+        bucketRegistry.register(bucketEntity);
+        latestRevisionCache.invalidateBucket(bucketName);
 
         createRevisionForObjects(bucketName, COMMIT_MESSAGE_UPDATE_BUCKET);
 
-        return new BucketMetadata(bucketEntity, bucketEntity.getCatalogObjects().size());
+        return new BucketMetadata(bucketEntity, getObjectCount(bucketEntity));
     }
 
     //create a new revision for objects when the bucket owner is updated
@@ -115,8 +132,8 @@ public class BucketService {
     }
 
     public BucketMetadata getBucketMetadata(String bucketName) {
-        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
-        return new BucketMetadata(bucketEntity);
+        RegisteredBucket bucket = bucketRegistry.getBucket(bucketName);
+        return new BucketMetadata(bucket.getName(), bucket.getOwner());
     }
 
     public List<BucketMetadata> listBuckets(List<String> owners, Optional<String> kind, Optional<String> contentType,
@@ -174,12 +191,16 @@ public class BucketService {
 
     private List<BucketMetadata> generateBucketMetadataList(List<BucketEntity> bucketEntityList) {
         return bucketEntityList.stream()
-                               .map(bucketEntity -> new BucketMetadata(bucketEntity,
-                                                                       bucketEntity.getCatalogObjects().size()))
+                               .map(bucketEntity -> new BucketMetadata(bucketEntity, getObjectCount(bucketEntity)))
                                .collect(Collectors.toList());
 
     }
 
+    private int getObjectCount(BucketEntity bucketEntity) {
+        Integer objectCount = bucketEntity.getObjectCount();
+        return objectCount == null ? 0 : objectCount;
+    }
+
     public List<BucketMetadata> listBuckets(String ownerName, Optional<String> kind, Optional<String> contentType) {
         return listBuckets(ownerName, kind, contentType, Optional.empty());
     }
@@ -214,10 +235,15 @@ public class BucketService {
     public void cleanAllEmptyBuckets() {
         List<BucketEntity> emptyBucketsForUpdate = bucketRepository.findEmptyBucketsForUpdate();
         bucketRepository.deleteInBatch(emptyBucketsForUpdate);
+        bucketRegistry.invalidateAll();
     }
 
     public void cleanAll() {
+        catalogObjectRepository.clearAllLatestRevisions();
         bucketRepository.deleteAll();
+        rawObjectService.releaseAll();
+        bucketRegistry.invalidateAll();
+        latestRevisionCache.invalidateAll();
     }
 
     public BucketMetadata deleteEmptyBucket(String bucketName) {
@@ -231,6 +257,7 @@ public class BucketService {
             throw new DeleteNonEmptyBucketException(bucketName);
         }
         bucketRepository.delete(bucketEntity.getId());
+        bucketRegistry.invalidate(bucketName);
         return new BucketMetadata(bucketEntity);
     }
 
@@ -25,31 +25,43 @@
  */
 package org.ow2.proactive.catalog.service;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.ZipOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 import org.apache.commons.io.FilenameUtils;
-import org.apache.tika.detect.Detector;
-import org.apache.tika.mime.MediaType;
-import org.apache.tika.parser.AutoDetectParser;
 import org.ow2.proactive.catalog.dto.CatalogObjectDependencies;
 import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
 import org.ow2.proactive.catalog.dto.CatalogObjectNameReference;
+import org.ow2.proactive.catalog.dto.CatalogObjectRevisionSummary;
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
 import org.ow2.proactive.catalog.dto.DependsOnCatalogObject;
 import org.ow2.proactive.catalog.dto.Metadata;
@@ -60,16 +72,19 @@ import org.ow2.proactive.catalog.repository.entity.BucketEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
 import org.ow2.proactive.catalog.service.exception.*;
 import org.ow2.proactive.catalog.service.model.GenericInfoBucketData;
+import org.ow2.proactive.catalog.service.model.RegisteredBucket;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper.FileNameAndContent;
-import org.ow2.proactive.catalog.util.ArchiveManagerHelper.ZipArchiveContent;
+import org.ow2.proactive.catalog.util.MimeTypeDetector;
 import org.ow2.proactive.catalog.util.RevisionCommitMessageBuilder;
 import org.ow2.proactive.catalog.util.SeparatorUtility;
 import org.ow2.proactive.catalog.util.name.validator.KindAndContentTypeValidator;
 import org.ow2.proactive.catalog.util.name.validator.ObjectNameValidator;
 import org.ow2.proactive.catalog.util.parser.WorkflowParser;
+import org.ow2.proactive.microservices.common.exception.ClientException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -81,7 +96,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 
 
@@ -101,12 +121,30 @@ public class CatalogObjectService {
     @Autowired
     private BucketRepository bucketRepository;
 
+    @Autowired
+    private BucketRegistry bucketRegistry;
+
+    @Autowired
+    private RawObjectService rawObjectService;
+
+    @Autowired
+    private KeyValueMetadataLoader keyValueMetadataLoader;
+
     @Autowired
     private ArchiveManagerHelper archiveManager;
 
+    @Autowired
+    private MimeTypeDetector mimeTypeDetector;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private KeyValueLabelMetadataHelper keyValueLabelMetadataHelper;
 
+    @Autowired
+    private LatestRevisionCache latestRevisionCache;
+
     @Autowired
     private WorkflowInfoAdder workflowInfoAdder;
 
@@ -133,7 +171,30 @@ public class CatalogObjectService {
 
     static final String PROJECT_NAME = "project_name";
 
-    private AutoDetectParser mediaTypeFileParser = new AutoDetectParser();
+    // revisions loaded at a time when writing an archive
+    private static final int ZIP_EXPORT_BATCH_SIZE = 16;
+
+    @Value("${pa.catalog.import.workers:0}")
+    private int importWorkers;
+
+    private ExecutorService importExecutor;
+
+    private int importQueueCapacity;
+
+    @PostConstruct
+    void initImportExecutor() {
+        int workers = importWorkers > 0 ? importWorkers : Runtime.getRuntime().availableProcessors();
+        importExecutor = Executors.newFixedThreadPool(workers,
+                                                      new ThreadFactoryBuilder().setNameFormat("catalog-import-%d")
+                                                                                .setDaemon(true)
+                                                                                .build());
+        importQueueCapacity = 2 * workers;
+    }
+
+    @PreDestroy
+    void shutdownImportExecutor() {
+        importExecutor.shutdownNow();
+    }
 
     public CatalogObjectMetadata createCatalogObject(String bucketName, String name, String projectName, String kind,
             String commitMessage, String username, String contentType, byte[] rawObject, String extension) {
@@ -149,46 +210,171 @@ public class CatalogObjectService {
                                         extension);
     }
 
+    /**
+     * Create the catalog objects contained in a ZIP archive, or new revisions of the existing ones.
+     * Entries are read from the stream one at a time, then parsed and rewritten by the import workers
+     * while the following ones are read. The prepared revisions are stored in the order of the archive by
+     * the calling thread, which owns the transaction. Once the workers are busy, the reading waits for
+     * the oldest entry to be stored. Every entry is processed even when some fail, the failures of all of
+     * them being reported together.
+     */
     public List<CatalogObjectMetadata> createCatalogObjects(String bucketName, String projectName, String kind,
-            String commitMessage, String username, byte[] zipArchive) {
+            String commitMessage, String username, InputStream zipArchive) {
 
-        List<FileNameAndContent> filesContainedInArchive = archiveManager.extractZIP(zipArchive);
+        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
+        GenericInfoBucketData genericInfoBucketData = createGenericInfoBucketData(bucketEntity);
+        // kind of the objects already read from the archive, the ones created by a previous entry not being stored yet
+        Map<String, String> importedKinds = new HashMap<>();
+        Deque<ImportedEntry> pendingEntries = new ArrayDeque<>();
+        List<CatalogObjectMetadata> catalogObjects = new ArrayList<>();
+        List<String> entryErrors = new ArrayList<>();
+        AtomicInteger createdObjectCount = new AtomicInteger();
+
+        try {
+            archiveManager.extractZIP(zipArchive, file -> {
+                String objectName = file.getName();
+                String objectKind = importedKinds.get(objectName);
+                boolean existing = objectKind != null;
+                if (!existing) {
+                    CatalogObjectEntity catalogObject = catalogObjectRepository.findOne(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
+                                                                                                                                       objectName));
+                    existing = catalogObject != null;
+                    objectKind = existing ? catalogObject.getKind() : kind;
+                    importedKinds.put(objectName, objectKind);
+                }
+                String entryKind = objectKind;
+                boolean newObject = !existing;
+                Future<PreparedRevision> preparedRevision = importExecutor.submit(() -> {
+                    PreparedRevision revision = prepareRevision(entryKind,
+                                                                objectName,
+                                                                genericInfoBucketData,
+                                                                projectName,
+                                                                file.getContent(),
+                                                                Collections.emptyList());
+                    if (newObject) {
+                        revision.setContentType(getFileMimeType(file));
+                    }
+                    return revision;
+                });
+                pendingEntries.add(new ImportedEntry(file.getFileNameWithExtension(),
+                                                     objectName,
+                                                     entryKind,
+                                                     newObject,
+                                                     preparedRevision));
+                if (pendingEntries.size() >= importQueueCapacity) {
+                    storeImportedEntry(bucketEntity,
+                                       commitMessage,
+                                       username,
+                                       pendingEntries.poll(),
+                                       catalogObjects,
+                                       entryErrors,
+                                       createdObjectCount);
+                }
+            });
+            while (!pendingEntries.isEmpty()) {
+                storeImportedEntry(bucketEntity,
+                                   commitMessage,
+                                   username,
+                                   pendingEntries.poll(),
+                                   catalogObjects,
+                                   entryErrors,
+                                   createdObjectCount);
+            }
+        } finally {
+            pendingEntries.forEach(entry -> entry.getPreparedRevision().cancel(true));
+        }
 
-        if (filesContainedInArchive.isEmpty()) {
+        if (!entryErrors.isEmpty()) {
+            throw new UnprocessableEntityException("Cannot import archive entries: " + String.join(", ", entryErrors));
+        }
+        if (catalogObjects.isEmpty()) {
             throw new UnprocessableEntityException("Malformed archive");
         }
-        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
+        if (createdObjectCount.get() > 0) {
+            addToObjectCount(bucketEntity.getId(), createdObjectCount.get());
+        }
+        return catalogObjects;
+    }
 
-        return filesContainedInArchive.stream().map(file -> {
-            String objectName = file.getName();
-            CatalogObjectEntity catalogObject = catalogObjectRepository.findOne(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
-                                                                                                                               objectName));
-            if (catalogObject == null) {
-                String contentTypeOfFile = getFileMimeType(file);
-                return this.createCatalogObject(bucketName,
-                                                objectName,
-                                                projectName,
-                                                kind,
-                                                commitMessage,
-                                                username,
-                                                contentTypeOfFile,
-                                                Collections.emptyList(),
-                                                file.getContent(),
-                                                FilenameUtils.getExtension(file.getFileNameWithExtension()));
+    private void storeImportedEntry(BucketEntity bucketEntity, String commitMessage, String username,
+            ImportedEntry entry, List<CatalogObjectMetadata> catalogObjects, List<String> entryErrors,
+            AtomicInteger createdObjectCount) {
+        try {
+            PreparedRevision preparedRevision = entry.getPreparedRevision().get();
+            CatalogObjectEntity catalogObjectEntity;
+            if (entry.isNewObject()) {
+                checkNewCatalogObject(entry.getName(), entry.getKind(), preparedRevision.getContentType());
+                catalogObjectEntity = newCatalogObjectEntity(bucketEntity,
+                                                             entry.getName(),
+                                                             entry.getKind(),
+                                                             preparedRevision.getContentType(),
+                                                             FilenameUtils.getExtension(entry.getFileNameWithExtension()));
+                createdObjectCount.incrementAndGet();
             } else {
-                return this.createCatalogObjectRevision(bucketName,
-                                                        objectName,
-                                                        projectName,
-                                                        commitMessage,
-                                                        username,
-                                                        file.getContent());
+                catalogObjectEntity = catalogObjectRepository.findOne(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
+                                                                                                                     entry.getName()));
+                if (catalogObjectEntity == null) {
+                    throw new CatalogObjectNotFoundException(bucketEntity.getBucketName(), entry.getName());
+                }
             }
-        }).collect(Collectors.toList());
+            catalogObjects.add(new CatalogObjectMetadata(saveRevision(commitMessage,
+                                                                      username,
+                                                                      preparedRevision,
+                                                                      catalogObjectEntity)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while importing " + entry.getFileNameWithExtension(), e);
+        } catch (ExecutionException e) {
+            log.warn("Cannot import archive entry " + entry.getFileNameWithExtension(), e.getCause());
+            entryErrors.add(entry.getFileNameWithExtension() + " (" + e.getCause().getMessage() + ")");
+        } catch (ClientException e) {
+            // an invalid entry, failures to save the valid ones aborting the import
+            log.warn("Cannot import archive entry " + entry.getFileNameWithExtension(), e);
+            entryErrors.add(entry.getFileNameWithExtension() + " (" + e.getMessage() + ")");
+        }
     }
 
     public CatalogObjectMetadata createCatalogObject(String bucketName, String name, String projectName, String kind,
             String commitMessage, String username, String contentType, List<Metadata> metadataList, byte[] rawObject,
             String extension) {
+        checkNewCatalogObject(name, kind, contentType);
+
+        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
+
+        CatalogObjectRevisionEntity catalogObjectEntityCheck = catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketEntity.getId()),
+                                                                                                                                      name);
+        if (catalogObjectEntityCheck != null) {
+            throw new CatalogObjectAlreadyExistingException(bucketName, name);
+        }
+
+        CatalogObjectEntity catalogObjectEntity = newCatalogObjectEntity(bucketEntity,
+                                                                         name,
+                                                                         kind,
+                                                                         contentType,
+                                                                         extension);
+        CatalogObjectRevisionEntity result = buildCatalogObjectRevisionEntity(commitMessage,
+                                                                              username,
+                                                                              projectName,
+                                                                              rawObject,
+                                                                              catalogObjectEntity,
+                                                                              metadataList);
+        addToObjectCount(bucketEntity.getId(), 1);
+        return new CatalogObjectMetadata(result);
+    }
+
+    /**
+     * Adds to the object count of a bucket with a bulk update. The bulk update bypasses the persistence context, so
+     * the bucket entity of the current transaction is updated as well instead of handing out the former count.
+     */
+    private void addToObjectCount(Long bucketId, int delta) {
+        BucketEntity bucketEntity = entityManager.find(BucketEntity.class, bucketId);
+        bucketRepository.addToObjectCount(bucketId, delta);
+        if (bucketEntity != null && bucketEntity.getObjectCount() != null) {
+            bucketEntity.setObjectCount(bucketEntity.getObjectCount() + delta);
+        }
+    }
+
+    private void checkNewCatalogObject(String name, String kind, String contentType) {
         if (!objectNameValidator.isValid(name)) {
             throw new ObjectNameIsNotValidException(name);
         }
@@ -198,15 +384,10 @@ public class CatalogObjectService {
         if (!kindAndContentTypeValidator.isValid(contentType)) {
             throw new KindOrContentTypeIsNotValidException(contentType, "Content-Type");
         }
+    }
 
-        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
-
-        CatalogObjectRevisionEntity catalogObjectEntityCheck = catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketName),
-                                                                                                                                      name);
-        if (catalogObjectEntityCheck != null) {
-            throw new CatalogObjectAlreadyExistingException(bucketName, name);
-        }
-
+    private CatalogObjectEntity newCatalogObjectEntity(BucketEntity bucketEntity, String name, String kind,
+            String contentType, String extension) {
         CatalogObjectEntity catalogObjectEntity = CatalogObjectEntity.builder()
                                                                      .bucket(bucketEntity)
                                                                      .contentType(contentType)
@@ -216,32 +397,16 @@ public class CatalogObjectService {
                                                                                                                         name))
                                                                      .build();
         bucketEntity.getCatalogObjects().add(catalogObjectEntity);
-        CatalogObjectRevisionEntity result = buildCatalogObjectRevisionEntity(commitMessage,
-                                                                              username,
-                                                                              projectName,
-                                                                              rawObject,
-                                                                              catalogObjectEntity,
-                                                                              metadataList);
-        return new CatalogObjectMetadata(result);
+        return catalogObjectEntity;
     }
 
     private String getFileMimeType(FileNameAndContent file) {
-        InputStream is = new BufferedInputStream(new ByteArrayInputStream(file.getContent()));
-        Detector detector = mediaTypeFileParser.getDetector();
-        org.apache.tika.metadata.Metadata md = new org.apache.tika.metadata.Metadata();
-        md.set(org.apache.tika.metadata.TikaMetadataKeys.RESOURCE_NAME_KEY, file.getFileNameWithExtension());
-        MediaType mediaType = MediaType.OCTET_STREAM;
-        try {
-            mediaType = detector.detect(is, md);
-        } catch (IOException e) {
-            log.warn("there is a problem of identifying mime type for the file from archive : " + file.getName(), e);
-        }
-        return mediaType.toString();
+        return mimeTypeDetector.detect(file.getFileNameWithExtension(), file.getContent());
     }
 
     public CatalogObjectMetadata updateObjectMetadata(String bucketName, String name, Optional<String> kind,
             Optional<String> contentType, Optional<String> projectName) {
-        findBucketByNameAndCheck(bucketName);
+        bucketRegistry.getBucket(bucketName);
         CatalogObjectRevisionEntity catalogObjectRevisionEntity = findCatalogObjectByNameAndBucketAndCheck(bucketName,
                                                                                                            name);
 
@@ -262,19 +427,36 @@ public class CatalogObjectService {
             }
         }
 
-        byte[] workflowWithSynchronizedProjectName = workflowInfoAdder.addProjectNameToRawObjectIfWorkflow(catalogObjectRevisionEntity.getRawObject(),
+        byte[] workflowWithSynchronizedProjectName = workflowInfoAdder.addProjectNameToRawObjectIfWorkflow(rawObjectService.getContent(catalogObjectRevisionEntity),
                                                                                                            kind.orElse(""),
                                                                                                            projectName.orElse(""));
+        RawObjectEntity previousRawObject = catalogObjectRevisionEntity.getRawObjectEntity();
+        RawObjectEntity rawObject = rawObjectService.store(workflowWithSynchronizedProjectName);
+        if (previousRawObject == null || !previousRawObject.getHash().equals(rawObject.getHash())) {
+            catalogObjectRevisionEntity.setModificationTime(getNextModificationTime(catalogObjectRevisionEntity));
+        }
         catalogObjectRevisionEntity.setProjectName(projectName.orElse(""));
-        catalogObjectRevisionEntity.setRawObject(workflowWithSynchronizedProjectName);
+        catalogObjectRevisionEntity.setRawObjectEntity(rawObject);
         catalogObjectRevisionRepository.save(catalogObjectRevisionEntity);
+        rawObjectService.release(previousRawObject);
         CatalogObjectEntity catalogObjectEntity = catalogObjectRevisionEntity.getCatalogObject();
         kind.ifPresent(catalogObjectEntity::setKind);
         contentType.ifPresent(catalogObjectEntity::setContentType);
         catalogObjectRepository.save(catalogObjectEntity);
+        latestRevisionCache.invalidate(bucketName, name);
         return new CatalogObjectMetadata(catalogObjectEntity);
     }
 
+    /**
+     * @return the time at which the raw object of the given revision is rewritten, at least in the second
+     *         following its previous change as the Last-Modified header of the raw object is sent in seconds
+     */
+    private static long getNextModificationTime(CatalogObjectRevisionEntity revision) {
+        long previousModificationTime = revision.getModificationTime() != null ? revision.getModificationTime()
+                                                                               : revision.getCommitTime();
+        return Math.max(System.currentTimeMillis(), (previousModificationTime / 1000 + 1) * 1000);
+    }
+
     /**
      * This methods computes the successor(s) (depends_on) and predecessor(s) (called_by) of a given catalog object
      *
@@ -331,12 +513,11 @@ public class CatalogObjectService {
             String revisionCommitTimeOfDependsOnObject) {
         CatalogObjectRevisionEntity catalogObjectRevisionEntity;
         if (revisionCommitTimeOfDependsOnObject.equals(WorkflowParser.LATEST_VERSION)) {
-            catalogObjectRevisionEntity = catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketName),
-                                                                                                                 name);
+            catalogObjectRevisionEntity = findDefaultCatalogObject(bucketName, name);
         } else {
-            catalogObjectRevisionEntity = catalogObjectRevisionRepository.findCatalogObjectRevisionByCommitTime(Collections.singletonList(bucketName),
-                                                                                                                name,
-                                                                                                                Long.parseLong(revisionCommitTimeOfDependsOnObject));
+            catalogObjectRevisionEntity = findCatalogObjectRevision(bucketName,
+                                                                    name,
+                                                                    Long.parseLong(revisionCommitTimeOfDependsOnObject));
         }
 
         return catalogObjectRevisionEntity != null;
@@ -371,17 +552,72 @@ public class CatalogObjectService {
     }
 
     protected CatalogObjectRevisionEntity findCatalogObjectByNameAndBucketAndCheck(String bucketName, String name) {
-        CatalogObjectRevisionEntity catalogObject = catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketName),
-                                                                                                                           name);
+        CatalogObjectRevisionEntity catalogObject = findDefaultCatalogObject(bucketName, name);
         if (catalogObject == null) {
             throw new CatalogObjectNotFoundException(bucketName, name);
         }
         return catalogObject;
     }
 
+    private CatalogObjectRevisionEntity findDefaultCatalogObject(String bucketName, String name) {
+        RegisteredBucket bucket = bucketRegistry.findBucket(bucketName);
+        if (bucket == null) {
+            return null;
+        }
+        return catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucket.getId()),
+                                                                                      name);
+    }
+
+    private CatalogObjectRevisionEntity findCatalogObjectRevision(String bucketName, String name, long commitTime) {
+        RegisteredBucket bucket = bucketRegistry.findBucket(bucketName);
+        if (bucket == null) {
+            return null;
+        }
+        return catalogObjectRevisionRepository.findCatalogObjectRevisionByCommitTime(Collections.singletonList(bucket.getId()),
+                                                                                     name,
+                                                                                     commitTime);
+    }
+
+    /**
+     * Resolves bucket names to their ids, skipping the names that do not match any bucket.
+     */
+    private List<Long> findBucketIds(List<String> bucketNames) {
+        return bucketNames.stream()
+                          .map(bucketRegistry::findBucket)
+                          .filter(Objects::nonNull)
+                          .map(RegisteredBucket::getId)
+                          .distinct()
+                          .collect(Collectors.toList());
+    }
+
+    // fails on the first bucket that does not exist
+    private List<Long> getBucketIds(List<String> bucketNames) {
+        return bucketNames.stream()
+                          .map(bucketRegistry::getBucket)
+                          .map(RegisteredBucket::getId)
+                          .distinct()
+                          .collect(Collectors.toList());
+    }
+
     private CatalogObjectRevisionEntity buildCatalogObjectRevisionEntity(final String commitMessage,
             final String username, final String projectName, final byte[] rawObject,
             final CatalogObjectEntity catalogObjectEntity, final List<Metadata> metadataList) {
+        PreparedRevision preparedRevision = prepareRevision(catalogObjectEntity.getKind(),
+                                                            catalogObjectEntity.getId().getName(),
+                                                            createGenericInfoBucketData(catalogObjectEntity.getBucket()),
+                                                            projectName,
+                                                            rawObject,
+                                                            metadataList);
+        return saveRevision(commitMessage, username, preparedRevision, catalogObjectEntity);
+    }
+
+    /**
+     * Parse the raw object of a new revision and rewrite it with its synchronized metadata. Nothing is
+     * read from nor written to the database, so that it can run outside of the transaction.
+     */
+    private PreparedRevision prepareRevision(final String kind, final String name,
+            final GenericInfoBucketData genericInfoBucketData, final String projectName, final byte[] rawObject,
+            final List<Metadata> metadataList) {
 
         List<KeyValueLabelMetadataEntity> keyValueMetadataEntities = KeyValueLabelMetadataHelper.convertToEntity(metadataList);
 
@@ -391,14 +627,12 @@ public class CatalogObjectService {
 
         List<KeyValueLabelMetadataEntity> catalogObjectMetadataEntities = new ArrayList<>();
         if (rawObject != null) {
-            catalogObjectMetadataEntities = keyValueLabelMetadataHelper.extractKeyValuesFromRaw(catalogObjectEntity.getKind(),
-                                                                                                rawObject);
+            catalogObjectMetadataEntities = keyValueLabelMetadataHelper.extractKeyValuesFromRaw(kind, rawObject);
         }
 
         //here the priority is given to the metadataList provided as a query param
         List<KeyValueLabelMetadataEntity> keyValues = CollectionUtils.isEmpty(metadataList) ? catalogObjectMetadataEntities
                                                                                             : keyValueMetadataEntities;
-        GenericInfoBucketData genericInfoBucketData = createGenericInfoBucketData(catalogObjectEntity.getBucket());
 
         if (genericInfoBucketData == null) {
             throw new NullPointerException("Cannot build catalog object!");
@@ -426,33 +660,54 @@ public class CatalogObjectService {
             }
         }
 
-        byte[] workflowWithReplacedGenericInfo = workflowInfoAdder.addGenericInformationJobNameToRawObjectIfWorkflow(rawObject,
-                                                                                                                     catalogObjectEntity.getKind(),
-                                                                                                                     keyValueLabelMetadataHelper.toMap(keyValueLabelMetadataHelper.getOnlyGenericInformation(genericInformationWithBucketDataList)),
-                                                                                                                     catalogObjectEntity.getId()
-                                                                                                                                        .getName());
-        byte[] workflowWithSynchronizedProjectName = workflowInfoAdder.addProjectNameToRawObjectIfWorkflow(workflowWithReplacedGenericInfo,
-                                                                                                           catalogObjectEntity.getKind(),
-                                                                                                           synchronizedProjectName);
+        //job name, generic information and project name are rewritten in a single pass over the workflow
+        byte[] workflowWithSynchronizedProjectName = workflowInfoAdder.addGenericInformationJobNameAndProjectNameToRawObjectIfWorkflow(rawObject,
+                                                                                                                                       kind,
+                                                                                                                                       keyValueLabelMetadataHelper.toMap(keyValueLabelMetadataHelper.getOnlyGenericInformation(genericInformationWithBucketDataList)),
+                                                                                                                                       name,
+                                                                                                                                       synchronizedProjectName);
+
+        return new PreparedRevision(genericInformationWithBucketDataList,
+                                    synchronizedProjectName,
+                                    workflowWithSynchronizedProjectName);
+    }
 
+    private CatalogObjectRevisionEntity saveRevision(final String commitMessage, final String username,
+            final PreparedRevision preparedRevision, final CatalogObjectEntity catalogObjectEntity) {
+        List<KeyValueLabelMetadataEntity> keyValueMetadataList = preparedRevision.getKeyValueMetadataList();
         CatalogObjectRevisionEntity catalogObjectRevisionEntity = CatalogObjectRevisionEntity.builder()
                                                                                              .commitMessage(commitMessage)
                                                                                              .username(username)
-                                                                                             .projectName(synchronizedProjectName)
+                                                                                             .projectName(preparedRevision.getProjectName())
                                                                                              .commitTime(LocalDateTime.now()
                                                                                                                       .atZone(ZoneId.systemDefault())
                                                                                                                       .toInstant()
                                                                                                                       .toEpochMilli())
-                                                                                             .keyValueMetadataList(genericInformationWithBucketDataList)
-                                                                                             .rawObject(workflowWithSynchronizedProjectName)
+                                                                                             .keyValueMetadataList(keyValueMetadataList)
+                                                                                             .rawObjectEntity(rawObjectService.store(preparedRevision.getRawObject(),
+                                                                                                                                     findDeltaBase(catalogObjectEntity)))
                                                                                              .catalogObject(catalogObjectEntity)
                                                                                              .build();
 
-        genericInformationWithBucketDataList.forEach(keyValue -> keyValue.setCatalogObjectRevision(catalogObjectRevisionEntity));
+        keyValueMetadataList.forEach(keyValue -> keyValue.setCatalogObjectRevision(catalogObjectRevisionEntity));
         catalogObjectEntity.addRevision(catalogObjectRevisionEntity);
+        latestRevisionCache.invalidate(catalogObjectEntity.getBucket().getBucketName(),
+                                       catalogObjectEntity.getId().getName());
         return catalogObjectRevisionRepository.save(catalogObjectRevisionEntity);
     }
 
+    /**
+     * @return the raw object of the latest revision of a workflow, which the content of its next
+     * revision may be stored as a delta against
+     */
+    private RawObjectEntity findDeltaBase(CatalogObjectEntity catalogObjectEntity) {
+        CatalogObjectRevisionEntity latestRevision = catalogObjectEntity.getLatestRevision();
+        if (latestRevision == null || !WorkflowInfoAdder.isWorkflow(catalogObjectEntity.getKind())) {
+            return null;
+        }
+        return latestRevision.getRawObjectEntity();
+    }
+
     private GenericInfoBucketData createGenericInfoBucketData(BucketEntity bucket) {
         if (bucket == null) {
             return GenericInfoBucketData.EMPTY;
@@ -460,26 +715,37 @@ public class CatalogObjectService {
         return GenericInfoBucketData.builder().bucketName(bucket.getBucketName()).group(bucket.getOwner()).build();
     }
 
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjects(List<String> bucketNames, int pageNo, int pageSize) {
-        bucketNames.forEach(this::findBucketByNameAndCheck);
-        List<CatalogObjectRevisionEntity> result = listCatalogObjectsEntities(bucketNames, pageNo, pageSize);
-
-        return buildMetadataWithLink(result);
+        List<Long> bucketIds = getBucketIds(bucketNames);
+        if (bucketIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Pageable paging = new PageRequest(pageNo, pageSize);
+        return buildMetadata(catalogObjectRevisionRepository.findDefaultCatalogObjectSummariesInBucket(bucketIds,
+                                                                                                         paging));
     }
 
     public List<CatalogObjectRevisionEntity> listCatalogObjectsEntities(List<String> bucketNames, int pageNo,
             int pageSize) {
+        List<Long> bucketIds = findBucketIds(bucketNames);
+        if (bucketIds.isEmpty()) {
+            return Collections.emptyList();
+        }
         Pageable paging = new PageRequest(pageNo, pageSize);
-        Page<CatalogObjectRevisionEntity> result = catalogObjectRevisionRepository.findDefaultCatalogObjectsInBucket(bucketNames,
+        Page<CatalogObjectRevisionEntity> result = catalogObjectRevisionRepository.findDefaultCatalogObjectsInBucket(bucketIds,
                                                                                                                      paging);
+        keyValueMetadataLoader.load(result.getContent());
         return result.getContent();
     }
 
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjects(List<String> bucketsNames, Optional<String> kind,
             Optional<String> contentType) {
         return listCatalogObjects(bucketsNames, kind, contentType, Optional.empty(), 0, Integer.MAX_VALUE);
     }
 
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjects(List<String> bucketsNames, Optional<String> kind,
             Optional<String> contentType, Optional<String> objectNameFilter, int pageNo, int pageSize) {
         List<CatalogObjectMetadata> metadataList;
@@ -497,27 +763,85 @@ public class CatalogObjectService {
     }
 
     private List<CatalogObjectMetadata> buildMetadataWithLink(List<CatalogObjectRevisionEntity> result) {
+        keyValueMetadataLoader.load(result);
         return result.stream().map(CatalogObjectMetadata::new).collect(Collectors.toList());
     }
 
+    /**
+     * Builds the metadata of listed revisions, reading the key values of all of them at once rather
+     * than one revision at a time.
+     */
+    private List<CatalogObjectMetadata> buildMetadata(List<CatalogObjectRevisionSummary> summaries) {
+        List<Long> revisionIds = summaries.stream()
+                                          .map(CatalogObjectRevisionSummary::getRevisionId)
+                                          .collect(Collectors.toList());
+        Map<Long, List<Metadata>> metadataByRevisionId = keyValueMetadataLoader.findMetadataByRevisionId(revisionIds);
+        return summaries.stream()
+                        .map(summary -> summary.toCatalogObjectMetadata(metadataByRevisionId.get(summary.getRevisionId())))
+                        .collect(Collectors.toList());
+    }
+
     // find pageable catalog objects by kind and Content-Type and objectName
+    @Transactional(readOnly = true)
     public List<CatalogObjectMetadata> listCatalogObjectsByKindAndContentTypeAndObjectName(List<String> bucketNames,
             String kind, String contentType, String objectName, int pageNo, int pageSize) {
         Pageable paging = new PageRequest(pageNo, pageSize);
-        bucketNames.forEach(this::findBucketByNameAndCheck);
-        Page<CatalogObjectRevisionEntity> result = catalogObjectRevisionRepository.findDefaultCatalogObjectsOfKindAndContentTypeAndObjectNameInBucket(bucketNames,
-                                                                                                                                                      kind,
-                                                                                                                                                      contentType,
-                                                                                                                                                      objectName,
-                                                                                                                                                      paging);
+        List<Long> bucketIds = bucketNames.stream()
+                                          .map(bucketRegistry::getBucket)
+                                          .map(RegisteredBucket::getId)
+                                          .distinct()
+                                          .collect(Collectors.toList());
+        if (bucketIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CatalogObjectRevisionSummary> result = catalogObjectRevisionRepository.findDefaultCatalogObjectSummariesOfKindAndContentTypeAndObjectNameInBucket(bucketIds,
+                                                                                                                                                               kind,
+                                                                                                                                                               contentType,
+                                                                                                                                                               objectName,
+                                                                                                                                                               paging);
 
-        return buildMetadataWithLink(result.getContent());
+        return buildMetadata(result);
     }
 
-    public ZipArchiveContent getCatalogObjectsAsZipArchive(String bucketName, List<String> catalogObjectsNames) {
-        List<CatalogObjectRevisionEntity> revisions = getCatalogObjects(bucketName, catalogObjectsNames);
+    /**
+     * @return the given names which do not match any catalog object of the bucket
+     */
+    @Transactional(readOnly = true)
+    public List<String> findMissingCatalogObjectNames(String bucketName, List<String> catalogObjectsNames) {
+        List<Long> bucketIds = Collections.singletonList(bucketRegistry.getBucket(bucketName).getId());
+        Set<String> existingNames = new HashSet<>(catalogObjectRevisionRepository.findDefaultCatalogObjectNamesInBucket(bucketIds,
+                                                                                                                      catalogObjectsNames));
+        return catalogObjectsNames.stream().filter(name -> !existingNames.contains(name)).collect(Collectors.toList());
+    }
 
-        return archiveManager.compressZIP(revisions);
+    /**
+     * Write the given catalog objects of the bucket as a ZIP archive, missing ones being skipped.
+     * Revisions are read through a cursor and dropped from the persistence context once written,
+     * so that the memory used does not depend on the size of the archive.
+     */
+    @Transactional(readOnly = true)
+    public void writeCatalogObjectsAsZipArchive(String bucketName, List<String> catalogObjectsNames,
+            OutputStream outputStream) throws IOException {
+        List<Long> bucketIds = Collections.singletonList(bucketRegistry.getBucket(bucketName).getId());
+        ZipOutputStream zipOutputStream = archiveManager.openZIP(outputStream);
+        // the entries follow the requested order, only a batch of revisions being loaded at a time
+        for (List<String> names : Lists.partition(catalogObjectsNames, ZIP_EXPORT_BATCH_SIZE)) {
+            Map<String, CatalogObjectRevisionEntity> revisionsByName = catalogObjectRevisionRepository.findDefaultCatalogObjectsByNamesInBucket(bucketIds,
+                                                                                                                                                names)
+                                                                                                      .stream()
+                                                                                                      .collect(Collectors.toMap(revision -> revision.getCatalogObject()
+                                                                                                                                                    .getId()
+                                                                                                                                                    .getName(),
+                                                                                                                                Function.identity()));
+            for (String name : names) {
+                CatalogObjectRevisionEntity revision = revisionsByName.get(name);
+                if (revision != null) {
+                    archiveManager.addToZIP(zipOutputStream, revision);
+                }
+            }
+            entityManager.clear();
+        }
+        zipOutputStream.finish();
     }
 
     public List<CatalogObjectMetadata> listSelectedCatalogObjects(String bucketName, List<String> catalogObjectsNames) {
@@ -526,18 +850,24 @@ public class CatalogObjectService {
     }
 
     private List<CatalogObjectRevisionEntity> getCatalogObjects(String bucketName, List<String> catalogObjectsNames) {
-        findBucketByNameAndCheck(bucketName);
+        List<Long> bucketIds = Collections.singletonList(bucketRegistry.getBucket(bucketName).getId());
         return catalogObjectsNames.stream()
-                                  .map(name -> catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketName),
+                                  .map(name -> catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(bucketIds,
                                                                                                                       name))
                                   .collect(Collectors.toList());
     }
 
     public CatalogObjectMetadata delete(String bucketName, String name) throws CatalogObjectNotFoundException {
-        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
+        RegisteredBucket bucket = bucketRegistry.getBucket(bucketName);
         CatalogObjectMetadata catalogObjectMetadata = getCatalogObjectMetadata(bucketName, name);
         try {
-            catalogObjectRepository.delete(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(), name));
+            List<String> rawObjectHashes = catalogObjectRevisionRepository.findRawObjectHashesOfCatalogObject(bucket.getId(),
+                                                                                                              name);
+            catalogObjectRepository.clearLatestRevision(bucket.getId(), name);
+            catalogObjectRepository.delete(new CatalogObjectEntity.CatalogObjectEntityKey(bucket.getId(), name));
+            addToObjectCount(bucket.getId(), -1);
+            rawObjectService.release(rawObjectHashes);
+            latestRevisionCache.invalidate(bucketName, name);
         } catch (EmptyResultDataAccessException emptyResultDataAccessException) {
             log.warn("CatalogObject {} does not exist in bucket {}", name, bucketName);
             throw new CatalogObjectNotFoundException(bucketName, name);
@@ -546,11 +876,17 @@ public class CatalogObjectService {
     }
 
     public CatalogObjectMetadata getCatalogObjectMetadata(String bucketName, String name) {
-        return new CatalogObjectMetadata(findCatalogObjectByNameAndBucketAndCheck(bucketName, name));
+        return latestRevisionCache.getMetadata(bucketName,
+                                               name,
+                                               () -> new CatalogObjectMetadata(findCatalogObjectByNameAndBucketAndCheck(bucketName,
+                                                                                                                        name)));
     }
 
     public CatalogRawObject getCatalogRawObject(String bucketName, String name) {
-        return new CatalogRawObject(findCatalogObjectByNameAndBucketAndCheck(bucketName, name));
+        return latestRevisionCache.getRawObject(bucketName,
+                                                name,
+                                                () -> rawObjectService.getCatalogRawObject(findCatalogObjectByNameAndBucketAndCheck(bucketName,
+                                                                                                                                    name)));
     }
 
     /**
@@ -571,8 +907,8 @@ public class CatalogObjectService {
     public CatalogObjectMetadata createCatalogObjectRevision(String bucketName, String name, String projectName,
             String commitMessage, String username, List<Metadata> metadataListParsed, byte[] rawObject) {
 
-        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
-        CatalogObjectEntity catalogObject = catalogObjectRepository.findOne(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
+        RegisteredBucket bucket = bucketRegistry.getBucket(bucketName);
+        CatalogObjectEntity catalogObject = catalogObjectRepository.findOne(new CatalogObjectEntity.CatalogObjectEntityKey(bucket.getId(),
                                                                                                                            name));
 
         if (catalogObject == null) {
@@ -605,15 +941,16 @@ public class CatalogObjectService {
                                            commitMessage,
                                            catalogObjectRevision.getUsername(),
                                            KeyValueLabelMetadataHelper.convertFromEntity(catalogObjectRevision.getKeyValueMetadataList()),
-                                           catalogObjectRevision.getRawObject());
+                                           rawObjectService.getContent(catalogObjectRevision));
     }
 
     public List<CatalogObjectMetadata> listCatalogObjectRevisions(String bucketName, String name) {
-        BucketEntity bucketEntity = findBucketByNameAndCheck(bucketName);
+        RegisteredBucket bucket = bucketRegistry.getBucket(bucketName);
         findCatalogObjectByNameAndBucketAndCheck(bucketName, name);
-        CatalogObjectEntity list = catalogObjectRepository.readCatalogObjectRevisionsById(new CatalogObjectEntity.CatalogObjectEntityKey(bucketEntity.getId(),
+        CatalogObjectEntity list = catalogObjectRepository.readCatalogObjectRevisionsById(new CatalogObjectEntity.CatalogObjectEntityKey(bucket.getId(),
                                                                                                                                          name));
 
+        keyValueMetadataLoader.load(list.getRevisions());
         return list.getRevisions().stream().map(CatalogObjectMetadata::new).collect(Collectors.toList());
     }
 
@@ -632,14 +969,12 @@ public class CatalogObjectService {
                                                                                                 name,
                                                                                                 commitTime);
 
-        return new CatalogRawObject(revisionEntity);
+        return rawObjectService.getCatalogRawObject(revisionEntity);
 
     }
 
     public CatalogObjectMetadata restoreCatalogObject(String bucketName, String name, Long commitTime) {
-        CatalogObjectRevisionEntity catalogObjectRevision = catalogObjectRevisionRepository.findCatalogObjectRevisionByCommitTime(Collections.singletonList(bucketName),
-                                                                                                                                  name,
-                                                                                                                                  commitTime);
+        CatalogObjectRevisionEntity catalogObjectRevision = findCatalogObjectRevision(bucketName, name, commitTime);
 
         if (catalogObjectRevision == null) {
             throw new RevisionNotFoundException(bucketName, name, commitTime);
@@ -653,7 +988,7 @@ public class CatalogObjectService {
         CatalogObjectRevisionEntity restoredRevision = buildCatalogObjectRevisionEntity(restoreCommitMessage,
                                                                                         catalogObjectRevision.getUsername(),
                                                                                         catalogObjectRevision.getProjectName(),
-                                                                                        catalogObjectRevision.getRawObject(),
+                                                                                        rawObjectService.getContent(catalogObjectRevision),
                                                                                         catalogObjectRevision.getCatalogObject(),
                                                                                         metadataList);
 
@@ -693,51 +1028,60 @@ public class CatalogObjectService {
 
     public List<CatalogObjectNameReference> getAccessibleCatalogObjectsNameReferenceByKindAndContentType(
             boolean sessionIdRequired, String sessionId, Optional<String> kind, Optional<String> contentType) {
+        if (!sessionIdRequired) {
+            return catalogObjectRevisionRepository.findCatalogObjectNameReferenceByKindAndContentType(kind.orElse(""),
+                                                                                                      contentType.orElse(""));
+        }
 
-        List<CatalogObjectNameReference> catalogObjectsNameReferenceByKindAndContentType = generateCatalogObjectsNameReferenceByKind(catalogObjectRevisionRepository.findCatalogObjectNameReferenceByKindAndContentType(kind.orElse(""),
-                                                                                                                                                                                                                        contentType.orElse("")));
-
-        Map<String, List<CatalogObjectNameReference>> catalogObjectsGroupedByBucket = groupCatalogObjectsNameReferencePerBucket(catalogObjectsNameReferenceByKindAndContentType);
-        List<BucketEntity> buckets = bucketRepository.findAll();
-
-        return buckets.stream()
-                      .filter(bucketEntity -> restApiAccessService.isBucketAccessibleByUser(sessionIdRequired,
-                                                                                            sessionId,
-                                                                                            bucketEntity.getBucketName()))
-                      .map(bucketEntity -> catalogObjectsGroupedByBucket.get(bucketEntity.getBucketName()))
-                      .filter(Objects::nonNull)
-                      .flatMap(Collection::stream)
-                      .collect(Collectors.toList());
-    }
-
-    private Map<String, List<CatalogObjectNameReference>>
-            groupCatalogObjectsNameReferencePerBucket(List<CatalogObjectNameReference> catalogObjectsNameReferences) {
-
-        return catalogObjectsNameReferences.stream()
-                                           .collect(Collectors.groupingBy(CatalogObjectNameReference::getBucketName));
-    }
-
-    private List<CatalogObjectNameReference> generateCatalogObjectsNameReferenceByKind(
-            List<CatalogObjectRevisionEntity> catalogObjectsRevisionEntityList) {
-
-        return buildMetadataWithLink(catalogObjectsRevisionEntityList).stream()
-                                                                      .map(item -> new CatalogObjectNameReference(item.getBucketName(),
-                                                                                                                  item.getProjectName(),
-                                                                                                                  item.getName()))
-                                                                      .collect(Collectors.toList());
-
+        Set<String> accessibleBucketOwners = restApiAccessService.getAccessibleBucketOwners(sessionId);
+        return catalogObjectRevisionRepository.findCatalogObjectNameReferenceByKindAndContentTypeInBucketsOwnedBy(accessibleBucketOwners,
+                                                                                                                  kind.orElse(""),
+                                                                                                                  contentType.orElse(""));
     }
 
     @VisibleForTesting
     protected CatalogObjectRevisionEntity getCatalogObjectRevisionEntityByCommitTime(String bucketName, String name,
             long commitTime) {
-        CatalogObjectRevisionEntity revisionEntity = catalogObjectRevisionRepository.findCatalogObjectRevisionByCommitTime(Collections.singletonList(bucketName),
-                                                                                                                           name,
-                                                                                                                           commitTime);
+        CatalogObjectRevisionEntity revisionEntity = findCatalogObjectRevision(bucketName, name, commitTime);
         if (revisionEntity == null) {
             throw new RevisionNotFoundException(bucketName, name, commitTime);
         }
         return revisionEntity;
     }
 
+    @AllArgsConstructor
+    @Getter
+    private static class PreparedRevision {
+
+        private final List<KeyValueLabelMetadataEntity> keyValueMetadataList;
+
+        private final String projectName;
+
+        private final byte[] rawObject;
+
+        // detected for the objects created from an archive only
+        @Setter
+        private String contentType;
+
+        PreparedRevision(List<KeyValueLabelMetadataEntity> keyValueMetadataList, String projectName,
+                byte[] rawObject) {
+            this(keyValueMetadataList, projectName, rawObject, null);
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    private static class ImportedEntry {
+
+        private final String fileNameWithExtension;
+
+        private final String name;
+
+        private final String kind;
+
+        private final boolean newObject;
+
+        private final Future<PreparedRevision> preparedRevision;
+    }
+
 }
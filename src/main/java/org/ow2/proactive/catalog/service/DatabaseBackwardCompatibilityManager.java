@@ -37,13 +37,37 @@ import lombok.extern.log4j.Log4j2;
 @Component
 public class DatabaseBackwardCompatibilityManager {
 
+    @Autowired
+    SequenceIncrementStartupAdder sequenceIncrementStartupAdder;
+
     @Autowired
     ProjectNameStartupAdder projectNameStartupAdder;
 
+    @Autowired
+    BucketObjectCountStartupAdder bucketObjectCountStartupAdder;
+
+    @Autowired
+    LatestRevisionStartupAdder latestRevisionStartupAdder;
+
+    @Autowired
+    RawObjectStartupAdder rawObjectStartupAdder;
+
     @PostConstruct
     public void initSetProjectNameInCatalogObjectRevisionEntity() {
 
+        // before anything is inserted, for the ids allocated by blocks not to overlap existing ones
+        sequenceIncrementStartupAdder.alignSequenceIncrements();
+
         projectNameStartupAdder.synchronizeProjectName();
 
+        bucketObjectCountStartupAdder.initializeObjectCounts();
+
+        latestRevisionStartupAdder.synchronizeLatestRevisions();
+
+        log.info("Checking revisions storing their raw content inline ... ");
+        while (rawObjectStartupAdder.moveLegacyRawObjects() > 0) {
+            log.debug("Moving the next batch of inline raw content");
+        }
+
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+
+/**
+ * Resource of a known length whose underlying resource is only looked up when it is first read, so that the raw
+ * object of a revision can be described without reading its content.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+class DeferredResource extends AbstractResource {
+
+    @FunctionalInterface
+    interface ResourceLookup {
+
+        Resource lookup() throws IOException;
+    }
+
+    private final String description;
+
+    private final long contentLength;
+
+    private final ResourceLookup lookup;
+
+    private volatile Resource resource;
+
+    DeferredResource(String description, long contentLength, ResourceLookup lookup) {
+        this.description = description;
+        this.contentLength = contentLength;
+        this.lookup = lookup;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        Resource lookedUp = resource;
+        if (lookedUp == null) {
+            lookedUp = lookup.lookup();
+            resource = lookedUp;
+        }
+        return lookedUp.getInputStream();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+}
@@ -61,11 +61,14 @@ public class KeyValueLabelMetadataHelper {
 
     private final OwnerGroupStringHelper ownerGroupStringHelper;
 
+    private final ParseResultCache parseResultCache;
+
     @Autowired
     public KeyValueLabelMetadataHelper(OwnerGroupStringHelper ownerGroupStringHelper,
-            List<AbstractCatalogObjectParser> parsers) {
+            List<AbstractCatalogObjectParser> parsers, ParseResultCache parseResultCache) {
         this.ownerGroupStringHelper = ownerGroupStringHelper;
         this.parsers = parsers;
+        this.parseResultCache = parseResultCache;
     }
 
     public static List<KeyValueLabelMetadataEntity> convertToEntity(List<Metadata> source) {
@@ -92,7 +95,15 @@ public class KeyValueLabelMetadataHelper {
         return keyValueLabelMetadataEntity.getLabel().equals(WorkflowParser.ATTRIBUTE_DEPENDS_ON_LABEL);
     }
 
+    /**
+     * @return the metadata extracted from the raw object, which is only parsed when no raw object of the same kind
+     *         and having the same content was parsed recently
+     */
     public List<KeyValueLabelMetadataEntity> extractKeyValuesFromRaw(String kind, byte[] rawObject) {
+        return parseResultCache.getExtractedMetadata(kind, rawObject, () -> parseKeyValuesFromRaw(kind, rawObject));
+    }
+
+    private List<KeyValueLabelMetadataEntity> parseKeyValuesFromRaw(String kind, byte[] rawObject) {
         AbstractCatalogObjectParser catalogObjectParser = parsers.stream()
                                                                  .filter(parser -> parser.isMyKind(kind))
                                                                  .findFirst()
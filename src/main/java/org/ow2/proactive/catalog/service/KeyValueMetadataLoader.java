@@ -0,0 +1,90 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hibernate.Hibernate;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.ow2.proactive.catalog.repository.CatalogObjectRevisionRepository;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+
+/**
+ * Reads the key values of a whole page of revisions with one query per batch of revisions, instead
+ * of one query per revision when their lazy association is first accessed.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Component
+public class KeyValueMetadataLoader {
+
+    // revisions whose key values are read by one query
+    static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private CatalogObjectRevisionRepository catalogObjectRevisionRepository;
+
+    /**
+     * Initializes the key values of the given managed revisions, those already initialized being
+     * left as they are.
+     */
+    public void load(Collection<CatalogObjectRevisionEntity> revisions) {
+        List<Long> revisionIds = revisions.stream()
+                                          .filter(revision -> revision.getId() != null &&
+                                                              !Hibernate.isInitialized(revision.getKeyValueMetadataList()))
+                                          .map(CatalogObjectRevisionEntity::getId)
+                                          .distinct()
+                                          .collect(Collectors.toList());
+        for (List<Long> batch : Lists.partition(revisionIds, BATCH_SIZE)) {
+            catalogObjectRevisionRepository.fetchKeyValueMetadata(batch);
+        }
+    }
+
+    /**
+     * @return the key values of the given revisions by revision id, without loading the revisions
+     */
+    public Map<Long, List<Metadata>> findMetadataByRevisionId(List<Long> revisionIds) {
+        Map<Long, List<Metadata>> metadataByRevisionId = new HashMap<>();
+        for (List<Long> batch : Lists.partition(revisionIds, BATCH_SIZE)) {
+            for (Object[] keyValue : catalogObjectRevisionRepository.findKeyValueMetadataOfRevisions(batch)) {
+                metadataByRevisionId.computeIfAbsent((Long) keyValue[0], revisionId -> new ArrayList<>())
+                                    .add(new Metadata((String) keyValue[1], (String) keyValue[2], (String) keyValue[3]));
+            }
+        }
+        return metadataByRevisionId;
+    }
+}
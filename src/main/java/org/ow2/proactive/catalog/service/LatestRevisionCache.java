@@ -0,0 +1,286 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
+
+import lombok.Data;
+
+
+/**
+ * Keeps the metadata and the raw object of the latest revision of the most read catalog objects, by bucket and
+ * object name, so that resolving the same objects again does not query their latest revision.
+ *
+ * Every change of a catalog object invalidates it, immediately and once the changing transaction completes, and the
+ * changing transaction itself always reads the database. Both caches are bounded by the approximate size (in bytes)
+ * of their entries, the size of a raw object including its content, which is kept once read. Their hit and miss
+ * counts are exposed over JMX.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Component
+@ManagedResource(description = "Metadata and raw objects of the latest revision of catalog objects")
+public class LatestRevisionCache {
+
+    // rough size of an entry, its key and the objects holding them
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private static final ObjectKey ALL_OBJECTS = new ObjectKey(null, null);
+
+    @Value("${pa.catalog.latest.revision.cache.metadata.max.size:8388608}")
+    long metadataCacheMaxSize;
+
+    @Value("${pa.catalog.latest.revision.cache.raw.max.size:67108864}")
+    long rawObjectCacheMaxSize;
+
+    private Cache<ObjectKey, CatalogObjectMetadata> metadata;
+
+    private Cache<ObjectKey, CatalogRawObject> rawObjects;
+
+    // incremented on every change so that a lookup racing with a change does not cache a stale revision
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        initCaches(metadataCacheMaxSize, rawObjectCacheMaxSize);
+    }
+
+    @VisibleForTesting
+    void initCaches(long metadataMaxSize, long rawObjectMaxSize) {
+        metadata = Caffeine.newBuilder()
+                           .maximumWeight(metadataMaxSize)
+                           .weigher((ObjectKey key, CatalogObjectMetadata value) -> weigh(value))
+                           .recordStats()
+                           .build();
+        rawObjects = Caffeine.newBuilder()
+                             .maximumWeight(rawObjectMaxSize)
+                             .weigher((ObjectKey key, CatalogRawObject value) -> weigh(value))
+                             .recordStats()
+                             .build();
+    }
+
+    /**
+     * @param loader loads the metadata of the latest revision when they are not cached
+     * @return a copy of the metadata of the latest revision of the catalog object
+     */
+    public CatalogObjectMetadata getMetadata(String bucketName, String name, Supplier<CatalogObjectMetadata> loader) {
+        return new CatalogObjectMetadata(get(metadata, new ObjectKey(bucketName, name), loader));
+    }
+
+    /**
+     * @param loader loads the raw object of the latest revision when it is not cached
+     * @return a copy of the raw object of the latest revision of the catalog object
+     */
+    public CatalogRawObject getRawObject(String bucketName, String name, Supplier<CatalogRawObject> loader) {
+        return new CatalogRawObject(get(rawObjects, new ObjectKey(bucketName, name), loader));
+    }
+
+    /**
+     * Evicts a created, modified or deleted catalog object, now and when the current transaction completes.
+     */
+    public void invalidate(String bucketName, String name) {
+        invalidate(new ObjectKey(bucketName, name));
+    }
+
+    /**
+     * Evicts the catalog objects of a bucket, now and when the current transaction completes.
+     */
+    public void invalidateBucket(String bucketName) {
+        invalidate(new ObjectKey(bucketName, null));
+    }
+
+    /**
+     * Evicts every catalog object, now and when the current transaction completes.
+     */
+    @ManagedOperation(description = "Evicts every cached revision")
+    public void invalidateAll() {
+        invalidate(ALL_OBJECTS);
+    }
+
+    @ManagedAttribute(description = "Number of metadata found in the cache")
+    public long getMetadataHitCount() {
+        return metadata.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of metadata which had to be read from the database")
+    public long getMetadataMissCount() {
+        return metadata.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Ratio of the metadata found in the cache")
+    public double getMetadataHitRate() {
+        return metadata.stats().hitRate();
+    }
+
+    @ManagedAttribute(description = "Number of cached metadata evicted to stay within the maximum size")
+    public long getMetadataEvictionCount() {
+        return metadata.stats().evictionCount();
+    }
+
+    @ManagedAttribute(description = "Number of raw objects found in the cache")
+    public long getRawObjectHitCount() {
+        return rawObjects.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of raw objects which had to be read from the database")
+    public long getRawObjectMissCount() {
+        return rawObjects.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Ratio of the raw objects found in the cache")
+    public double getRawObjectHitRate() {
+        return rawObjects.stats().hitRate();
+    }
+
+    @ManagedAttribute(description = "Number of cached raw objects evicted to stay within the maximum size")
+    public long getRawObjectEvictionCount() {
+        return rawObjects.stats().evictionCount();
+    }
+
+    private <T> T get(Cache<ObjectKey, T> cache, ObjectKey key, Supplier<T> loader) {
+        if (isModifiedByCurrentTransaction(key)) {
+            return loader.get();
+        }
+        T value = cache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        long generationBeforeLoading = generation.get();
+        value = loader.get();
+        cache.put(key, value);
+        if (generation.get() != generationBeforeLoading) {
+            cache.asMap().remove(key, value);
+        }
+        return value;
+    }
+
+    private void invalidate(ObjectKey key) {
+        evict(key);
+        afterTransaction(key, () -> evict(key));
+    }
+
+    private void evict(ObjectKey key) {
+        generation.incrementAndGet();
+        if (key.equals(ALL_OBJECTS)) {
+            metadata.invalidateAll();
+            rawObjects.invalidateAll();
+        } else if (key.getName() == null) {
+            metadata.asMap().keySet().removeIf(cachedKey -> key.getBucketName().equals(cachedKey.getBucketName()));
+            rawObjects.asMap().keySet().removeIf(cachedKey -> key.getBucketName().equals(cachedKey.getBucketName()));
+        } else {
+            metadata.invalidate(key);
+            rawObjects.invalidate(key);
+        }
+    }
+
+    private boolean isModifiedByCurrentTransaction(ObjectKey key) {
+        Set<ObjectKey> modifiedObjects = getModifiedObjectsOfCurrentTransaction();
+        return modifiedObjects != null &&
+               (modifiedObjects.contains(key) || modifiedObjects.contains(new ObjectKey(key.getBucketName(), null)) ||
+                modifiedObjects.contains(ALL_OBJECTS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<ObjectKey> getModifiedObjectsOfCurrentTransaction() {
+        return (Set<ObjectKey>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private void afterTransaction(ObjectKey key, Runnable callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Set<ObjectKey> modifiedObjects = getModifiedObjectsOfCurrentTransaction();
+        if (modifiedObjects == null) {
+            modifiedObjects = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, modifiedObjects);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LatestRevisionCache.this);
+                }
+            });
+        }
+        if (modifiedObjects.add(key)) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    callback.run();
+                }
+            });
+        }
+    }
+
+    private static int weigh(CatalogObjectMetadata value) {
+        long weight = ENTRY_OVERHEAD;
+        // strings take two bytes per character
+        weight += 2L * (Strings.nullToEmpty(value.getBucketName()).length() +
+                        Strings.nullToEmpty(value.getName()).length() +
+                        Strings.nullToEmpty(value.getCommitMessage()).length());
+        for (Metadata keyValue : value.getMetadataList()) {
+            weight += ENTRY_OVERHEAD / 2 + 2L * (Strings.nullToEmpty(keyValue.getKey()).length() +
+                                                 Strings.nullToEmpty(keyValue.getValue()).length() +
+                                                 Strings.nullToEmpty(keyValue.getLabel()).length());
+        }
+        if (value instanceof CatalogRawObject) {
+            // the content is kept by the resources of the raw object once read
+            CatalogRawObject rawObject = (CatalogRawObject) value;
+            weight += rawObject.getRawObjectLength() + rawObject.getEncodedRawObjectLength();
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    @Data
+    private static class ObjectKey {
+
+        private final String bucketName;
+
+        // null for all the objects of the bucket
+        private final String name;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import org.ow2.proactive.catalog.repository.CatalogObjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Fills the LATEST_REVISION_ID column of the catalog objects created before it existed.
+ */
+@Log4j2
+@Component
+public class LatestRevisionStartupAdder {
+
+    @Autowired
+    private CatalogObjectRepository catalogObjectRepository;
+
+    @Transactional
+    public void synchronizeLatestRevisions() {
+        log.info("Checking catalog object latest revisions ... ");
+        // a single statement, rather than loading each catalog object of an upgraded database
+        int updatedObjects = catalogObjectRepository.setMissingLatestRevisions();
+        if (updatedObjects > 0) {
+            log.info("Latest revision set for {} catalog objects.", updatedObjects);
+        }
+    }
+}
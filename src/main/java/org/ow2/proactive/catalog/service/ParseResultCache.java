@@ -0,0 +1,199 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
+
+import lombok.Data;
+
+
+/**
+ * Remembers what was obtained from a raw object, by digest of its content, so that identical contents (a restored
+ * revision, the new revisions created for all the objects of a bucket, a file uploaded again) are not parsed again.
+ *
+ * Two results are cached: the metadata extracted from a raw object of a given kind, and the workflow rewritten with a
+ * given generic information, job name and project name. Both caches are bounded by the approximate size (in bytes)
+ * of their entries, and their hit and miss counts are exposed over JMX.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Component
+@ManagedResource(description = "Metadata extracted from, and workflows rewritten out of, raw objects by content digest")
+public class ParseResultCache {
+
+    // rough size of an entry, its key and the objects holding them
+    private static final int ENTRY_OVERHEAD = 128;
+
+    @Value("${pa.catalog.parse.cache.metadata.max.size:16777216}")
+    long metadataCacheMaxSize;
+
+    @Value("${pa.catalog.parse.cache.rewrite.max.size:33554432}")
+    long rewriteCacheMaxSize;
+
+    private Cache<ExtractionKey, List<KeyValueLabelMetadataEntity>> extractedMetadata;
+
+    private Cache<RewriteKey, byte[]> rewrittenContents;
+
+    @PostConstruct
+    public void init() {
+        initCaches(metadataCacheMaxSize, rewriteCacheMaxSize);
+    }
+
+    @VisibleForTesting
+    void initCaches(long metadataMaxSize, long rewriteMaxSize) {
+        extractedMetadata = Caffeine.newBuilder()
+                                    .maximumWeight(metadataMaxSize)
+                                    .weigher((ExtractionKey key,
+                                            List<KeyValueLabelMetadataEntity> metadata) -> weigh(metadata))
+                                    .recordStats()
+                                    .build();
+        rewrittenContents = Caffeine.newBuilder()
+                                    .maximumWeight(rewriteMaxSize)
+                                    .weigher((RewriteKey key, byte[] content) -> ENTRY_OVERHEAD + content.length)
+                                    .recordStats()
+                                    .build();
+    }
+
+    /**
+     * @param extractor extracts the metadata of the raw object when they are not cached yet
+     * @return a copy of the metadata extracted from a raw object of the given kind having the same content, which
+     *         can be attached to a revision
+     */
+    public List<KeyValueLabelMetadataEntity> getExtractedMetadata(String kind, byte[] rawObject,
+            Supplier<List<KeyValueLabelMetadataEntity>> extractor) {
+        ExtractionKey key = new ExtractionKey(kind, RawObjectService.computeHash(rawObject));
+        List<KeyValueLabelMetadataEntity> metadata = extractedMetadata.get(key, ignored -> copy(extractor.get()));
+        // the entities are attached to a revision and updated by the caller, the cached ones are never handed out
+        return copy(metadata);
+    }
+
+    /**
+     * @param rewriter rewrites the workflow when it was not rewritten with the same values yet
+     * @return the workflow having the same content rewritten with the given generic information, job name and
+     *         project name, which must not be modified
+     */
+    public byte[] getRewrittenWorkflow(byte[] rawObject, Map<String, String> genericInformation, String jobName,
+            String projectName, Function<byte[], byte[]> rewriter) {
+        RewriteKey key = new RewriteKey(RawObjectService.computeHash(rawObject),
+                                        genericInformation == null ? null
+                                                                   : genericInformation.entrySet()
+                                                                                       .stream()
+                                                                                       .map(AbstractMap.SimpleImmutableEntry::new)
+                                                                                       .collect(Collectors.toList()),
+                                        jobName,
+                                        projectName);
+        return rewrittenContents.get(key, ignored -> rewriter.apply(rawObject));
+    }
+
+    @ManagedAttribute(description = "Number of raw objects whose metadata were found in the cache")
+    public long getMetadataHitCount() {
+        return extractedMetadata.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of raw objects whose metadata had to be extracted")
+    public long getMetadataMissCount() {
+        return extractedMetadata.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Number of cached metadata evicted to stay within the maximum size")
+    public long getMetadataEvictionCount() {
+        return extractedMetadata.stats().evictionCount();
+    }
+
+    @ManagedAttribute(description = "Number of workflows whose rewritten content was found in the cache")
+    public long getRewriteHitCount() {
+        return rewrittenContents.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of workflows which had to be rewritten")
+    public long getRewriteMissCount() {
+        return rewrittenContents.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Number of cached rewritten workflows evicted to stay within the maximum size")
+    public long getRewriteEvictionCount() {
+        return rewrittenContents.stats().evictionCount();
+    }
+
+    private static List<KeyValueLabelMetadataEntity> copy(List<KeyValueLabelMetadataEntity> metadata) {
+        return metadata.stream()
+                       .map(entity -> new KeyValueLabelMetadataEntity(entity.getKey(),
+                                                                      entity.getValue(),
+                                                                      entity.getLabel()))
+                       .collect(Collectors.toList());
+    }
+
+    private static int weigh(List<KeyValueLabelMetadataEntity> metadata) {
+        long weight = ENTRY_OVERHEAD;
+        for (KeyValueLabelMetadataEntity entity : metadata) {
+            // strings take two bytes per character
+            weight += ENTRY_OVERHEAD + 2L * (Strings.nullToEmpty(entity.getKey()).length() +
+                                             Strings.nullToEmpty(entity.getValue()).length() +
+                                             Strings.nullToEmpty(entity.getLabel()).length());
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    @Data
+    private static class ExtractionKey {
+
+        private final String kind;
+
+        private final String digest;
+    }
+
+    @Data
+    private static class RewriteKey {
+
+        private final String digest;
+
+        // in iteration order, which is the order in which the generic information are written
+        private final List<Map.Entry<String, String>> genericInformation;
+
+        private final String jobName;
+
+        private final String projectName;
+    }
+}
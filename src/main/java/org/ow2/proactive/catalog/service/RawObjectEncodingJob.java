@@ -0,0 +1,74 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Encodes, in the background, the raw objects stored before the codec was recorded, so that the
+ * catalog does not delay its startup on large databases. Rows that are not encoded yet stay
+ * readable as they are.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Log4j2
+@Component
+public class RawObjectEncodingJob {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private RawObjectService rawObjectService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::encodeRawObjects, "raw-object-encoding");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void encodeRawObjects() {
+        try {
+            int total = 0;
+            int encoded;
+            while ((encoded = rawObjectService.encodeRawObjects(BATCH_SIZE)) > 0) {
+                total += encoded;
+            }
+            if (total > 0) {
+                log.info("Codec recorded for {} raw objects.", total);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Encoding of the stored raw objects interrupted, it will resume on the next startup", e);
+        }
+    }
+}
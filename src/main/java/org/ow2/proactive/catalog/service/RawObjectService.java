@@ -0,0 +1,468 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.io.FileNotFoundException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.repository.RawObjectRepository;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.repository.entity.RawObjectCodec;
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.ow2.proactive.catalog.service.store.RawObjectDelta;
+import org.ow2.proactive.catalog.service.store.RawObjectStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hashing;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Stores the raw content of catalog object revisions by SHA-256 digest, so that revisions having
+ * identical bytes share a single row of the RAW_OBJECT table. Each row counts the revisions
+ * referencing it and is removed when the last of them is deleted. Where the bytes themselves are
+ * kept is up to the configured {@link RawObjectStore}, and they are compressed by the configured
+ * {@link RawObjectCodec} unless that does not make them smaller. When delta storage is enabled,
+ * the content of a new workflow revision can be stored as a {@link RawObjectDelta} against the
+ * previous revision, a full version being kept every keyframe interval.
+ *
+ * A new raw object is inserted without reference in a transaction of its own before the storing
+ * transaction references it, so that transactions storing the same content concurrently reference
+ * a single row instead of failing on its primary key. Hibernate cannot go on with a transaction
+ * once a flush failed, so the insert cannot be retried within the storing transaction; the pool
+ * must then provide a second connection to each transaction storing raw objects.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Log4j2
+@Service
+@Transactional
+@ManagedResource(description = "Raw objects stored by content digest, and contents rebuilt from deltas")
+public class RawObjectService {
+
+    private static final int MAX_STORE_ATTEMPTS = 3;
+
+    @Autowired
+    private RawObjectRepository rawObjectRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RawObjectStore rawObjectStore;
+
+    @Value("${pa.catalog.raw.object.codec:gzip}")
+    String codecName;
+
+    @Value("${pa.catalog.raw.object.codec.min.size:512}")
+    int codecMinSize;
+
+    // zero disables delta storage
+    @Value("${pa.catalog.raw.object.delta.keyframe.interval:0}")
+    int deltaKeyframeInterval;
+
+    @Value("${pa.catalog.raw.object.delta.cache.max.size:16777216}")
+    long deltaCacheMaxSize;
+
+    // contents rebuilt from deltas, and the bases they were rebuilt from, by hash
+    private Cache<String, byte[]> rebuiltContents;
+
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    void init() {
+        rebuiltContents = Caffeine.newBuilder()
+                                  .maximumWeight(deltaCacheMaxSize)
+                                  .weigher((String hash, byte[] content) -> content.length)
+                                  .recordStats()
+                                  .build();
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @return the stored raw object having the given content, with one more reference
+     */
+    public RawObjectEntity store(byte[] content) {
+        return store(content, null);
+    }
+
+    /**
+     * @param deltaBase the raw object of the previous revision, against which the content may be
+     *                  stored as a delta, or null to store it in full
+     * @return the stored raw object having the given content, with one more reference
+     */
+    public RawObjectEntity store(byte[] content, RawObjectEntity deltaBase) {
+        if (content == null) {
+            return null;
+        }
+        String hash = computeHash(content);
+        for (int attempt = 1; attempt <= MAX_STORE_ATTEMPTS; attempt++) {
+            if (addToReferenceCount(hash, 1) > 0) {
+                return rawObjectRepository.getOne(hash);
+            }
+            insertUnreferenced(hash, content, deltaBase);
+        }
+        throw new IllegalStateException("Cannot store the raw object " + hash + " after " + MAX_STORE_ATTEMPTS +
+                                        " attempts");
+    }
+
+    /**
+     * Inserts the raw object having the given content without reference, in a new transaction
+     * committed before the current one references it. Another transaction inserting the same
+     * content meanwhile fails on the primary key and references this raw object instead. If the
+     * current transaction rolls back, the raw object is deleted unless referenced by then.
+     */
+    private void insertUnreferenced(String hash, byte[] content, RawObjectEntity deltaBase) {
+        RawObjectEntity rawObject = RawObjectEntity.builder()
+                                                   .hash(hash)
+                                                   .contentLength(content.length)
+                                                   .referenceCount(0)
+                                                   .build();
+        // the base of a delta is referenced by the new transaction, which would wait forever for
+        // the current one if that already updated the base
+        RawObjectEntity base = deltaBase != null && !isUpdatedByCurrentTransaction(deltaBase.getHash()) ? deltaBase
+                                                                                                         : null;
+        byte[] encodedContent = encode(rawObject, encodeDelta(rawObject, content, base));
+        try {
+            newTransaction.execute(status -> {
+                if (rawObject.getBaseHash() != null) {
+                    rawObjectRepository.addToReferenceCount(rawObject.getBaseHash(), 1);
+                }
+                rawObjectStore.write(rawObject, encodedContent);
+                return rawObjectRepository.saveAndFlush(rawObject);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Raw object {} inserted by a concurrent transaction", hash);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != TransactionSynchronization.STATUS_ROLLED_BACK) {
+                        return;
+                    }
+                    // the outcome of the current transaction is settled, failing here would only hide it
+                    try {
+                        newTransaction.execute(rollbackStatus -> deleteUnreferenced(Collections.singletonList(hash)));
+                    } catch (RuntimeException e) {
+                        log.warn("Cannot delete the raw object " + hash + " inserted by a rolled back transaction",
+                                 e);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Encodes the raw objects stored before codecs existed. Only the content kept in the rows is
+     * rewritten, content kept outside of the database by the store is marked as not encoded.
+     *
+     * @return the number of raw objects processed, zero once none is left
+     */
+    public int encodeRawObjects(int batchSize) {
+        List<RawObjectEntity> rawObjects = rawObjectRepository.findWithoutCodec(new PageRequest(0, batchSize));
+        for (RawObjectEntity rawObject : rawObjects) {
+            if (rawObject.getContent() != null) {
+                rawObject.setContent(encode(rawObject, rawObject.getContent()));
+            } else {
+                rawObject.setCodec(RawObjectCodec.NONE);
+            }
+        }
+        return rawObjects.size();
+    }
+
+    /**
+     * @return the raw content of the given revision, null if it has none
+     */
+    public byte[] getContent(CatalogObjectRevisionEntity revision) {
+        RawObjectEntity rawObject = revision.getRawObjectEntity();
+        if (rawObject == null) {
+            return null;
+        }
+        return getContent(rawObject);
+    }
+
+    /**
+     * @return the raw content of the given revision, along with its stored bytes when they are
+     * encoded with an HTTP content coding. The raw object is described from its row without its
+     * content, which is only read once the returned resources are.
+     */
+    public CatalogRawObject getCatalogRawObject(CatalogObjectRevisionEntity revision) {
+        List<Object[]> descriptions = revision.getId() != null ? rawObjectRepository.findDescriptionOfRevision(revision.getId())
+                                                               : Collections.emptyList();
+        if (descriptions.isEmpty()) {
+            return new CatalogRawObject(revision, new ByteArrayResource(new byte[0]), 0);
+        }
+        Object[] description = descriptions.get(0);
+        String hash = (String) description[0];
+        long contentLength = (Long) description[1];
+        RawObjectCodec codec = description[2] != null ? (RawObjectCodec) description[2] : RawObjectCodec.NONE;
+        boolean delta = description[4] != null;
+        Resource content = new DeferredResource("raw object " + hash,
+                                                contentLength,
+                                                () -> getContentResource(findRawObject(hash)));
+        if (delta || codec.getContentEncoding() == null) {
+            return new CatalogRawObject(revision, hash, content, contentLength, null, null, 0);
+        }
+        long storedLength = (Long) description[3];
+        Resource storedContent = new DeferredResource("stored raw object " + hash,
+                                                      storedLength,
+                                                      () -> rawObjectStore.open(findRawObject(hash)));
+        return new CatalogRawObject(revision,
+                                    hash,
+                                    content,
+                                    contentLength,
+                                    codec.getContentEncoding(),
+                                    storedContent,
+                                    storedLength);
+    }
+
+    private RawObjectEntity findRawObject(String hash) throws FileNotFoundException {
+        RawObjectEntity rawObject = rawObjectRepository.findOne(hash);
+        if (rawObject == null) {
+            throw new FileNotFoundException("The raw object " + hash + " does not exist anymore");
+        }
+        return rawObject;
+    }
+
+    /**
+     * @return the raw content of the given revision as a resource to stream
+     */
+    public Resource getContentResource(CatalogObjectRevisionEntity revision) {
+        RawObjectEntity rawObject = revision.getRawObjectEntity();
+        if (rawObject == null) {
+            return new ByteArrayResource(new byte[0]);
+        }
+        return getContentResource(rawObject);
+    }
+
+    private Resource getContentResource(RawObjectEntity rawObject) {
+        if (rawObject.getBaseHash() != null) {
+            return new ByteArrayResource(getContent(rawObject));
+        }
+        return RawObjectCodec.of(rawObject).decode(rawObjectStore.open(rawObject));
+    }
+
+    public long getContentLength(CatalogObjectRevisionEntity revision) {
+        RawObjectEntity rawObject = revision.getRawObjectEntity();
+        if (rawObject == null) {
+            return 0;
+        }
+        return rawObject.getContentLength();
+    }
+
+    public void release(RawObjectEntity rawObject) {
+        if (rawObject != null) {
+            release(Collections.singletonList(rawObject.getHash()));
+        }
+    }
+
+    /**
+     * Drops one reference per occurrence of the given hashes and deletes the raw objects no longer
+     * referenced. Must be called once the revisions holding these references are removed or
+     * pointed elsewhere.
+     */
+    public void release(Collection<String> hashes) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        // revisions removed in this transaction must reach the database before their raw objects
+        rawObjectRepository.flush();
+        Map<String, Long> releasedReferences = hashes.stream()
+                                                     .collect(Collectors.groupingBy(Function.identity(),
+                                                                                    Collectors.counting()));
+        releasedReferences.forEach((hash, count) -> addToReferenceCount(hash, -count));
+        deleteUnreferenced(releasedReferences.keySet());
+    }
+
+    /**
+     * @return the number of raw objects deleted among the given ones, those no longer referenced
+     */
+    private int deleteUnreferenced(Collection<String> hashes) {
+        List<String> unreferencedHashes = rawObjectRepository.findUnreferencedForUpdate(hashes);
+        if (!unreferencedHashes.isEmpty()) {
+            List<String> baseHashes = rawObjectRepository.findBaseHashes(unreferencedHashes);
+            rawObjectRepository.deleteUnreferenced(unreferencedHashes);
+            rawObjectStore.delete(unreferencedHashes);
+            rebuiltContents.invalidateAll(unreferencedHashes);
+            log.debug("{} unreferenced raw objects deleted", unreferencedHashes.size());
+            // the deleted deltas no longer need their bases
+            release(baseHashes);
+        }
+        return unreferencedHashes.size();
+    }
+
+    private int addToReferenceCount(String hash, long delta) {
+        int updatedRows = rawObjectRepository.addToReferenceCount(hash, delta);
+        if (updatedRows > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<String> updatedHashes = getUpdatedHashesOfCurrentTransaction();
+            if (updatedHashes == null) {
+                updatedHashes = new HashSet<>();
+                TransactionSynchronizationManager.bindResource(this, updatedHashes);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(RawObjectService.this);
+                    }
+                });
+            }
+            updatedHashes.add(hash);
+        }
+        return updatedRows;
+    }
+
+    private boolean isUpdatedByCurrentTransaction(String hash) {
+        Set<String> updatedHashes = getUpdatedHashesOfCurrentTransaction();
+        return updatedHashes != null && updatedHashes.contains(hash);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> getUpdatedHashesOfCurrentTransaction() {
+        return (Set<String>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    /**
+     * Deletes every raw object, once all revisions are removed.
+     */
+    public void releaseAll() {
+        rawObjectRepository.flush();
+        rawObjectRepository.deleteAllInBatch();
+        rawObjectStore.deleteAll();
+        rebuiltContents.invalidateAll();
+    }
+
+    private byte[] getContent(RawObjectEntity rawObject) {
+        if (rawObject.getBaseHash() == null) {
+            return RawObjectCodec.of(rawObject).decode(rawObjectStore.read(rawObject));
+        }
+        return getRebuiltContent(rawObject);
+    }
+
+    private byte[] getRebuiltContent(RawObjectEntity rawObject) {
+        // not computed within the cache, which does not allow the recursive computation of the bases
+        byte[] content = rebuiltContents.getIfPresent(rawObject.getHash());
+        if (content != null) {
+            return content;
+        }
+        byte[] storedContent = RawObjectCodec.of(rawObject).decode(rawObjectStore.read(rawObject));
+        if (rawObject.getBaseHash() == null) {
+            content = storedContent;
+        } else {
+            RawObjectEntity base = rawObjectRepository.findOne(rawObject.getBaseHash());
+            if (base == null) {
+                throw new IllegalStateException("Missing base " + rawObject.getBaseHash() + " of raw object " +
+                                                rawObject.getHash());
+            }
+            content = RawObjectDelta.apply(getRebuiltContent(base), storedContent);
+        }
+        rebuiltContents.put(rawObject.getHash(), content);
+        return content;
+    }
+
+    @ManagedAttribute(description = "Number of rebuilt contents found in the cache")
+    public long getRebuiltContentHitCount() {
+        return rebuiltContents.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of contents which had to be read or rebuilt from their deltas")
+    public long getRebuiltContentMissCount() {
+        return rebuiltContents.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Number of rebuilt contents evicted to stay within the maximum size")
+    public long getRebuiltContentEvictionCount() {
+        return rebuiltContents.stats().evictionCount();
+    }
+
+    /**
+     * @return the delta of the content against the given base when delta storage is enabled, the
+     * keyframe interval not reached and the delta significantly smaller, otherwise the content itself
+     */
+    private byte[] encodeDelta(RawObjectEntity rawObject, byte[] content, RawObjectEntity deltaBase) {
+        if (deltaBase == null || deltaKeyframeInterval <= 1) {
+            return content;
+        }
+        int deltaDepth = deltaBase.getDeltaDepth() != null ? deltaBase.getDeltaDepth() + 1 : 1;
+        if (deltaDepth >= deltaKeyframeInterval) {
+            return content;
+        }
+        byte[] delta = RawObjectDelta.compute(getContent(deltaBase), content);
+        if (delta.length > content.length / 2) {
+            return content;
+        }
+        rawObject.setBaseHash(deltaBase.getHash());
+        rawObject.setDeltaDepth(deltaDepth);
+        return delta;
+    }
+
+    private byte[] encode(RawObjectEntity rawObject, byte[] content) {
+        RawObjectCodec codec = content.length >= codecMinSize ? RawObjectCodec.valueOf(codecName.trim().toUpperCase())
+                                                              : RawObjectCodec.NONE;
+        byte[] encoded = codec.encode(content);
+        if (encoded.length >= content.length) {
+            codec = RawObjectCodec.NONE;
+            encoded = content;
+        }
+        rawObject.setCodec(codec);
+        rawObject.setStoredLength(codec == RawObjectCodec.NONE ? null : (long) encoded.length);
+        return encoded;
+    }
+
+    static String computeHash(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.List;
+
+import org.ow2.proactive.catalog.repository.CatalogObjectRevisionRepository;
+import org.ow2.proactive.catalog.repository.LegacyRawObjectRepository;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.repository.entity.LegacyRawObjectEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Moves the raw content stored inline by the revisions committed before RAW_OBJECT existed into
+ * the shared raw object table, one batch of revisions per transaction.
+ */
+@Log4j2
+@Component
+public class RawObjectStartupAdder {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private LegacyRawObjectRepository legacyRawObjectRepository;
+
+    @Autowired
+    private CatalogObjectRevisionRepository catalogObjectRevisionRepository;
+
+    @Autowired
+    private RawObjectService rawObjectService;
+
+    /**
+     * @return the number of revisions moved, zero once none is left
+     */
+    @Transactional
+    public int moveLegacyRawObjects() {
+        List<LegacyRawObjectEntity> legacyRawObjects = legacyRawObjectRepository.findWithRawObject(new PageRequest(0,
+                                                                                                                   BATCH_SIZE));
+        for (LegacyRawObjectEntity legacyRawObject : legacyRawObjects) {
+            CatalogObjectRevisionEntity revision = catalogObjectRevisionRepository.findOne(legacyRawObject.getId());
+            revision.setRawObjectEntity(rawObjectService.store(legacyRawObject.getRawObject()));
+            legacyRawObject.setRawObject(null);
+        }
+        if (!legacyRawObjects.isEmpty()) {
+            log.info("Raw content of {} revisions moved to the raw object table.", legacyRawObjects.size());
+        }
+        return legacyRawObjects.size();
+    }
+}
@@ -25,6 +25,9 @@
  */
 package org.ow2.proactive.catalog.service;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.catalog.service.model.AuthenticatedUser;
 import org.ow2.proactive.catalog.service.model.RestApiAccessResponse;
@@ -42,24 +45,25 @@ import org.springframework.stereotype.Component;
 @Lazy
 public class RestApiAccessService {
 
-    private final BucketService bucketService;
+    private final BucketRegistry bucketRegistry;
 
     private final AuthorizationService authorizationService;
 
     private final SchedulerUserAuthenticationService schedulerUserAuthenticationService;
 
     @Autowired
-    public RestApiAccessService(BucketService bucketService, AuthorizationService authorizationService,
+    public RestApiAccessService(BucketRegistry bucketRegistry, AuthorizationService authorizationService,
             SchedulerUserAuthenticationService schedulerUserAuthenticationService) {
-        this.bucketService = bucketService;
+        this.bucketRegistry = bucketRegistry;
         this.authorizationService = authorizationService;
         this.schedulerUserAuthenticationService = schedulerUserAuthenticationService;
     }
 
     public RestApiAccessResponse getUserDataFromSessionidAndCheckAccess(boolean sessionIdRequired, String sessionId,
             String bucketName) {
-        if (!isAPublicBucket(bucketName) && sessionIdRequired) {
-            return checkBucketPermission(sessionId, bucketName);
+        String bucketOwner = getBucketOwner(bucketName);
+        if (!isPublicOwner(bucketOwner) && sessionIdRequired) {
+            return checkBucketPermission(sessionId, bucketName, bucketOwner);
         } else {
             return RestApiAccessResponse.builder()
                                         .authorized(true)
@@ -72,15 +76,16 @@ public class RestApiAccessService {
 
     public void checkAccessBySessionIdForBucketAndThrowIfDeclined(boolean sessionIdRequired, String sessionId,
             String bucketName) {
-        if (!isAPublicBucket(bucketName) && sessionIdRequired) {
-            checkBucketPermission(sessionId, bucketName);
+        String bucketOwner = getBucketOwner(bucketName);
+        if (!isPublicOwner(bucketOwner) && sessionIdRequired) {
+            checkBucketPermission(sessionId, bucketName, bucketOwner);
 
         }
 
     }
 
     public boolean isAPublicBucket(String bucketName) {
-        return BucketService.DEFAULT_BUCKET_OWNER.equals(bucketService.getBucketMetadata(bucketName).getOwner());
+        return isPublicOwner(getBucketOwner(bucketName));
     }
 
     public RestApiAccessResponse checkAccessBySessionIdForOwnerOrGroupAndThrowIfDeclined(String sessionId,
@@ -95,15 +100,38 @@ public class RestApiAccessService {
     }
 
     public boolean isBucketAccessibleByUser(boolean sessionIdRequired, String sessionId, String bucketName) {
-        if (!isAPublicBucket(bucketName) && sessionIdRequired) {
-            return this.checkAccessBySessionForBucketToOwnerOrGroup(sessionId, bucketName).isAuthorized();
+        String bucketOwner = getBucketOwner(bucketName);
+        if (!isPublicOwner(bucketOwner) && sessionIdRequired) {
+            return this.checkAccessBySessionIdToOwnerOrGroup(sessionId, bucketOwner).isAuthorized();
         }
         return true;
     }
 
-    private RestApiAccessResponse checkBucketPermission(String sessionId, String bucketName) {
-        RestApiAccessResponse restApiAccessResponse = this.checkAccessBySessionForBucketToOwnerOrGroup(sessionId,
-                                                                                                       bucketName);
+    /**
+     * Authenticates the session once and returns the owners of all the buckets the user is allowed to access, which
+     * are the public buckets only when the session is not authenticated.
+     */
+    public Set<String> getAccessibleBucketOwners(String sessionId) {
+        AuthenticatedUser authenticatedUser;
+        try {
+            authenticatedUser = schedulerUserAuthenticationService.authenticateBySessionId(sessionId);
+        } catch (NotAuthenticatedException e) {
+            return Collections.singleton(BucketService.DEFAULT_BUCKET_OWNER);
+        }
+        return authorizationService.getAuthorizedBucketOwners(authenticatedUser);
+    }
+
+    private String getBucketOwner(String bucketName) {
+        return bucketRegistry.getBucket(bucketName).getOwner();
+    }
+
+    private boolean isPublicOwner(String bucketOwner) {
+        return BucketService.DEFAULT_BUCKET_OWNER.equals(bucketOwner);
+    }
+
+    private RestApiAccessResponse checkBucketPermission(String sessionId, String bucketName, String bucketOwner) {
+        RestApiAccessResponse restApiAccessResponse = this.checkAccessBySessionIdToOwnerOrGroup(sessionId,
+                                                                                                bucketOwner);
         if (!restApiAccessResponse.isAuthorized()) {
             throw new AccessDeniedException("SessionId: " + sessionId + " is not allowed to access buckets with id " +
                                             bucketName);
@@ -112,11 +140,6 @@ public class RestApiAccessService {
         return restApiAccessResponse;
     }
 
-    private RestApiAccessResponse checkAccessBySessionForBucketToOwnerOrGroup(String sessionId, String bucketName)
-            throws NotAuthenticatedException {
-        return checkAccessBySessionIdToOwnerOrGroup(sessionId, bucketService.getBucketMetadata(bucketName).getOwner());
-    }
-
     private RestApiAccessResponse checkAccessBySessionIdToOwnerOrGroup(String sessionId, String ownerOrGroup)
             throws NotAuthenticatedException {
         AuthenticatedUser authenticatedUser = schedulerUserAuthenticationService.authenticateBySessionId(sessionId);
@@ -25,18 +25,43 @@
  */
 package org.ow2.proactive.catalog.service;
 
+import java.io.IOException;
+
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
 import org.ow2.proactive_grid_cloud_portal.scheduler.client.SchedulerRestClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
 
 
 /**
+ * Creates the clients used to reach the scheduler REST API.
+ *
+ * The client returned by {@link #getSchedulerRestClient()} is created once and shared by all requests: it relies on
+ * a pool of keep-alive connections and on bounded connect and read timeouts.
+ *
  * @author ActiveEon Team
  * @since 27/07/2017
  */
+@Log4j2
 @Component
 public class SchedulerRestClientCreator {
 
@@ -44,7 +69,91 @@ public class SchedulerRestClientCreator {
     @Value("${pa.scheduler.rest.url}")
     private String schedulerRestUrl;
 
+    @Value("${pa.scheduler.rest.client.connect.timeout.millis:5000}")
+    private int connectTimeoutMillis = 5000;
+
+    @Value("${pa.scheduler.rest.client.read.timeout.millis:10000}")
+    private int readTimeoutMillis = 10000;
+
+    @Value("${pa.scheduler.rest.client.pool.size:50}")
+    private int connectionPoolSize = 50;
+
+    private volatile SchedulerRestClient sharedSchedulerRestClient;
+
+    private CloseableHttpClient sharedHttpClient;
+
+    /**
+     * @return the long-lived client shared by all the requests sent to the scheduler
+     */
+    public SchedulerRestClient getSchedulerRestClient() {
+        SchedulerRestClient schedulerRestClient = sharedSchedulerRestClient;
+        if (schedulerRestClient == null) {
+            synchronized (this) {
+                schedulerRestClient = sharedSchedulerRestClient;
+                if (schedulerRestClient == null) {
+                    sharedHttpClient = createPooledHttpClient();
+                    schedulerRestClient = new SchedulerRestClient(this.getSchedulerRestUrl(),
+                                                                  new ApacheHttpClient4Engine(sharedHttpClient));
+                    sharedSchedulerRestClient = schedulerRestClient;
+                    log.info("Scheduler REST client created for {} with a pool of {} connections",
+                             this.getSchedulerRestUrl(),
+                             connectionPoolSize);
+                }
+            }
+        }
+        return schedulerRestClient;
+    }
+
     public SchedulerRestClient getNewClientInitializedWithSchedulerRestUrl() {
         return new SchedulerRestClient(this.getSchedulerRestUrl());
     }
+
+    @PreDestroy
+    public synchronized void closeSharedClient() {
+        if (sharedHttpClient != null) {
+            try {
+                sharedHttpClient.close();
+            } catch (IOException e) {
+                log.warn("Could not close the scheduler REST client connections", e);
+            }
+            sharedHttpClient = null;
+            sharedSchedulerRestClient = null;
+        }
+    }
+
+    private CloseableHttpClient createPooledHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = createConnectionManager();
+        connectionManager.setMaxTotal(connectionPoolSize);
+        // all the requests target the same scheduler
+        connectionManager.setDefaultMaxPerRoute(connectionPoolSize);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout(connectTimeoutMillis)
+                                                   .setConnectionRequestTimeout(connectTimeoutMillis)
+                                                   .setSocketTimeout(readTimeoutMillis)
+                                                   .build();
+
+        return HttpClientBuilder.create()
+                                .setConnectionManager(connectionManager)
+                                .setDefaultRequestConfig(requestConfig)
+                                .build();
+    }
+
+    private PoolingHttpClientConnectionManager createConnectionManager() {
+        try {
+            // the scheduler is commonly deployed with a self-signed certificate
+            SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, new TrustSelfSignedStrategy()).build();
+            Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory> create()
+                                                                                     .register("http",
+                                                                                               PlainConnectionSocketFactory.getSocketFactory())
+                                                                                     .register("https",
+                                                                                               new SSLConnectionSocketFactory(sslContext,
+                                                                                                                              NoopHostnameVerifier.INSTANCE))
+                                                                                     .build();
+            return new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        } catch (Exception e) {
+            log.warn("Could not configure the SSL context of the scheduler REST client", e);
+            return new PoolingHttpClientConnectionManager();
+        }
+    }
 }
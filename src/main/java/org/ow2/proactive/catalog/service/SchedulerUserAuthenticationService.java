@@ -26,47 +26,153 @@
 package org.ow2.proactive.catalog.service;
 
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.ServerErrorException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ow2.proactive.authentication.UserData;
 import org.ow2.proactive.catalog.service.model.AuthenticatedUser;
+import org.ow2.proactive.catalog.util.CircuitBreaker;
 import org.ow2.proactive.microservices.common.exception.NotAuthenticatedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.annotations.VisibleForTesting;
+
+import lombok.extern.log4j.Log4j2;
+
 
 /**
+ * Authenticates the users of the catalog against the scheduler.
+ *
+ * The users are cached by session id: concurrent lookups of the same session are collapsed into a single request to
+ * the scheduler, a session is revalidated in the background once it gets older than the refresh delay (the cached
+ * user being served meanwhile), and rejected session ids are remembered for a short time. When the scheduler REST
+ * endpoint keeps failing, a circuit breaker makes the validations fail fast until it answers again.
+ *
  * @author ActiveEon Team
  * @since 27/07/2017
  */
+@Log4j2
 @Component
 public class SchedulerUserAuthenticationService {
 
     private final SchedulerRestClientCreator schedulerRestClientCreator;
 
+    @Value("${pa.catalog.security.session.cache.size:10000}")
+    private long sessionCacheSize;
+
+    @Value("${pa.catalog.security.session.cache.refresh.seconds:60}")
+    private long sessionCacheRefreshSeconds;
+
+    @Value("${pa.catalog.security.session.cache.expire.seconds:300}")
+    private long sessionCacheExpireSeconds;
+
+    @Value("${pa.catalog.security.session.cache.rejected.seconds:5}")
+    private long rejectedSessionCacheExpireSeconds;
+
+    @Value("${pa.scheduler.rest.circuit.breaker.failure.threshold:5}")
+    private int circuitBreakerFailureThreshold;
+
+    @Value("${pa.scheduler.rest.circuit.breaker.open.millis:10000}")
+    private long circuitBreakerOpenMillis;
+
+    private CircuitBreaker schedulerCircuitBreaker;
+
+    private LoadingCache<String, AuthenticatedUser> authenticatedUsers;
+
+    private Cache<String, NotAuthenticatedException> rejectedSessions;
+
     @Autowired
     public SchedulerUserAuthenticationService(SchedulerRestClientCreator schedulerRestClientCreator) {
         this.schedulerRestClientCreator = schedulerRestClientCreator;
     }
 
+    @PostConstruct
+    public void init() {
+        initSessionCaches(sessionCacheSize,
+                          sessionCacheRefreshSeconds,
+                          sessionCacheExpireSeconds,
+                          rejectedSessionCacheExpireSeconds);
+        initCircuitBreaker(circuitBreakerFailureThreshold, circuitBreakerOpenMillis);
+    }
+
+    @VisibleForTesting
+    void initCircuitBreaker(int failureThreshold, long openMillis) {
+        schedulerCircuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+    }
+
+    @VisibleForTesting
+    void initSessionCaches(long cacheSize, long refreshSeconds, long expireSeconds, long rejectedExpireSeconds) {
+        authenticatedUsers = Caffeine.newBuilder()
+                                     .maximumSize(cacheSize)
+                                     .refreshAfterWrite(refreshSeconds, TimeUnit.SECONDS)
+                                     .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                                     .build(this::authenticateWithScheduler);
+        rejectedSessions = Caffeine.newBuilder()
+                                   .maximumSize(cacheSize)
+                                   .expireAfterWrite(rejectedExpireSeconds, TimeUnit.SECONDS)
+                                   .build();
+    }
+
     public AuthenticatedUser authenticateBySessionId(String sessionId) throws NotAuthenticatedException {
+        if (StringUtils.isEmpty(sessionId)) {
+            throw new NotAuthenticatedException("SessionId is invalid");
+        }
+
+        NotAuthenticatedException rejection = rejectedSessions.getIfPresent(sessionId);
+        if (rejection != null) {
+            // the session may have been rejected by a background revalidation
+            authenticatedUsers.invalidate(sessionId);
+            throw new NotAuthenticatedException(rejection.getMessage(), rejection);
+        }
+
+        return authenticatedUsers.get(sessionId);
+    }
+
+    private AuthenticatedUser authenticateWithScheduler(String sessionId) throws NotAuthenticatedException {
+        if (!schedulerCircuitBreaker.allowRequest()) {
+            throw new NotAuthenticatedException("Could not validate sessionId, the scheduler REST endpoint is unavailable");
+        }
+
         UserData userData;
         try {
-            userData = this.schedulerRestClientCreator.getNewClientInitializedWithSchedulerRestUrl()
+            userData = this.schedulerRestClientCreator.getSchedulerRestClient()
                                                       .getScheduler()
                                                       .getUserDataFromSessionId(sessionId);
+            schedulerCircuitBreaker.recordSuccess();
         } catch (Exception exception) {
+            if (isSchedulerUnavailable(exception)) {
+                schedulerCircuitBreaker.recordFailure();
+            } else {
+                schedulerCircuitBreaker.recordSuccess();
+            }
+            // not remembered as rejected: the scheduler may only be temporarily unreachable
             throw new NotAuthenticatedException("Could not validate sessionId, validation returned: " +
                                                 exception.getMessage(), exception);
         }
 
         if (userData == null || StringUtils.isEmpty(userData.getUserName())) {
-            throw new NotAuthenticatedException("SessionId is invalid");
+            NotAuthenticatedException rejection = new NotAuthenticatedException("SessionId is invalid");
+            rejectedSessions.put(sessionId, rejection);
+            throw rejection;
         }
 
+        log.debug("Session of user {} validated by the scheduler", userData.getUserName());
         return AuthenticatedUser.builder()
                                 .name(userData.getUserName())
                                 .groups(new ArrayList<String>(userData.getGroups()))
                                 .build();
     }
+
+    private boolean isSchedulerUnavailable(Exception exception) {
+        return exception instanceof ProcessingException || exception instanceof ServerErrorException;
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Aligns the increment of the id sequences created before their generators allocated ids by blocks
+ * with the size of these blocks. A pooled-lo generator reads the first id of a block from the sequence,
+ * so the sequence must skip the whole block for two blocks not to overlap. The sequences emulated by a
+ * table already move by the size of the block.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Log4j2
+@Component
+public class SequenceIncrementStartupAdder {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public void alignSequenceIncrements() {
+        log.info("Checking id sequence increments ... ");
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                                                                .unwrap(SessionFactoryImplementor.class);
+        Set<String> alignedSequences = new HashSet<>();
+        for (String entityName : sessionFactory.getAllClassMetadata().keySet()) {
+            IdentifierGenerator identifierGenerator = sessionFactory.getIdentifierGenerator(entityName);
+            if (identifierGenerator instanceof SequenceStyleGenerator) {
+                DatabaseStructure sequence = ((SequenceStyleGenerator) identifierGenerator).getDatabaseStructure();
+                if (sequence.isPhysicalSequence() && sequence.getIncrementSize() > 1 &&
+                    alignedSequences.add(sequence.getName())) {
+                    entityManager.createNativeQuery("ALTER SEQUENCE " + sequence.getName() + " INCREMENT BY " +
+                                                    sequence.getIncrementSize())
+                                 .executeUpdate();
+                    log.info("Sequence {} increment set to {}", sequence.getName(), sequence.getIncrementSize());
+                }
+            }
+        }
+    }
+}
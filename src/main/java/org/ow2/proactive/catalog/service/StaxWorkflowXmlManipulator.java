@@ -0,0 +1,470 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+
+
+/**
+ * Rewrites workflows by copying them through and splicing new text in place of the job start tag
+ * and of the job generic information element only. A StAX reader locates these two regions and
+ * stops reading as soon as they are known, so the rest of the workflow is neither parsed nor
+ * modified: it is kept byte for byte, in its original encoding. This is the default manipulator.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Component
+@ConditionalOnProperty(name = "pa.catalog.workflow.xml.manipulator", havingValue = "stax", matchIfMissing = true)
+public class StaxWorkflowXmlManipulator implements WorkflowXmlManipulator {
+
+    private static final String JOB_NAME_ATTRIBUTE = "name";
+
+    private static final String PROJECT_NAME_ATTRIBUTE = "projectName";
+
+    private static final String GENERIC_INFORMATION_ELEMENT = "genericInformation";
+
+    private static final String INFO_ELEMENT = "info";
+
+    // job level elements that follow the generic information, it is added before the first of them when missing
+    private static final Set<String> ELEMENTS_AFTER_GENERIC_INFORMATION = ImmutableSet.of("inputSpace",
+                                                                                          "outputSpace",
+                                                                                          "globalSpace",
+                                                                                          "userSpace",
+                                                                                          "taskFlow");
+
+    private static final Pattern ENCODING_DECLARATION = Pattern.compile("<\\?xml[^>]*?\\sencoding\\s*=\\s*[\"']([A-Za-z][A-Za-z0-9._-]*)[\"']");
+
+    private static final Pattern ELEMENT_NAME = Pattern.compile("<[^\\s/>]+");
+
+    private static final Pattern ATTRIBUTE = Pattern.compile("\\G(\\s+)([^\\s=]+)\\s*=\\s*(\"[^\"]*\"|'[^']*')");
+
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(StaxWorkflowXmlManipulator::newXmlInputFactory);
+
+    // StAX implementations report the location either at the start or at the end of the current event
+    private static final boolean LOCATION_AT_EVENT_START = reportsLocationAtEventStart();
+
+    @Override
+    public byte[] replaceGenericInformationAndNameOnJobLevel(final byte[] xmlWorkflow,
+            Map<String, String> genericInfoMap, String jobName) {
+        if (xmlWorkflow == null || xmlWorkflow.length == 0) {
+            return new byte[] {};
+        }
+        if (genericInfoMap == null) {
+            return xmlWorkflow;
+        }
+        return rewriteJobLevel(xmlWorkflow, genericInfoMap, jobName, null);
+    }
+
+    @Override
+    public byte[] replaceOrAddOrRemoveProjectNameOnJobLevel(final byte[] xmlWorkflow, String projectName) {
+        if (xmlWorkflow == null || xmlWorkflow.length == 0) {
+            return new byte[] {};
+        }
+        return rewriteJobLevel(xmlWorkflow, null, null, Strings.nullToEmpty(projectName));
+    }
+
+    @Override
+    public byte[] replaceGenericInformationNameAndProjectNameOnJobLevel(final byte[] xmlWorkflow,
+            Map<String, String> genericInfoMap, String jobName, String projectName) {
+        if (xmlWorkflow == null || xmlWorkflow.length == 0) {
+            return new byte[] {};
+        }
+        return rewriteJobLevel(xmlWorkflow,
+                               genericInfoMap,
+                               genericInfoMap == null ? null : jobName,
+                               Strings.nullToEmpty(projectName));
+    }
+
+    /**
+     * @param genericInfoMap the new job generic information, or null to keep it
+     * @param jobName the new job name, or null to keep it
+     * @param projectName the new project name, blank to remove it or null to keep it
+     */
+    private byte[] rewriteJobLevel(byte[] xmlWorkflow, Map<String, String> genericInfoMap, String jobName,
+            String projectName) {
+        try {
+            Charset charset = detectEncoding(xmlWorkflow);
+            String document = charset.newDecoder()
+                                     .onMalformedInput(CodingErrorAction.REPORT)
+                                     .onUnmappableCharacter(CodingErrorAction.REPORT)
+                                     .decode(ByteBuffer.wrap(xmlWorkflow))
+                                     .toString();
+            CharsetEncoder encoder = charset.newEncoder();
+            JobLevelRegions regions = locateJobLevelRegions(document, genericInfoMap != null);
+
+            StringBuilder rewritten = new StringBuilder(document.length() + 512);
+            rewritten.append(document, 0, regions.jobStart);
+            rewritten.append(rewriteJobStartTag(document.substring(regions.jobStart, regions.jobEnd),
+                                                jobName,
+                                                projectName,
+                                                encoder));
+            int copied = regions.jobEnd;
+            if (genericInfoMap != null && regions.genericInformationStart >= 0) {
+                String indentation = indentationBefore(document, regions.genericInformationStart);
+                rewritten.append(document, copied, regions.genericInformationStart);
+                rewritten.append(genericInformationElement(genericInfoMap,
+                                                           regions.prefix,
+                                                           indentation,
+                                                           lineSeparator(document),
+                                                           encoder));
+                if (regions.genericInformationStart == regions.genericInformationEnd) {
+                    // added before the following element, which keeps its indentation
+                    rewritten.append(lineSeparator(document)).append(indentation);
+                }
+                copied = regions.genericInformationEnd;
+            }
+            rewritten.append(document, copied, document.length());
+
+            ByteBuffer encoded = encoder.encode(CharBuffer.wrap(rewritten));
+            byte[] answer = new byte[encoded.remaining()];
+            encoded.get(answer);
+            return answer;
+        } catch (XMLStreamException | IOException | IllegalArgumentException e) {
+            throw new ParsingObjectException(e);
+        }
+    }
+
+    /**
+     * Reads the workflow until the job start tag, and the job generic information element when
+     * requested, are located. The generic information region is empty when the element is missing:
+     * it is then the position where the element must be added.
+     */
+    private JobLevelRegions locateJobLevelRegions(String document, boolean withGenericInformation)
+            throws XMLStreamException, IOException {
+        // the byte order mark is kept in the document but not given to the reader
+        int base = document.startsWith("\uFEFF") ? 1 : 0;
+        StringReader input = new StringReader(document);
+        input.skip(base);
+        XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(input);
+        try {
+            JobLevelRegions regions = new JobLevelRegions();
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                int location = base + reader.getLocation().getCharacterOffset();
+                if (event == START_ELEMENT) {
+                    depth++;
+                    if (depth == 1) {
+                        regions.jobStart = startTagStart(document, location);
+                        regions.jobEnd = startTagEnd(document, location);
+                        regions.prefix = reader.getPrefix();
+                        if (!withGenericInformation) {
+                            return regions;
+                        }
+                    } else if (depth == 2 && GENERIC_INFORMATION_ELEMENT.equals(reader.getLocalName())) {
+                        regions.genericInformationStart = startTagStart(document, location);
+                        int tagEnd = startTagEnd(document, location);
+                        if (document.charAt(tagEnd - 2) == '/') {
+                            regions.genericInformationEnd = tagEnd;
+                            return regions;
+                        }
+                    } else if (depth == 2 && ELEMENTS_AFTER_GENERIC_INFORMATION.contains(reader.getLocalName())) {
+                        regions.genericInformationStart = startTagStart(document, location);
+                        regions.genericInformationEnd = regions.genericInformationStart;
+                        return regions;
+                    }
+                } else if (event == END_ELEMENT) {
+                    if (depth == 2 && regions.genericInformationStart >= 0) {
+                        regions.genericInformationEnd = endTagEnd(document, location);
+                        return regions;
+                    }
+                    depth--;
+                }
+            }
+            if (regions.jobStart < 0) {
+                throw new ParsingObjectException("No job element found in the workflow");
+            }
+            return regions;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private String rewriteJobStartTag(String startTag, String jobName, String projectName, CharsetEncoder encoder) {
+        Matcher elementName = ELEMENT_NAME.matcher(startTag);
+        if (!elementName.lookingAt()) {
+            throw new ParsingObjectException("Cannot read the job start tag: " + startTag);
+        }
+        boolean removeProjectName = projectName != null && projectName.trim().isEmpty();
+        boolean jobNameFound = false;
+        boolean projectNameFound = false;
+
+        StringBuilder rewritten = new StringBuilder(startTag.length() + 64);
+        int copied = 0;
+        int attributesEnd = elementName.end();
+        Matcher attribute = ATTRIBUTE.matcher(startTag);
+        attribute.region(attributesEnd, startTag.length());
+        while (attribute.find()) {
+            String attributeName = attribute.group(2);
+            if (jobName != null && JOB_NAME_ATTRIBUTE.equals(attributeName)) {
+                copied = appendReplacedValue(rewritten, startTag, copied, attribute, jobName, encoder);
+                jobNameFound = true;
+            } else if (projectName != null && PROJECT_NAME_ATTRIBUTE.equals(attributeName)) {
+                if (removeProjectName) {
+                    rewritten.append(startTag, copied, attribute.start());
+                    copied = attribute.end();
+                } else {
+                    copied = appendReplacedValue(rewritten, startTag, copied, attribute, projectName, encoder);
+                }
+                projectNameFound = true;
+            }
+            attributesEnd = attribute.end();
+        }
+        rewritten.append(startTag, copied, attributesEnd);
+        if (jobName != null && !jobNameFound) {
+            appendAttribute(rewritten, JOB_NAME_ATTRIBUTE, jobName, encoder);
+        }
+        if (projectName != null && !removeProjectName && !projectNameFound) {
+            appendAttribute(rewritten, PROJECT_NAME_ATTRIBUTE, projectName, encoder);
+        }
+        rewritten.append(startTag, attributesEnd, startTag.length());
+        return rewritten.toString();
+    }
+
+    private int appendReplacedValue(StringBuilder rewritten, String startTag, int copied, Matcher attribute,
+            String value, CharsetEncoder encoder) {
+        char quote = startTag.charAt(attribute.start(3));
+        rewritten.append(startTag, copied, attribute.start(3))
+                 .append(quote)
+                 .append(escape(value, encoder))
+                 .append(quote);
+        return attribute.end(3);
+    }
+
+    private void appendAttribute(StringBuilder rewritten, String name, String value, CharsetEncoder encoder) {
+        rewritten.append(' ').append(name).append("=\"").append(escape(value, encoder)).append('"');
+    }
+
+    private String genericInformationElement(Map<String, String> genericInfoMap, String prefix, String indentation,
+            String lineSeparator, CharsetEncoder encoder) {
+        String genericInformationName = qualifiedName(prefix, GENERIC_INFORMATION_ELEMENT);
+        if (genericInfoMap.isEmpty()) {
+            return "<" + genericInformationName + "/>";
+        }
+        String infoName = qualifiedName(prefix, INFO_ELEMENT);
+        String infoIndentation = indentation + (indentation.isEmpty() ? "  " : indentation);
+        StringBuilder element = new StringBuilder("<").append(genericInformationName).append('>');
+        for (Map.Entry<String, String> entry : genericInfoMap.entrySet()) {
+            element.append(lineSeparator).append(infoIndentation).append('<').append(infoName);
+            appendAttribute(element, "name", entry.getKey(), encoder);
+            appendAttribute(element, "value", entry.getValue(), encoder);
+            element.append("/>");
+        }
+        return element.append(lineSeparator)
+                      .append(indentation)
+                      .append("</")
+                      .append(genericInformationName)
+                      .append('>')
+                      .toString();
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return Strings.isNullOrEmpty(prefix) ? localName : prefix + ":" + localName;
+    }
+
+    /**
+     * Escapes an attribute value, using character references for the characters that the
+     * encoding of the workflow cannot represent.
+     */
+    private static String escape(String value, CharsetEncoder encoder) {
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int index = 0; index < value.length();) {
+            int codePoint = value.codePointAt(index);
+            int length = Character.charCount(codePoint);
+            switch (codePoint) {
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                case '\'':
+                    escaped.append("&apos;");
+                    break;
+                case '\t':
+                case '\n':
+                case '\r':
+                    escaped.append("&#").append(codePoint).append(';');
+                    break;
+                default:
+                    if (codePoint < 0x80 || encoder.canEncode(value.substring(index, index + length))) {
+                        escaped.appendCodePoint(codePoint);
+                    } else {
+                        escaped.append("&#").append(codePoint).append(';');
+                    }
+            }
+            index += length;
+        }
+        return escaped.toString();
+    }
+
+    private static String indentationBefore(String document, int position) {
+        int lineStart = position;
+        while (lineStart > 0 && (document.charAt(lineStart - 1) == ' ' || document.charAt(lineStart - 1) == '\t')) {
+            lineStart--;
+        }
+        if (lineStart == 0 || document.charAt(lineStart - 1) == '\n' || document.charAt(lineStart - 1) == '\r') {
+            return document.substring(lineStart, position);
+        }
+        return "";
+    }
+
+    private static String lineSeparator(String document) {
+        int firstLineEnd = document.indexOf('\n');
+        return firstLineEnd > 0 && document.charAt(firstLineEnd - 1) == '\r' ? "\r\n" : "\n";
+    }
+
+    private static int startTagStart(String document, int location) {
+        // a start tag contains no other '<', which must be escaped in attribute values
+        return LOCATION_AT_EVENT_START ? location : document.lastIndexOf('<', location - 1);
+    }
+
+    private static int startTagEnd(String document, int location) {
+        if (!LOCATION_AT_EVENT_START) {
+            return location;
+        }
+        // unlike '<', '>' is allowed in attribute values
+        char quote = 0;
+        for (int index = location; index < document.length(); index++) {
+            char character = document.charAt(index);
+            if (quote != 0) {
+                if (character == quote) {
+                    quote = 0;
+                }
+            } else if (character == '"' || character == '\'') {
+                quote = character;
+            } else if (character == '>') {
+                return index + 1;
+            }
+        }
+        throw new ParsingObjectException("Unterminated start tag in the workflow");
+    }
+
+    private static int endTagEnd(String document, int location) {
+        return LOCATION_AT_EVENT_START ? document.indexOf('>', location) + 1 : location;
+    }
+
+    /**
+     * Detects the encoding from the byte order mark or the XML declaration, UTF-8 by default.
+     */
+    private static Charset detectEncoding(byte[] xmlWorkflow) {
+        if (startsWith(xmlWorkflow, 0xEF, 0xBB, 0xBF)) {
+            return StandardCharsets.UTF_8;
+        }
+        if (startsWith(xmlWorkflow, 0xFE, 0xFF) || startsWith(xmlWorkflow, 0x00, 0x3C)) {
+            return StandardCharsets.UTF_16BE;
+        }
+        if (startsWith(xmlWorkflow, 0xFF, 0xFE) || startsWith(xmlWorkflow, 0x3C, 0x00)) {
+            return StandardCharsets.UTF_16LE;
+        }
+        Matcher declaration = ENCODING_DECLARATION.matcher(new String(xmlWorkflow,
+                                                                      0,
+                                                                      Math.min(xmlWorkflow.length, 256),
+                                                                      StandardCharsets.ISO_8859_1));
+        return declaration.lookingAt() ? Charset.forName(declaration.group(1)) : StandardCharsets.UTF_8;
+    }
+
+    private static boolean startsWith(byte[] bytes, int... prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int index = 0; index < prefix.length; index++) {
+            if ((bytes[index] & 0xFF) != prefix[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private static boolean reportsLocationAtEventStart() {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(new StringReader("<a><b/></a>"));
+            try {
+                reader.nextTag();
+                reader.nextTag();
+                // 3 is the start of <b/>, its end is 7
+                return reader.getLocation().getCharacterOffset() == 3;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class JobLevelRegions {
+
+        private int jobStart = -1;
+
+        private int jobEnd = -1;
+
+        private String prefix;
+
+        private int genericInformationStart = -1;
+
+        private int genericInformationEnd = -1;
+    }
+
+}
@@ -43,29 +43,42 @@ public class WorkflowInfoAdder {
     @Autowired
     private WorkflowXmlManipulator workflowXmlManipulator;
 
-    public byte[] addGenericInformationJobNameToRawObjectIfWorkflow(final byte[] rawObject,
-            final String catalogObjectEntityKind, Map<String, String> genericInformationMap, final String jobName) {
-        byte[] workflowWithReplacedGenericInfoJobName = rawObject;
+    @Autowired
+    private ParseResultCache parseResultCache;
+
+    public byte[] addGenericInformationJobNameAndProjectNameToRawObjectIfWorkflow(final byte[] rawObject,
+            final String catalogObjectEntityKind, Map<String, String> genericInformationMap, final String jobName,
+            final String projectName) {
+        byte[] workflowWithReplacedJobInfo = rawObject;
 
-        if (catalogObjectEntityKind != null &&
-            catalogObjectEntityKind.toLowerCase().startsWith(SupportedParserKinds.WORKFLOW.toString().toLowerCase())) {
-            workflowWithReplacedGenericInfoJobName = workflowXmlManipulator.replaceGenericInformationAndNameOnJobLevel(rawObject,
-                                                                                                                       genericInformationMap,
-                                                                                                                       jobName);
+        if (isWorkflow(catalogObjectEntityKind)) {
+            workflowWithReplacedJobInfo = parseResultCache.getRewrittenWorkflow(rawObject,
+                                                                                genericInformationMap,
+                                                                                jobName,
+                                                                                projectName,
+                                                                                workflow -> workflowXmlManipulator.replaceGenericInformationNameAndProjectNameOnJobLevel(workflow,
+                                                                                                                                                                         genericInformationMap,
+                                                                                                                                                                         jobName,
+                                                                                                                                                                         projectName));
         }
-        return workflowWithReplacedGenericInfoJobName;
+        return workflowWithReplacedJobInfo;
     }
 
     public byte[] addProjectNameToRawObjectIfWorkflow(final byte[] rawObject, final String catalogObjectEntityKind,
             final String projectName) {
         byte[] workflowWithReplacedProjectName = rawObject;
 
-        if (catalogObjectEntityKind != null &&
-            catalogObjectEntityKind.toLowerCase().startsWith(SupportedParserKinds.WORKFLOW.toString().toLowerCase())) {
+        if (isWorkflow(catalogObjectEntityKind)) {
             workflowWithReplacedProjectName = workflowXmlManipulator.replaceOrAddOrRemoveProjectNameOnJobLevel(rawObject,
                                                                                                                projectName);
         }
         return workflowWithReplacedProjectName;
     }
 
+    static boolean isWorkflow(final String catalogObjectEntityKind) {
+        return catalogObjectEntityKind != null &&
+               catalogObjectEntityKind.toLowerCase()
+                                      .startsWith(SupportedParserKinds.WORKFLOW.toString().toLowerCase());
+    }
+
 }
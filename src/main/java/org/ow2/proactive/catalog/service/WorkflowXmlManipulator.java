@@ -25,150 +25,36 @@
  */
 package org.ow2.proactive.catalog.service;
 
-import java.io.ByteArrayOutputStream;
-import java.io.StringReader;
 import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-
-import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
-import org.springframework.stereotype.Component;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-
 
 /**
+ * Rewrites the job level of an XML workflow: its name and project name attributes and its
+ * generic information element. The generic information of the tasks is never modified.
+ *
  * @author ActiveEon Team
- * @since 09/08/2017
+ * @since 18/10/2026
  */
-@SuppressWarnings("WeakerAccess")
-@Component
-public class WorkflowXmlManipulator {
-
-    public byte[] replaceGenericInformationAndNameOnJobLevel(final byte[] xmlWorkflow,
-            Map<String, String> genericInfoMap, String jobName) {
-        if (xmlWorkflow == null || xmlWorkflow.length == 0) {
-            return new byte[] {};
-        }
-        if (genericInfoMap == null) {
-            return xmlWorkflow;
-        }
-
-        Document doc = null;
-        try {
-            doc = DocumentBuilderFactory.newInstance()
-                                        .newDocumentBuilder()
-                                        .parse(new InputSource(new StringReader(new String(xmlWorkflow))));
-
-            Element rootElement = doc.getDocumentElement();
-            replaceJobName(rootElement, jobName);
-            replaceOrAddGenericInfoElement(genericInfoMap, doc, rootElement);
-
-            Transformer xformer = TransformerFactory.newInstance().newTransformer();
-            xformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            ByteArrayOutputStream answer = new ByteArrayOutputStream();
-            xformer.transform(new DOMSource(doc), new StreamResult(answer));
-            return answer.toByteArray();
-        } catch (Exception e) {
-            throw new ParsingObjectException(e);
-        }
-    }
-
-    public byte[] replaceOrAddOrRemoveProjectNameOnJobLevel(final byte[] xmlWorkflow, String projectName) {
-        if (xmlWorkflow == null || xmlWorkflow.length == 0) {
-            return new byte[] {};
-        }
-        Document doc = null;
-        try {
-            doc = DocumentBuilderFactory.newInstance()
-                                        .newDocumentBuilder()
-                                        .parse(new InputSource(new StringReader(new String(xmlWorkflow))));
-
-            Element rootElement = doc.getDocumentElement();
-            if (projectName.trim().isEmpty()) {
-                removeProjectName(rootElement);
-            } else {
-                replaceOrAddProjectName(rootElement, projectName);
-            }
-            Transformer xformer = TransformerFactory.newInstance().newTransformer();
-            xformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            ByteArrayOutputStream answer = new ByteArrayOutputStream();
-            xformer.transform(new DOMSource(doc), new StreamResult(answer));
-            return answer.toByteArray();
-        } catch (Exception e) {
-            throw new ParsingObjectException(e);
-        }
-    }
-
-    private void replaceOrAddGenericInfoElement(Map<String, String> genericInfoMap, Document doc, Element rootElement) {
-        NodeList nodes = rootElement.getChildNodes();
-        for (int idx = 0; idx < nodes.getLength(); idx++) {
-            if (nodes.item(idx).getNodeName() == "genericInformation") {
-                Element oldGenericInfoElement = (Element) nodes.item(idx);
-                rootElement.replaceChild(createGenericInfoElement(doc, genericInfoMap), oldGenericInfoElement);
-                break;
-            }
-            switch (nodes.item(idx).getNodeName()) {
-                case "genericInformation":
-                    Element oldGenericInfoElement = (Element) nodes.item(idx);
-                    rootElement.replaceChild(createGenericInfoElement(doc, genericInfoMap), oldGenericInfoElement);
-                    return;
-                case "inputSpace":
-                case "outputSpace":
-                case "globalSpace":
-                case "userSpace":
-                case "taskFlow":
-                    Element elementAfterGenericInfo = (Element) nodes.item(idx);
-                    rootElement.insertBefore(createGenericInfoElement(doc, genericInfoMap), elementAfterGenericInfo);
-                    return;
-            }
-        }
-    }
-
-    private Element replaceJobName(Element element, String jobName) {
-        return replaceAttributeValue(element, "name", jobName);
-    }
-
-    private Element replaceOrAddProjectName(Element rootElement, String projectName) {
-        return replaceAttributeValue(rootElement, "projectName", projectName);
-    }
-
-    private Element removeProjectName(Element rootElement) {
-        return removeAttributeValue(rootElement, "projectName");
-    }
-
-    private Element replaceAttributeValue(Element element, String attrName, String attrValue) {
-        element.setAttribute(attrName, attrValue);
-        return element;
-    }
-
-    private Element removeAttributeValue(Element element, String attrName) {
-        element.removeAttribute(attrName);
-        return element;
-    }
-
-    private Element createInfoElement(Document doc, String name, String value) {
-        Element infoElement = doc.createElement("info");
-        infoElement.setAttribute("name", name);
-        infoElement.setAttribute("value", value);
-        return infoElement;
-    }
-
-    private Node createGenericInfoElement(Document doc, Map<String, String> keyValueMetadataEntities) {
-        Element genericInfoElement = doc.createElement("genericInformation");
-        for (Map.Entry<String, String> entry : keyValueMetadataEntities.entrySet()) {
-            Element child = createInfoElement(doc, entry.getKey(), entry.getValue());
-            genericInfoElement.appendChild(child);
-        }
-        return genericInfoElement;
-    }
+public interface WorkflowXmlManipulator {
+
+    /**
+     * Replace the job name and the job generic information. The workflow is returned as is when
+     * the generic information map is null, and an empty array is returned for an empty workflow.
+     */
+    byte[] replaceGenericInformationAndNameOnJobLevel(byte[] xmlWorkflow, Map<String, String> genericInfoMap,
+            String jobName);
+
+    /**
+     * Replace or add the project name, or remove it when it is blank.
+     */
+    byte[] replaceOrAddOrRemoveProjectNameOnJobLevel(byte[] xmlWorkflow, String projectName);
+
+    /**
+     * Apply the job name, generic information and project name rewrites in a single pass over the
+     * workflow. When the generic information map is null, the job name and generic information are
+     * left untouched and only the project name is synchronized.
+     */
+    byte[] replaceGenericInformationNameAndProjectNameOnJobLevel(byte[] xmlWorkflow,
+            Map<String, String> genericInfoMap, String jobName, String projectName);
 
 }
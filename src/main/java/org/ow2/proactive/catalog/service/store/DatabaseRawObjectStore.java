@@ -0,0 +1,71 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.store;
+
+import java.util.Collection;
+
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Keeps the content of every raw object in the CONTENT column of its row. This is the default store.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Component
+@ConditionalOnProperty(name = "pa.catalog.raw.object.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseRawObjectStore implements RawObjectStore {
+
+    @Override
+    public void write(RawObjectEntity rawObject, byte[] content) {
+        rawObject.setContent(content);
+    }
+
+    @Override
+    public byte[] read(RawObjectEntity rawObject) {
+        return rawObject.getContent();
+    }
+
+    @Override
+    public Resource open(RawObjectEntity rawObject) {
+        return new ByteArrayResource(rawObject.getContent());
+    }
+
+    @Override
+    public void delete(Collection<String> hashes) {
+        // the content is deleted with the rows
+    }
+
+    @Override
+    public void deleteAll() {
+        // the content is deleted with the rows
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.store;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.ow2.proactive.catalog.repository.RawObjectRepository;
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Keeps the content of raw objects in files named by their digest, under two levels of
+ * directories taken from the first characters of the digest. Content up to a configurable size
+ * stays inline in the RAW_OBJECT row, so that small objects do not cost a file each.
+ *
+ * The file of a new raw object is written aside and moved into place when the inserting
+ * transaction commits. Files of deleted raw objects are removed once the deleting transaction
+ * commits, unless a transaction storing the same content inserted its row again or is writing its
+ * file in the meantime. This is decided from the database rather than from file modification
+ * times, whose resolution is too coarse on some filesystems.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "pa.catalog.raw.object.store", havingValue = "filesystem")
+public class FileSystemRawObjectStore implements RawObjectStore {
+
+    private static final int HASH_LENGTH = 64;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final Path directory;
+
+    private final int inlineMaxSize;
+
+    private final RawObjectRepository rawObjectRepository;
+
+    private final TransactionTemplate newTransaction;
+
+    // hashes whose files are written by transactions not completed yet, and hashes whose files are
+    // about to be deleted, from which a new write removes its hash to keep its file; guarded by this
+    private final Multiset<String> pendingWrites = HashMultiset.create();
+
+    private final Multiset<String> pendingDeletes = HashMultiset.create();
+
+    @Autowired
+    public FileSystemRawObjectStore(@Value("${pa.catalog.raw.object.store.directory:}") String directory,
+            @Value("${pa.catalog.raw.object.store.inline.max.size:4096}") int inlineMaxSize,
+            RawObjectRepository rawObjectRepository, PlatformTransactionManager transactionManager) {
+        if (directory == null || directory.trim().isEmpty()) {
+            throw new IllegalArgumentException("pa.catalog.raw.object.store.directory is required by the filesystem raw object store");
+        }
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.inlineMaxSize = inlineMaxSize;
+        this.rawObjectRepository = rawObjectRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.newTransaction.setReadOnly(true);
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot create the raw object directory " + this.directory, e);
+        }
+        log.info("Raw objects larger than {} bytes are stored in {}", inlineMaxSize, this.directory);
+    }
+
+    @Override
+    public void write(RawObjectEntity rawObject, byte[] content) {
+        if (content.length <= inlineMaxSize) {
+            rawObject.setContent(content);
+            return;
+        }
+        rawObject.setContent(null);
+        String hash = rawObject.getHash();
+        Path path = pathOf(hash);
+        synchronized (this) {
+            pendingWrites.add(hash);
+            pendingDeletes.setCount(hash, 0);
+        }
+        Path temporaryFile;
+        try {
+            Files.createDirectories(path.getParent());
+            temporaryFile = Files.createTempFile(path.getParent(), hash, ".tmp");
+            Files.write(temporaryFile, content);
+        } catch (IOException e) {
+            completeWrite(hash);
+            throw new RuntimeException("Cannot write the raw object " + hash, e);
+        }
+        // a transaction failing to insert the row, because another one inserted it first, must not
+        // replace the file of the other one, so the file only takes its place once the row is in
+        beforeCommit(() -> moveIntoPlace(temporaryFile, path), () -> {
+            deleteTemporaryFile(temporaryFile);
+            completeWrite(hash);
+        });
+    }
+
+    private synchronized void completeWrite(String hash) {
+        pendingWrites.remove(hash);
+    }
+
+    private void moveIntoPlace(Path temporaryFile, Path path) {
+        try {
+            Files.move(temporaryFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot write the raw object file " + path, e);
+        }
+    }
+
+    private void deleteTemporaryFile(Path temporaryFile) {
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+            log.warn("Cannot delete the temporary raw object file " + temporaryFile, e);
+        }
+    }
+
+    @Override
+    public byte[] read(RawObjectEntity rawObject) {
+        if (rawObject.getContent() != null) {
+            return rawObject.getContent();
+        }
+        try {
+            return Files.readAllBytes(pathOf(rawObject.getHash()));
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read the raw object " + rawObject.getHash(), e);
+        }
+    }
+
+    @Override
+    public Resource open(RawObjectEntity rawObject) {
+        if (rawObject.getContent() != null) {
+            return new ByteArrayResource(rawObject.getContent());
+        }
+        return new MappedFileResource(pathOf(rawObject.getHash()));
+    }
+
+    @Override
+    public void delete(Collection<String> hashes) {
+        Map<String, List<Path>> filesByHash = hashes.stream()
+                                                    .distinct()
+                                                    .collect(Collectors.toMap(hash -> hash,
+                                                                              hash -> Lists.newArrayList(pathOf(hash))));
+        afterCommit(() -> deleteUnlessStoredAgain(filesByHash));
+    }
+
+    @Override
+    public void deleteAll() {
+        afterCommit(() -> {
+            Map<String, List<Path>> filesByHash;
+            try (Stream<Path> files = Files.walk(directory)) {
+                filesByHash = files.filter(Files::isRegularFile)
+                                   .filter(path -> path.getFileName().toString().length() >= HASH_LENGTH)
+                                   .collect(Collectors.groupingBy(path -> path.getFileName()
+                                                                              .toString()
+                                                                              .substring(0, HASH_LENGTH)));
+            } catch (IOException e) {
+                log.warn("Cannot list the raw objects of " + directory, e);
+                return;
+            }
+            deleteUnlessStoredAgain(filesByHash);
+        });
+    }
+
+    Path pathOf(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    /**
+     * Deletes the files of raw objects whose rows were deleted by a committed transaction, except
+     * the ones stored again since. A write still in progress when the deletion starts, or started
+     * while the rows are looked up, keeps its file: its row may not be visible yet.
+     */
+    private void deleteUnlessStoredAgain(Map<String, List<Path>> filesByHash) {
+        Set<String> deletedHashes = new HashSet<>();
+        synchronized (this) {
+            for (String hash : filesByHash.keySet()) {
+                if (!pendingWrites.contains(hash)) {
+                    pendingDeletes.add(hash);
+                    deletedHashes.add(hash);
+                }
+            }
+        }
+        if (deletedHashes.isEmpty()) {
+            return;
+        }
+        Set<String> storedHashes;
+        try {
+            storedHashes = findStoredHashes(deletedHashes);
+        } catch (RuntimeException e) {
+            log.warn("Cannot check whether the deleted raw objects were stored again, their files are kept", e);
+            storedHashes = deletedHashes;
+        }
+        synchronized (this) {
+            for (String hash : deletedHashes) {
+                // a write started meanwhile removed the hash from the pending deletes
+                if (pendingDeletes.remove(hash) && !storedHashes.contains(hash)) {
+                    filesByHash.get(hash).forEach(this::deleteFile);
+                }
+            }
+        }
+    }
+
+    private Set<String> findStoredHashes(Collection<String> hashes) {
+        return newTransaction.execute(status -> {
+            Set<String> storedHashes = new HashSet<>();
+            for (List<String> batch : Lists.partition(new ArrayList<>(hashes), BATCH_SIZE)) {
+                storedHashes.addAll(rawObjectRepository.findExistingHashes(batch));
+            }
+            return storedHashes;
+        });
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Cannot delete the raw object file " + path, e);
+        }
+    }
+
+    private void beforeCommit(Runnable action, Runnable cleanup) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                action.run();
+            } finally {
+                cleanup.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                cleanup.run();
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Line-level delta between two versions of a raw object. A delta is a sequence of instructions
+ * copying byte ranges of the base version, made of whole lines, or inserting new bytes, so that
+ * the target version is rebuilt byte for byte whatever its line separators.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public final class RawObjectDelta {
+
+    private static final byte COPY = 0;
+
+    private static final byte INSERT = 1;
+
+    // occurrences of a line in the base version considered when looking for the longest copy
+    private static final int MAX_CANDIDATES = 16;
+
+    private RawObjectDelta() {
+    }
+
+    public static byte[] compute(byte[] base, byte[] target) {
+        List<ByteBuffer> baseLines = splitLines(base);
+        List<ByteBuffer> targetLines = splitLines(target);
+        Map<ByteBuffer, List<Integer>> baseLineIndexes = new HashMap<>();
+        for (int i = 0; i < baseLines.size(); i++) {
+            baseLineIndexes.computeIfAbsent(baseLines.get(i), line -> new ArrayList<>()).add(i);
+        }
+
+        ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(delta)) {
+            int insertStart = -1;
+            int nextBaseLine = -1;
+            int targetLine = 0;
+            while (targetLine < targetLines.size()) {
+                int bestBaseLine = -1;
+                int bestLength = 0;
+                List<Integer> candidates = baseLineIndexes.get(targetLines.get(targetLine));
+                if (candidates != null) {
+                    if (nextBaseLine >= 0 && nextBaseLine < baseLines.size() &&
+                        baseLines.get(nextBaseLine).equals(targetLines.get(targetLine))) {
+                        bestBaseLine = nextBaseLine;
+                        bestLength = matchLength(baseLines, nextBaseLine, targetLines, targetLine);
+                    }
+                    for (int candidate : candidates.subList(0, Math.min(candidates.size(), MAX_CANDIDATES))) {
+                        int length = matchLength(baseLines, candidate, targetLines, targetLine);
+                        if (length > bestLength) {
+                            bestBaseLine = candidate;
+                            bestLength = length;
+                        }
+                    }
+                }
+                if (bestBaseLine < 0) {
+                    if (insertStart < 0) {
+                        insertStart = targetLines.get(targetLine).arrayOffset();
+                    }
+                    targetLine++;
+                    continue;
+                }
+                if (insertStart >= 0) {
+                    writeInsert(output, target, insertStart, targetLines.get(targetLine).arrayOffset());
+                    insertStart = -1;
+                }
+                ByteBuffer firstLine = baseLines.get(bestBaseLine);
+                ByteBuffer lastLine = baseLines.get(bestBaseLine + bestLength - 1);
+                output.writeByte(COPY);
+                output.writeInt(firstLine.arrayOffset());
+                output.writeInt(lastLine.arrayOffset() + lastLine.remaining() - firstLine.arrayOffset());
+                nextBaseLine = bestBaseLine + bestLength;
+                targetLine += bestLength;
+            }
+            if (insertStart >= 0) {
+                writeInsert(output, target, insertStart, target.length);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot compute raw object delta", e);
+        }
+        return delta.toByteArray();
+    }
+
+    public static byte[] apply(byte[] base, byte[] delta) {
+        ByteArrayOutputStream target = new ByteArrayOutputStream(base.length + delta.length);
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(delta))) {
+            while (input.available() > 0) {
+                byte instruction = input.readByte();
+                if (instruction == COPY) {
+                    int offset = input.readInt();
+                    int length = input.readInt();
+                    target.write(base, offset, length);
+                } else if (instruction == INSERT) {
+                    byte[] inserted = new byte[input.readInt()];
+                    input.readFully(inserted);
+                    target.write(inserted);
+                } else {
+                    throw new IllegalArgumentException("Unknown raw object delta instruction: " + instruction);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot apply raw object delta", e);
+        }
+        return target.toByteArray();
+    }
+
+    private static void writeInsert(DataOutputStream output, byte[] target, int start, int end) throws IOException {
+        output.writeByte(INSERT);
+        output.writeInt(end - start);
+        output.write(target, start, end - start);
+    }
+
+    private static int matchLength(List<ByteBuffer> baseLines, int baseLine, List<ByteBuffer> targetLines,
+            int targetLine) {
+        int length = 0;
+        while (baseLine + length < baseLines.size() && targetLine + length < targetLines.size() &&
+               baseLines.get(baseLine + length).equals(targetLines.get(targetLine + length))) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * @return the lines of the given content, each one including its line feed and positioned at its
+     * offset in the content through {@link ByteBuffer#arrayOffset()}
+     */
+    private static List<ByteBuffer> splitLines(byte[] content) {
+        List<ByteBuffer> lines = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n') {
+                lines.add(ByteBuffer.wrap(content, lineStart, i + 1 - lineStart).slice());
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < content.length) {
+            lines.add(ByteBuffer.wrap(content, lineStart, content.length - lineStart).slice());
+        }
+        return lines;
+    }
+}
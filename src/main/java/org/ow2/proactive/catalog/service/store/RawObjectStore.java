@@ -0,0 +1,69 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.store;
+
+import java.util.Collection;
+
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.springframework.core.io.Resource;
+
+
+/**
+ * Keeps the content of the raw objects referenced by catalog object revisions. The RAW_OBJECT row
+ * of a raw object always holds its digest and size, a store decides whether the bytes live in the
+ * row itself or elsewhere.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public interface RawObjectStore {
+
+    /**
+     * Stores the content of a raw object whose row is about to be inserted. Content kept outside of
+     * the database must not replace the content of an existing raw object before the current
+     * transaction commits, since its row may turn out to be inserted by another one.
+     */
+    void write(RawObjectEntity rawObject, byte[] content);
+
+    byte[] read(RawObjectEntity rawObject);
+
+    /**
+     * @return the content as a resource that can be streamed without being copied in memory first
+     */
+    Resource open(RawObjectEntity rawObject);
+
+    /**
+     * Removes the content kept outside of the database for raw objects whose rows are deleted by
+     * the current transaction.
+     */
+    void delete(Collection<String> hashes);
+
+    /**
+     * Removes all the content kept outside of the database, once every row is deleted by the
+     * current transaction.
+     */
+    void deleteAll();
+}
@@ -29,18 +29,26 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FilenameUtils;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.service.RawObjectService;
+import org.ow2.proactive.catalog.service.exception.ArchiveTooLargeException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
-import org.zeroturnaround.zip.ByteSource;
-import org.zeroturnaround.zip.ZipEntrySource;
+import org.springframework.util.StreamUtils;
 import org.zeroturnaround.zip.ZipUtil;
 
 
@@ -50,34 +58,20 @@ public class ArchiveManagerHelper {
     @Autowired
     private RawObjectResponseCreator rawObjectResponseCreator;
 
-    public static class ZipArchiveContent {
+    @Autowired
+    private RawObjectService rawObjectService;
 
-        private byte[] content;
+    @Value("${pa.catalog.import.zip.entry.max.size:104857600}")
+    long entryMaxSize;
 
-        private boolean partial;
+    @Value("${pa.catalog.import.zip.total.max.size:1073741824}")
+    long totalMaxSize;
 
-        public ZipArchiveContent() {
-            content = null;
-            partial = false;
-        }
-
-        public byte[] getContent() {
-            return content;
-        }
+    @Value("${pa.catalog.export.zip.compression.level:6}")
+    int compressionLevel;
 
-        public void setContent(byte[] content) {
-            this.content = content;
-        }
-
-        public boolean isPartial() {
-            return partial;
-        }
-
-        public void setPartial(boolean partial) {
-            this.partial = partial;
-        }
-
-    }
+    @Value("${pa.catalog.export.zip.stored.content.types:application/zip,application/gzip,application/x-gzip,application/x-7z-compressed,application/x-bzip2,application/x-xz,application/java-archive,image/png,image/jpeg,image/gif,audio/*,video/*}")
+    String[] storedContentTypes;
 
     public static class FileNameAndContent {
 
@@ -113,42 +107,73 @@ public class ArchiveManagerHelper {
     }
 
     /**
-     * Compress a list of CatalogObjectRevision files into a ZIP archive
-     * @param catalogObjectList the list of catalogObjects to compress
-     * @return a byte array corresponding to the archive containing the files
+     * Open a ZIP archive written to the given stream as its entries are added
+     * @param outputStream the stream receiving the archive
+     * @return the archive to add the catalog objects to, to finish once they are all added
      */
-    public ZipArchiveContent compressZIP(List<CatalogObjectRevisionEntity> catalogObjectList) {
+    public ZipOutputStream openZIP(OutputStream outputStream) {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+        zipOutputStream.setLevel(compressionLevel);
+        return zipOutputStream;
+    }
 
-        if (catalogObjectList == null) {
-            return null;
+    /**
+     * Add a CatalogObjectRevision file to a ZIP archive, its content being streamed into the archive.
+     * Already compressed content types are stored as they are rather than deflated again.
+     * @param zipOutputStream the archive opened with {@link #openZIP(OutputStream)}
+     * @param catalogObjectRevision the catalogObject to add
+     */
+    public void addToZIP(ZipOutputStream zipOutputStream, CatalogObjectRevisionEntity catalogObjectRevision)
+            throws IOException {
+        CatalogObjectEntity catalogObjectEntity = catalogObjectRevision.getCatalogObject();
+        String fileNameWithExtension = rawObjectResponseCreator.getNameWithFileExtension(catalogObjectEntity.getId()
+                                                                                                            .getName(),
+                                                                                         catalogObjectEntity.getExtension(),
+                                                                                         catalogObjectEntity.getKind());
+        Resource content = rawObjectService.getContentResource(catalogObjectRevision);
+
+        ZipEntry zipEntry = new ZipEntry(fileNameWithExtension);
+        if (isAlreadyCompressed(catalogObjectEntity.getContentType())) {
+            // a stored entry header holds the size and the CRC of the content, so it is read twice
+            CRC32 crc = new CRC32();
+            long size = 0;
+            try (InputStream in = content.getInputStream()) {
+                byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                    size += read;
+                }
+            }
+            zipEntry.setMethod(ZipEntry.STORED);
+            zipEntry.setSize(size);
+            zipEntry.setCompressedSize(size);
+            zipEntry.setCrc(crc.getValue());
         }
 
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-
-            ZipArchiveContent zipContent = new ZipArchiveContent();
+        zipOutputStream.putNextEntry(zipEntry);
+        try (InputStream in = content.getInputStream()) {
+            StreamUtils.copy(in, zipOutputStream);
+        }
+        zipOutputStream.closeEntry();
+    }
 
-            Stream<ZipEntrySource> streamSources = catalogObjectList.stream().filter(catalogObjectRevision -> {
-                if (catalogObjectRevision == null) {
-                    zipContent.setPartial(true);
+    private boolean isAlreadyCompressed(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String mediaType = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        for (String storedContentType : storedContentTypes) {
+            String storedMediaType = storedContentType.trim().toLowerCase(Locale.ROOT);
+            if (storedMediaType.endsWith("/*")) {
+                if (mediaType.startsWith(storedMediaType.substring(0, storedMediaType.length() - 1))) {
+                    return true;
                 }
-                return catalogObjectRevision != null;
-            }).map(catalogObjectRevision -> {
-                CatalogObjectEntity catalogObjectEntity = catalogObjectRevision.getCatalogObject();
-                String fileNameWithExtension = rawObjectResponseCreator.getNameWithFileExtension(catalogObjectEntity.getId()
-                                                                                                                    .getName(),
-                                                                                                 catalogObjectEntity.getExtension(),
-                                                                                                 catalogObjectEntity.getKind());
-                return new ByteSource(fileNameWithExtension, catalogObjectRevision.getRawObject());
-            });
-            ZipEntrySource[] sources = streamSources.toArray(size -> new ZipEntrySource[size]);
-            ZipUtil.pack(sources, byteArrayOutputStream);
-
-            zipContent.setContent(byteArrayOutputStream.toByteArray());
-            return zipContent;
-        } catch (IOException ioe) {
-            throw new RuntimeException(ioe);
+            } else if (mediaType.equals(storedMediaType)) {
+                return true;
+            }
         }
-
+        return false;
     }
 
     /**
@@ -163,48 +188,75 @@ public class ArchiveManagerHelper {
             return filesList;
         }
 
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(byteArrayArchive)) {
-            ZipUtil.iterate(byteArrayInputStream, (in, zipEntry) -> checkAndAddFileFromZip(filesList, in, zipEntry));
-        } catch (IOException ioe) {
-            throw new RuntimeException(ioe);
-        }
-
+        extractZIP(new ByteArrayInputStream(byteArrayArchive), filesList::add);
         return filesList;
     }
 
+    /**
+     * Extract files from an archive read as a stream, one at a time: each file is handed to the consumer
+     * before the next entry is read, so that only one of them is held in memory.
+     * @param archive the archive stream
+     * @param fileConsumer the consumer of the extracted files
+     * @throws ArchiveTooLargeException if an entry or the whole extracted content exceeds its size limit
+     */
+    public void extractZIP(InputStream archive, Consumer<FileNameAndContent> fileConsumer) {
+        AtomicLong extractedSize = new AtomicLong();
+        ZipUtil.iterate(archive, (in, zipEntry) -> {
+            FileNameAndContent file = checkAndExtractFileFromZip(in, zipEntry, extractedSize.get());
+            if (file != null) {
+                extractedSize.addAndGet(file.getContent().length);
+                fileConsumer.accept(file);
+            }
+        });
+    }
+
     /**
      * check the name of zip entry, exclude containing folder as extracting file
-     * @param filesList
      * @param in
      * @param entry
+     * @param extractedSize the size of the files already extracted from the archive
+     * @return the extracted file, null for a folder
      */
-    private void checkAndAddFileFromZip(List<FileNameAndContent> filesList, InputStream in, ZipEntry entry) {
+    private FileNameAndContent checkAndExtractFileFromZip(InputStream in, ZipEntry entry, long extractedSize)
+            throws IOException {
         String nameZipEntry = FilenameUtils.getName(entry.getName());
-        if (!nameZipEntry.isEmpty()) {
-            filesList.add(process(in, entry));
+        if (nameZipEntry.isEmpty()) {
+            return null;
         }
+        return process(in, entry, extractedSize);
     }
 
     /**
      * Extract ZIP entry into a byte array
      * @param in entry content
      * @param entry ZipEntry
+     * @param extractedSize the size of the files already extracted from the archive
      * @return FileNameAndContent
      */
-    private FileNameAndContent process(InputStream in, ZipEntry entry) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            FileNameAndContent file = new FileNameAndContent();
-            file.setName(FilenameUtils.getBaseName(entry.getName()));
-            file.setFileNameWithExtension(FilenameUtils.getName(entry.getName()));
-
-            int data = 0;
-            while ((data = in.read()) != -1) {
-                outputStream.write(data);
+    private FileNameAndContent process(InputStream in, ZipEntry entry, long extractedSize) throws IOException {
+        FileNameAndContent file = new FileNameAndContent();
+        file.setName(FilenameUtils.getBaseName(entry.getName()));
+        file.setFileNameWithExtension(FilenameUtils.getName(entry.getName()));
+
+        // the sizes declared by the entry are not trusted, the limits are checked against the bytes read
+        long maxSize = Math.min(entryMaxSize, totalMaxSize - extractedSize);
+        int initialCapacity = entry.getSize() > 0 && entry.getSize() <= maxSize ? (int) entry.getSize()
+                                                                                : StreamUtils.BUFFER_SIZE;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(initialCapacity);
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            long entrySize = outputStream.size() + read;
+            if (entrySize > entryMaxSize) {
+                throw new ArchiveTooLargeException("entry " + entry.getName() + " is larger than " + entryMaxSize +
+                                                   " bytes");
+            }
+            if (extractedSize + entrySize > totalMaxSize) {
+                throw new ArchiveTooLargeException("extracted content is larger than " + totalMaxSize + " bytes");
             }
-            file.setContent(outputStream.toByteArray());
-            return file;
-        } catch (IOException ioe) {
-            throw new RuntimeException(ioe);
+            outputStream.write(buffer, 0, read);
         }
+        file.setContent(outputStream.toByteArray());
+        return file;
     }
 }
@@ -0,0 +1,206 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import com.google.common.io.ByteStreams;
+
+import lombok.Value;
+
+
+/**
+ * Byte ranges of a content, streamed from the content when they are read: the bytes of the range for a single
+ * range, a multipart/byteranges body holding one part per range for several ranges. The ranges are read in a single
+ * pass over one stream of the content, skipping the bytes between them, so that the content is never held in memory.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+class ByteRangesResource extends AbstractResource {
+
+    private static final String CRLF = "\r\n";
+
+    private final Resource content;
+
+    private final long contentLength;
+
+    private final List<ByteRange> ranges;
+
+    // null for a single range
+    private final String boundary;
+
+    // null to send the parts without content type
+    private final String contentType;
+
+    /**
+     * @param ranges the satisfiable ranges of the content, sorted and disjoint
+     * @param boundary the boundary of the multipart body, only used for several ranges
+     */
+    ByteRangesResource(Resource content, long contentLength, List<ByteRange> ranges, String boundary,
+            String contentType) {
+        this.content = content;
+        this.contentLength = contentLength;
+        this.ranges = ranges;
+        this.boundary = ranges.size() > 1 ? boundary : null;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        InputStream contentStream = content.getInputStream();
+        if (boundary == null) {
+            return readRange(contentStream, 0, ranges.get(0));
+        }
+        List<Object> parts = new ArrayList<>(2 * ranges.size() + 1);
+        for (ByteRange range : ranges) {
+            parts.add(partHeaders(range));
+            parts.add(range);
+        }
+        parts.add(closeDelimiter());
+        Iterator<Object> partIterator = parts.iterator();
+        // the parts share the content stream, which each range leaves at its end
+        InputStream sharedContentStream = new FilterInputStream(contentStream) {
+            @Override
+            public void close() {
+                // closed with the whole body
+            }
+        };
+        long[] position = { 0 };
+        // a range is only reached once the previous parts are read
+        InputStream body = new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return partIterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                Object part = partIterator.next();
+                if (part instanceof String) {
+                    return new ByteArrayInputStream(((String) part).getBytes(StandardCharsets.ISO_8859_1));
+                }
+                ByteRange range = (ByteRange) part;
+                try {
+                    InputStream rangeStream = readRange(sharedContentStream, position[0], range);
+                    position[0] = range.getEnd() + 1;
+                    return rangeStream;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+        return new FilterInputStream(body) {
+            @Override
+            public void close() throws IOException {
+                contentStream.close();
+            }
+        };
+    }
+
+    @Override
+    public long contentLength() {
+        if (boundary == null) {
+            return ranges.get(0).getLength();
+        }
+        long length = closeDelimiter().length();
+        for (ByteRange range : ranges) {
+            length += partHeaders(range).length() + range.getLength();
+        }
+        return length;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "byte ranges " + ranges + " of " + content.getDescription();
+    }
+
+    /**
+     * @param position the current position of the content stream, not after the start of the range
+     */
+    private static InputStream readRange(InputStream contentStream, long position, ByteRange range)
+            throws IOException {
+        try {
+            ByteStreams.skipFully(contentStream, range.getStart() - position);
+        } catch (IOException e) {
+            contentStream.close();
+            throw e;
+        }
+        return ByteStreams.limit(contentStream, range.getLength());
+    }
+
+    private String partHeaders(ByteRange range) {
+        // the delimiter of each part starts with a line break, which ends the data of the previous part
+        StringBuilder headers = new StringBuilder().append(CRLF).append("--").append(boundary).append(CRLF);
+        if (contentType != null) {
+            headers.append("Content-Type: ").append(contentType).append(CRLF);
+        }
+        return headers.append("Content-Range: ")
+                      .append(range.toContentRange(contentLength))
+                      .append(CRLF)
+                      .append(CRLF)
+                      .toString();
+    }
+
+    private String closeDelimiter() {
+        return CRLF + "--" + boundary + "--" + CRLF;
+    }
+
+    @Value
+    static class ByteRange {
+
+        // first and last positions, inclusive
+        long start;
+
+        long end;
+
+        long getLength() {
+            return end - start + 1;
+        }
+
+        String toContentRange(long contentLength) {
+            return "bytes " + start + "-" + end + "/" + contentLength;
+        }
+    }
+}
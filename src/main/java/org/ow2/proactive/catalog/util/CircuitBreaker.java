@@ -0,0 +1,92 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Thread-safe circuit breaker protecting calls to a remote service.
+ *
+ * The circuit opens after a given number of consecutive failures. While it is open, requests are refused until the
+ * open delay elapses; then a single probe request is let through: its success closes the circuit, its failure opens
+ * it again for a new delay.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class CircuitBreaker {
+
+    private static final long CLOSED = -1;
+
+    private final int failureThreshold;
+
+    private final long openDelayMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicLong openedAt = new AtomicLong(CLOSED);
+
+    private final AtomicBoolean probeInProgress = new AtomicBoolean(false);
+
+    public CircuitBreaker(int failureThreshold, long openDelayMillis) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("The failure threshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDelayMillis = openDelayMillis;
+    }
+
+    public boolean allowRequest() {
+        long openedTime = openedAt.get();
+        if (openedTime == CLOSED) {
+            return true;
+        }
+        if (System.currentTimeMillis() - openedTime < openDelayMillis) {
+            return false;
+        }
+        return probeInProgress.compareAndSet(false, true);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(CLOSED);
+        probeInProgress.set(false);
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.currentTimeMillis());
+        }
+        probeInProgress.set(false);
+    }
+
+    public boolean isOpen() {
+        return openedAt.get() != CLOSED;
+    }
+}
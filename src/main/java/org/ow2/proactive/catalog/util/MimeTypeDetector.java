@@ -0,0 +1,178 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.tika.config.TikaConfig;
+import org.apache.tika.detect.Detector;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaMetadataKeys;
+import org.apache.tika.mime.MediaType;
+import org.apache.tika.mime.MimeTypes;
+import org.springframework.stereotype.Component;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Detects the content type of the files imported in the catalog. It is thread-safe and shared by the threads
+ * importing archives.
+ *
+ * The detection is done in three tiers, from the cheapest to the most expensive:
+ * <ol>
+ * <li>the files having the extension of a catalog object (workflows, scripts, node sources, calendars) get the type
+ * Tika would give them from a table, once a look at their first bytes confirms they are what their extension
+ * says</li>
+ * <li>the magic bytes and the file name are matched by the Tika type registry on the first bytes only</li>
+ * <li>the whole content goes through the Tika detector chain, when the type is still unknown</li>
+ * </ol>
+ * The Tika type registry and detector chain are only loaded when they are first needed.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Log4j2
+@Component
+public class MimeTypeDetector {
+
+    // length of the content matched against the magic bytes of the Tika type registry
+    @VisibleForTesting
+    static final int SNIFFED_LENGTH = 8 * 1024;
+
+    // length of the content checked before trusting the extension of a catalog object
+    private static final int CHECKED_LENGTH = 1024;
+
+    private static final String WORKFLOW_NAMESPACE = "urn:proactive:jobdescriptor";
+
+    private static final String XML_EXTENSION = "xml";
+
+    private static final String XML_TYPE = "application/xml";
+
+    private static final Map<String, String> TEXT_TYPES = ImmutableMap.<String, String> builder()
+                                                                      .put("groovy", "text/x-groovy")
+                                                                      .put("py", "text/x-python")
+                                                                      .put("js", "application/javascript")
+                                                                      .put("json", "application/json")
+                                                                      .put("ics", "text/calendar")
+                                                                      .build();
+
+    private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    public String detect(String fileNameWithExtension, byte[] content) {
+        String knownType = detectFromExtension(fileNameWithExtension, content);
+        if (knownType != null) {
+            return knownType;
+        }
+        MediaType mediaType = detect(TikaRegistryHolder.MIME_TYPES,
+                                     fileNameWithExtension,
+                                     content,
+                                     Math.min(content.length, SNIFFED_LENGTH));
+        if (MediaType.OCTET_STREAM.equals(mediaType)) {
+            mediaType = detect(TikaDetectorHolder.DETECTOR, fileNameWithExtension, content, content.length);
+        }
+        return mediaType.toString();
+    }
+
+    private String detectFromExtension(String fileNameWithExtension, byte[] content) {
+        String extension = FilenameUtils.getExtension(fileNameWithExtension).toLowerCase(Locale.ROOT);
+        String knownType = XML_EXTENSION.equals(extension) ? XML_TYPE : TEXT_TYPES.get(extension);
+        if (knownType == null) {
+            return null;
+        }
+        int start = startOfText(content);
+        int end = Math.min(content.length, CHECKED_LENGTH);
+        if (start < 0) {
+            return null;
+        }
+        if (start == end) {
+            return knownType;
+        }
+        if (XML_EXTENSION.equals(extension)) {
+            // other XML documents may have a more specific type, which only the Tika registry knows
+            boolean workflow = content[start] == '<' &&
+                               new String(content, start, end - start, StandardCharsets.ISO_8859_1).contains(WORKFLOW_NAMESPACE);
+            return workflow ? knownType : null;
+        }
+        // markup and scripts starting with a shebang may be recognized by their magic bytes as something else
+        boolean plainText = content[start] != '<' &&
+                            !(content[start] == '#' && start + 1 < end && content[start + 1] == '!');
+        return plainText ? knownType : null;
+    }
+
+    /**
+     * @return the index of the first character of the content after the byte order mark and the white spaces, or
+     *         -1 when the beginning of the content is not text
+     */
+    private static int startOfText(byte[] content) {
+        int end = Math.min(content.length, CHECKED_LENGTH);
+        for (int i = 0; i < end; i++) {
+            if (content[i] == 0) {
+                return -1;
+            }
+        }
+        int start = hasUtf8Bom(content) ? UTF8_BOM.length : 0;
+        while (start < end && Character.isWhitespace(content[start])) {
+            start++;
+        }
+        return start;
+    }
+
+    private static boolean hasUtf8Bom(byte[] content) {
+        return content.length >= UTF8_BOM.length && content[0] == UTF8_BOM[0] && content[1] == UTF8_BOM[1] &&
+               content[2] == UTF8_BOM[2];
+    }
+
+    private MediaType detect(Detector detector, String fileNameWithExtension, byte[] content, int length) {
+        Metadata metadata = new Metadata();
+        metadata.set(TikaMetadataKeys.RESOURCE_NAME_KEY, fileNameWithExtension);
+        try {
+            return detector.detect(new ByteArrayInputStream(content, 0, length), metadata);
+        } catch (IOException e) {
+            log.warn("there is a problem of identifying mime type for the file from archive : " +
+                     fileNameWithExtension, e);
+            return MediaType.OCTET_STREAM;
+        }
+    }
+
+    private static class TikaRegistryHolder {
+
+        private static final MimeTypes MIME_TYPES = MimeTypes.getDefaultMimeTypes();
+    }
+
+    private static class TikaDetectorHolder {
+
+        private static final Detector DETECTOR = TikaConfig.getDefaultConfig().getDetector();
+    }
+}
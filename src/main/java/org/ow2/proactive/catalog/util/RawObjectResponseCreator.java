@@ -25,12 +25,22 @@
  */
 package org.ow2.proactive.catalog.util;
 
-import java.io.ByteArrayInputStream;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
 
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.util.ByteRangesResource.ByteRange;
 import org.ow2.proactive.catalog.util.parser.SupportedParserKinds;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -48,11 +58,103 @@ public class RawObjectResponseCreator {
 
     public final static String WORKFLOW_EXTENSION = ".xml";
 
+    // the latest revision of an object may change, the cached copies must be revalidated
+    public final static String LATEST_REVISION_CACHE_CONTROL = "private, no-cache";
+
+    // the content of a given revision is rewritten when the metadata of its object are updated,
+    // the cached copies must be revalidated as well
+    public final static String REVISION_CACHE_CONTROL = "private, no-cache";
+
+    // beyond this number of ranges in a Range header, the content is sent whole
+    static final int MAX_RANGES = 100;
+
     public ResponseEntity createRawObjectResponse(CatalogRawObject rawObject) {
+        return createRawObjectResponse(rawObject, null);
+    }
+
+    /**
+     * @param acceptEncoding the Accept-Encoding header of the request, the stored bytes of the raw
+     *                       object being sent as they are when their content coding is accepted
+     */
+    public ResponseEntity createRawObjectResponse(CatalogRawObject rawObject, String acceptEncoding) {
+        return createRawObjectResponse(rawObject, acceptEncoding, null, null, null, null, null);
+    }
+
+    /**
+     * @param acceptEncoding the Accept-Encoding header of the request, the stored bytes of the raw
+     *                       object being sent as they are when their content coding is accepted
+     * @param ifNoneMatch the If-None-Match header of the request
+     * @param ifModifiedSince the If-Modified-Since header of the request, only used without If-None-Match and
+     *                        compared to the last modification of the raw object
+     * @param range the Range header of the request, the requested ranges of the decoded raw object
+     *              being sent in a 206 response
+     * @param ifRange the If-Range header of the request, the whole raw object being sent when it
+     *                does not match
+     * @param cacheControl the Cache-Control header of the response, or null to send none
+     * @return the raw object, or a 304 response without body when the validators of the request
+     *         match the raw object, which is then not read
+     */
+    public ResponseEntity createRawObjectResponse(CatalogRawObject rawObject, String acceptEncoding,
+            String ifNoneMatch, String ifModifiedSince, String range, String ifRange, String cacheControl) {
+        return createResponse(rawObject,
+                              acceptEncoding,
+                              ifNoneMatch,
+                              ifModifiedSince,
+                              range,
+                              ifRange,
+                              cacheControl,
+                              true);
+    }
+
+    /**
+     * @return the response to a HEAD request for the raw object, having the headers of the response to
+     *         a GET request (size, content digest in the ETag, ...) without reading the raw object
+     */
+    public ResponseEntity createRawObjectHeadResponse(CatalogRawObject rawObject, String acceptEncoding,
+            String ifNoneMatch, String ifModifiedSince, String range, String ifRange, String cacheControl) {
+        return createResponse(rawObject,
+                              acceptEncoding,
+                              ifNoneMatch,
+                              ifModifiedSince,
+                              range,
+                              ifRange,
+                              cacheControl,
+                              false);
+    }
+
+    private ResponseEntity createResponse(CatalogRawObject rawObject, String acceptEncoding, String ifNoneMatch,
+            String ifModifiedSince, String range, String ifRange, String cacheControl, boolean withBody) {
         String name = rawObject.getName();
-        byte[] bytes = rawObject.getRawObject();
+        long lastModified = rawObject.getLastModifiedTime();
+        // the ranges are ranges of the decoded raw object, null when it is sent whole
+        List<ByteRange> ranges = null;
+        if (isRangeApplicable(ifRange, getETag(rawObject, false), lastModified)) {
+            ranges = getRequestedRanges(range, rawObject.getRawObjectLength());
+        }
+        boolean sendEncoded = ranges == null && rawObject.getContentEncoding() != null &&
+                              isContentCodingAccepted(acceptEncoding, rawObject.getContentEncoding());
+        String eTag = getETag(rawObject, sendEncoded);
 
-        ResponseEntity.BodyBuilder responseBodyBuilder = ResponseEntity.ok().contentLength(bytes.length);
+        if (isNotModified(eTag, lastModified, ifNoneMatch, ifModifiedSince)) {
+            ResponseEntity.BodyBuilder notModifiedBuilder = ResponseEntity.status(HttpStatus.NOT_MODIFIED);
+            addCachingHeaders(notModifiedBuilder, rawObject, eTag, lastModified, cacheControl);
+            return notModifiedBuilder.build();
+        }
+
+        if (ranges != null && ranges.isEmpty()) {
+            ResponseEntity.BodyBuilder notSatisfiableBuilder = ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            notSatisfiableBuilder.header(HttpHeaders.CONTENT_RANGE, "bytes */" + rawObject.getRawObjectLength());
+            addCachingHeaders(notSatisfiableBuilder, rawObject, eTag, lastModified, cacheControl);
+            return notSatisfiableBuilder.build();
+        }
+
+        ResponseEntity.BodyBuilder responseBodyBuilder = ResponseEntity.status(ranges == null ? HttpStatus.OK
+                                                                                              : HttpStatus.PARTIAL_CONTENT)
+                                                                       .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        addCachingHeaders(responseBodyBuilder, rawObject, eTag, lastModified, cacheControl);
+        if (sendEncoded) {
+            responseBodyBuilder.header(HttpHeaders.CONTENT_ENCODING, rawObject.getContentEncoding());
+        }
 
         try {
             String contentDispositionFileName = getNameWithFileExtension(rawObject.getName(),
@@ -65,15 +167,218 @@ public class RawObjectResponseCreator {
             log.warn("The exception during creation of raw object response", e);
         }
 
+        MediaType mediaType = null;
         try {
-            MediaType mediaType = MediaType.valueOf(rawObject.getContentType());
-            responseBodyBuilder = responseBodyBuilder.contentType(mediaType);
+            mediaType = MediaType.valueOf(rawObject.getContentType());
         } catch (org.springframework.http.InvalidMediaTypeException mimeEx) {
             log.warn("The wrong Content-Type for object: " + name + ", commitTime:" + rawObject.getCommitDateTime() +
                      ", the contentType: " + rawObject.getContentType(), mimeEx);
         }
 
-        return responseBodyBuilder.body(new InputStreamResource(new ByteArrayInputStream(bytes)));
+        Resource body;
+        if (ranges == null) {
+            body = sendEncoded ? rawObject.getEncodedRawObjectResource() : rawObject.getRawObjectResource();
+            responseBodyBuilder.contentLength(sendEncoded ? rawObject.getEncodedRawObjectLength()
+                                                          : rawObject.getRawObjectLength());
+            if (mediaType != null) {
+                responseBodyBuilder.contentType(mediaType);
+            }
+        } else {
+            String boundary = UUID.randomUUID().toString().replace("-", "");
+            body = new ByteRangesResource(rawObject.getRawObjectResource(),
+                                          rawObject.getRawObjectLength(),
+                                          ranges,
+                                          boundary,
+                                          mediaType != null ? mediaType.toString() : null);
+            responseBodyBuilder.contentLength(body.contentLength());
+            if (ranges.size() == 1) {
+                responseBodyBuilder.header(HttpHeaders.CONTENT_RANGE,
+                                           ranges.get(0).toContentRange(rawObject.getRawObjectLength()));
+                if (mediaType != null) {
+                    responseBodyBuilder.contentType(mediaType);
+                }
+            } else {
+                responseBodyBuilder.contentType(new MediaType("multipart",
+                                                              "byteranges",
+                                                              Collections.singletonMap("boundary", boundary)));
+            }
+        }
+
+        if (!withBody) {
+            return responseBodyBuilder.build();
+        }
+        return responseBodyBuilder.body(body);
+    }
+
+    private void addCachingHeaders(ResponseEntity.BodyBuilder responseBodyBuilder, CatalogRawObject rawObject,
+            String eTag, long lastModified, String cacheControl) {
+        if (eTag != null) {
+            responseBodyBuilder.eTag(eTag);
+        }
+        if (lastModified >= 0) {
+            responseBodyBuilder.lastModified(lastModified);
+        }
+        if (cacheControl != null) {
+            responseBodyBuilder.header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        if (rawObject.getContentEncoding() != null) {
+            responseBodyBuilder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    /**
+     * @return a strong entity tag made of the content digest, the encoded and decoded
+     *         representations of a raw object having different tags, or null if the digest is unknown
+     */
+    static String getETag(CatalogRawObject rawObject, boolean encoded) {
+        if (rawObject.getHash() == null) {
+            return null;
+        }
+        return "\"" + rawObject.getHash() + (encoded ? "-" + rawObject.getContentEncoding() : "") + "\"";
+    }
+
+    static boolean isNotModified(String eTag, long lastModified, String ifNoneMatch, String ifModifiedSince) {
+        if (ifNoneMatch != null) {
+            return eTag != null && matchesAnyETag(ifNoneMatch, eTag);
+        }
+        if (ifModifiedSince != null && lastModified >= 0) {
+            long modifiedSince = parseHttpDate(ifModifiedSince);
+            // HTTP dates have a precision of one second
+            return modifiedSince >= 0 && lastModified / 1000 <= modifiedSince / 1000;
+        }
+        return false;
+    }
+
+    private static boolean matchesAnyETag(String ifNoneMatch, String eTag) {
+        for (String requestedETag : ifNoneMatch.split(",")) {
+            String trimmedETag = requestedETag.trim();
+            // If-None-Match uses the weak comparison
+            if (trimmedETag.startsWith("W/")) {
+                trimmedETag = trimmedETag.substring(2);
+            }
+            if (trimmedETag.equals("*") || trimmedETag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseHttpDate(String httpDate) {
+        try {
+            return ZonedDateTime.parse(httpDate.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // an invalid date is ignored
+            return -1;
+        }
+    }
+
+    /**
+     * @return the satisfiable ranges requested by the Range header, sorted with the overlapping and
+     *         adjacent ones coalesced, an empty list when none of them is satisfiable, or null when
+     *         the whole content is to be sent
+     */
+    static List<ByteRange> getRequestedRanges(String range, long contentLength) {
+        if (range == null) {
+            return null;
+        }
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            // an invalid Range header is ignored
+            return null;
+        }
+        // too many ranges are not worth their parts, the content is sent whole
+        if (httpRanges.isEmpty() || httpRanges.size() > MAX_RANGES) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>(httpRanges.size());
+        long rangesLength = 0;
+        for (HttpRange httpRange : httpRanges) {
+            try {
+                long start = httpRange.getRangeStart(contentLength);
+                long end = httpRange.getRangeEnd(contentLength);
+                if (start < contentLength && start <= end) {
+                    ranges.add(new ByteRange(start, end));
+                    rangesLength += end - start + 1;
+                }
+            } catch (IllegalArgumentException e) {
+                // an unsatisfiable range is skipped
+            }
+        }
+        // the content is sent whole rather than in overlapping parts longer than itself
+        if (ranges.size() > 1 && rangesLength >= contentLength) {
+            return null;
+        }
+        return coalesce(ranges);
+    }
+
+    /**
+     * @return the ranges sorted by position, each overlapping or adjacent ones merged, so that they
+     *         can be read in a single pass over the content
+     */
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        if (ranges.size() <= 1) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparingLong(ByteRange::getStart));
+        List<ByteRange> coalescedRanges = new ArrayList<>(ranges.size());
+        ByteRange current = ranges.get(0);
+        for (ByteRange range : ranges.subList(1, ranges.size())) {
+            if (range.getStart() <= current.getEnd() + 1) {
+                current = new ByteRange(current.getStart(), Math.max(current.getEnd(), range.getEnd()));
+            } else {
+                coalescedRanges.add(current);
+                current = range;
+            }
+        }
+        coalescedRanges.add(current);
+        return coalescedRanges;
+    }
+
+    /**
+     * @return whether the ranges of the raw object having the given validators can be sent: the
+     *         If-Range header is absent, or matches its entity tag or last modification date exactly
+     */
+    static boolean isRangeApplicable(String ifRange, String eTag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        String validator = ifRange.trim();
+        if (validator.startsWith("\"") || validator.startsWith("W/")) {
+            // If-Range uses the strong comparison
+            return validator.equals(eTag);
+        }
+        long date = parseHttpDate(validator);
+        return date >= 0 && lastModified >= 0 && date / 1000 == lastModified / 1000;
+    }
+
+    static boolean isContentCodingAccepted(String acceptEncoding, String contentCoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String acceptedCoding : acceptEncoding.split(",")) {
+            String[] codingAndParameters = acceptedCoding.split(";");
+            String coding = codingAndParameters[0].trim();
+            if (coding.equalsIgnoreCase(contentCoding) || coding.equals("*")) {
+                return !hasZeroQuality(codingAndParameters);
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasZeroQuality(String[] codingAndParameters) {
+        for (int i = 1; i < codingAndParameters.length; i++) {
+            String parameter = codingAndParameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim()) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,264 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util.parser;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
+import org.ow2.proactive.scheduler.common.job.JobVariable;
+
+
+/**
+ * Reads the metadata of a workflow in a single StAX pass, without validating it against the job
+ * descriptor schema nor building the job model: only the job attributes, variables, generic
+ * information, description and visualization, the task variables and the script file urls are
+ * looked at, every other element is skipped.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+class StreamingWorkflowMetadataExtractor {
+
+    private static final String JOB = "job";
+
+    private static final String NAME = "name";
+
+    private static final String PROJECT_NAME = "projectName";
+
+    private static final String VALUE = "value";
+
+    private static final String MODEL = "model";
+
+    private static final String VARIABLES = "variables";
+
+    private static final String VARIABLE = "variable";
+
+    private static final String GENERIC_INFORMATION = "genericInformation";
+
+    private static final String INFO = "info";
+
+    private static final String DESCRIPTION = "description";
+
+    private static final String TASK_FLOW = "taskFlow";
+
+    private static final String TASK = "task";
+
+    private static final String METADATA = "metadata";
+
+    private static final String VISUALIZATION = "visualization";
+
+    private static final String FILE = "file";
+
+    private static final String URL = "url";
+
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(StreamingWorkflowMetadataExtractor::newXmlInputFactory);
+
+    /**
+     * The task elements holding scripts, in the order their urls are reported.
+     */
+    private enum TaskScript {
+        PRE("pre"),
+        POST("post"),
+        FLOW("controlFlow"),
+        CLEANING("cleaning"),
+        ENVIRONMENT("forkEnvironment"),
+        EXECUTABLE("scriptExecutable"),
+        SELECTION("selection");
+
+        private final String element;
+
+        TaskScript(String element) {
+            this.element = element;
+        }
+
+        private static TaskScript of(String element) {
+            for (TaskScript taskScript : values()) {
+                if (taskScript.element.equals(element)) {
+                    return taskScript;
+                }
+            }
+            return null;
+        }
+    }
+
+    WorkflowMetadata extract(InputStream inputStream) {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(inputStream);
+            try {
+                return readJob(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new ParsingObjectException(e.getMessage(), e);
+        }
+    }
+
+    private WorkflowMetadata readJob(XMLStreamReader reader) throws XMLStreamException {
+        reader.nextTag();
+        if (!JOB.equals(reader.getLocalName())) {
+            throw new ParsingObjectException("The root element of a workflow must be job, not " +
+                                             reader.getLocalName());
+        }
+        WorkflowMetadata workflow = new WorkflowMetadata();
+        workflow.setName(reader.getAttributeValue(null, NAME));
+        workflow.setProjectName(reader.getAttributeValue(null, PROJECT_NAME));
+        if (workflow.getName() == null) {
+            throw new ParsingObjectException("The workflow has no name attribute");
+        }
+
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case VARIABLES:
+                    readVariables(reader, variable -> workflow.getVariables().put(variable.getName(), variable));
+                    break;
+                case GENERIC_INFORMATION:
+                    readGenericInformation(reader, workflow.getGenericInformation());
+                    break;
+                case DESCRIPTION:
+                    workflow.setDescription(reader.getElementText());
+                    break;
+                case TASK_FLOW:
+                    readTaskFlow(reader, workflow);
+                    break;
+                case METADATA:
+                    readMetadata(reader, workflow);
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+        return workflow;
+    }
+
+    private void readVariables(XMLStreamReader reader, Consumer<JobVariable> variables) throws XMLStreamException {
+        while (reader.nextTag() == START_ELEMENT) {
+            if (VARIABLE.equals(reader.getLocalName())) {
+                variables.accept(new JobVariable(reader.getAttributeValue(null, NAME),
+                                                 reader.getAttributeValue(null, VALUE),
+                                                 reader.getAttributeValue(null, MODEL)));
+            }
+            skipElement(reader);
+        }
+    }
+
+    private void readGenericInformation(XMLStreamReader reader, Map<String, String> genericInformation)
+            throws XMLStreamException {
+        while (reader.nextTag() == START_ELEMENT) {
+            if (INFO.equals(reader.getLocalName())) {
+                genericInformation.put(reader.getAttributeValue(null, NAME), reader.getAttributeValue(null, VALUE));
+            }
+            skipElement(reader);
+        }
+    }
+
+    private void readTaskFlow(XMLStreamReader reader, WorkflowMetadata workflow) throws XMLStreamException {
+        while (reader.nextTag() == START_ELEMENT) {
+            if (TASK.equals(reader.getLocalName())) {
+                readTask(reader, workflow);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    private void readTask(XMLStreamReader reader, WorkflowMetadata workflow) throws XMLStreamException {
+        Map<TaskScript, List<String>> scriptUrls = new EnumMap<>(TaskScript.class);
+        while (reader.nextTag() == START_ELEMENT) {
+            TaskScript taskScript = TaskScript.of(reader.getLocalName());
+            if (VARIABLES.equals(reader.getLocalName())) {
+                readVariables(reader, workflow.getTaskVariables()::add);
+            } else if (taskScript != null) {
+                readFileUrls(reader, scriptUrls.computeIfAbsent(taskScript, key -> new ArrayList<>()));
+            } else {
+                skipElement(reader);
+            }
+        }
+        // the enum map iterates in the declaration order of the task scripts
+        scriptUrls.values().forEach(workflow.getScriptUrls()::addAll);
+    }
+
+    private void readMetadata(XMLStreamReader reader, WorkflowMetadata workflow) throws XMLStreamException {
+        while (reader.nextTag() == START_ELEMENT) {
+            if (VISUALIZATION.equals(reader.getLocalName())) {
+                workflow.setVisualization(reader.getElementText());
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    /**
+     * Collects the url of every script file nested in the current element, and moves to its end.
+     */
+    private void readFileUrls(XMLStreamReader reader, List<String> urls) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == START_ELEMENT) {
+                depth++;
+                String url = reader.getAttributeValue(null, URL);
+                if (FILE.equals(reader.getLocalName()) && url != null) {
+                    urls.add(url);
+                }
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == START_ELEMENT) {
+                depth++;
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+}
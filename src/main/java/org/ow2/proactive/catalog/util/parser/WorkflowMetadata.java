@@ -0,0 +1,70 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util.parser;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ow2.proactive.scheduler.common.job.JobVariable;
+
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * The values of a workflow that {@link WorkflowParser} turns into metadata, as written in the
+ * workflow: variables and generic information are not resolved.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@Getter
+@Setter
+class WorkflowMetadata {
+
+    private String projectName;
+
+    private String name;
+
+    private final Map<String, String> genericInformation = new LinkedHashMap<>();
+
+    private final Map<String, JobVariable> variables = new LinkedHashMap<>();
+
+    private final List<JobVariable> taskVariables = new ArrayList<>();
+
+    /**
+     * Task by task, the urls of the pre, post, flow, cleaning, environment, executable and
+     * selection scripts.
+     */
+    private final List<String> scriptUrls = new ArrayList<>();
+
+    private String description;
+
+    private String visualization;
+
+}
@@ -40,14 +40,14 @@ import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
 import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
 import org.ow2.proactive.catalog.util.SeparatorUtility;
 import org.ow2.proactive.scheduler.common.exception.JobCreationException;
-import org.ow2.proactive.scheduler.common.job.Job;
 import org.ow2.proactive.scheduler.common.job.JobVariable;
 import org.ow2.proactive.scheduler.common.job.TaskFlowJob;
 import org.ow2.proactive.scheduler.common.job.factories.JobFactory;
 import org.ow2.proactive.scheduler.common.task.ScriptTask;
 import org.ow2.proactive.scheduler.common.task.Task;
-import org.ow2.proactive.scheduler.common.task.TaskVariable;
 import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+import org.ow2.proactive.scripting.Script;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import lombok.NoArgsConstructor;
@@ -93,6 +93,8 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
 
     private static final Pattern URL_PATTERN = Pattern.compile(SCRIPT_URL_REGEX);
 
+    private static final String CATALOG_REST_URL_VARIABLE = "${PA_CATALOG_REST_URL}";
+
     private static final Pattern PATTERN = Pattern.compile(CATALOG_OBJECT_MODEL_REGEXP);
 
     public static final String JOB_DESCRIPTION_KEY = "description";
@@ -101,37 +103,63 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
 
     SeparatorUtility separatorUtility = new SeparatorUtility();
 
+    /**
+     * When strict, workflows are parsed by the scheduler job factory, which validates them against
+     * the job descriptor schema and builds the whole job. Otherwise the metadata is read in a single
+     * streaming pass over the workflow.
+     */
+    @Value("${pa.catalog.workflow.parser.strict:false}")
+    private boolean strict;
+
+    private final StreamingWorkflowMetadataExtractor streamingExtractor = new StreamingWorkflowMetadataExtractor();
+
+    public WorkflowParser(boolean strict) {
+        this.strict = strict;
+    }
+
     @Override
     List<KeyValueLabelMetadataEntity> getMetadataKeyValues(InputStream inputStream) {
+        WorkflowMetadata workflow = strict ? readJob(inputStream) : streamingExtractor.extract(inputStream);
+        Set keyValueMapBuilder = new LinkedHashSet();
+
+        addProjectNameIfNotNullAndNotEmpty(keyValueMapBuilder, workflow.getProjectName());
+        addJobNameIfNotNull(keyValueMapBuilder, workflow.getName());
+        workflow.getGenericInformation()
+                .forEach((name, value) -> addGenericInformationIfNotNull(keyValueMapBuilder, name, value));
+        workflow.getVariables()
+                .values()
+                .forEach(jobVariable -> addVariableIfNotNullAndModelIfNotEmpty(keyValueMapBuilder, jobVariable));
+        workflow.getTaskVariables()
+                .forEach(taskVariable -> addDependsOnIfCatalogObjectModelExistOnTaskVariable(keyValueMapBuilder,
+                                                                                             taskVariable));
+        workflow.getScriptUrls().forEach(scriptUrl -> addDependsOnIfScriptUrlIsValid(keyValueMapBuilder, scriptUrl));
+        addJobDescriptionIfNotNullAndNotEmpty(keyValueMapBuilder, workflow.getDescription());
+        addJobVizualisationIfNotNullAndNotEmpty(keyValueMapBuilder, workflow.getVisualization());
+
+        return new ArrayList<>(keyValueMapBuilder);
+    }
+
+    private WorkflowMetadata readJob(InputStream inputStream) {
         TaskFlowJob job;
         try {
             job = (TaskFlowJob) JobFactory.getFactory().createJob(inputStream);
         } catch (JobCreationException e) {
             throw new ParsingObjectException(e.getMessage(), e);
         }
-        Set keyValueMapBuilder = new LinkedHashSet();
-
-        addProjectNameIfNotNullAndNotEmpty(keyValueMapBuilder, job);
-        addJobNameIfNotNull(keyValueMapBuilder, job);
-        job.getUnresolvedGenericInformation()
-           .forEach((name, value) -> addGenericInformationIfNotNull(keyValueMapBuilder, name, value));
-        job.getUnresolvedVariables()
-           .values()
-           .forEach(jobVariable -> addVariableIfNotNullAndModelIfNotEmpty(keyValueMapBuilder, jobVariable));
-        job.getTasks()
-           .forEach(task -> task.getVariables()
-                                .values()
-                                .forEach(taskVariable -> addDependsOnIfCatalogObjectModelExistOnTaskVariable(keyValueMapBuilder,
-                                                                                                             taskVariable)));
-        job.getTasks().forEach(task -> addDependsOnIfScriptUrlExistInEachTaskScripts(keyValueMapBuilder, task));
-        addJobDescriptionIfNotNullAndNotEmpty(keyValueMapBuilder, job);
-        addJobVizualisationIfNotNullAndNotEmpty(keyValueMapBuilder, job);
-
-        return new ArrayList<>(keyValueMapBuilder);
+        WorkflowMetadata workflow = new WorkflowMetadata();
+        workflow.setProjectName(job.getProjectName());
+        workflow.setName(job.getName());
+        workflow.getGenericInformation().putAll(job.getUnresolvedGenericInformation());
+        workflow.getVariables().putAll(job.getUnresolvedVariables());
+        job.getTasks().forEach(task -> workflow.getTaskVariables().addAll(task.getVariables().values()));
+        job.getTasks().forEach(task -> addScriptUrls(workflow.getScriptUrls(), task));
+        workflow.setDescription(job.getDescription());
+        workflow.setVisualization(job.getVisualization());
+        return workflow;
     }
 
-    private void addProjectNameIfNotNullAndNotEmpty(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder, Job job) {
-        String projectName = job.getProjectName();
+    private void addProjectNameIfNotNullAndNotEmpty(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder,
+            String projectName) {
         if (checkIfNotNull(projectName) && checkIfNotEmpty(projectName)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(PROJECT_NAME_KEY,
                                                                    projectName,
@@ -139,8 +167,7 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
         }
     }
 
-    private void addJobNameIfNotNull(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder, Job job) {
-        String name = job.getName();
+    private void addJobNameIfNotNull(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder, String name) {
         if (checkIfNotNull(name)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(JOB_NAME_KEY, name, JOB_AND_PROJECT_LABEL));
         }
@@ -168,7 +195,7 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
     }
 
     private void addDependsOnIfCatalogObjectModelExistOnTaskVariable(
-            Set<KeyValueLabelMetadataEntity> keyValueMapBuilder, TaskVariable taskVariable) {
+            Set<KeyValueLabelMetadataEntity> keyValueMapBuilder, JobVariable taskVariable) {
         String name = taskVariable.getName();
         String value = taskVariable.getValue();
         String model = taskVariable.getModel();
@@ -178,57 +205,33 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
 
     }
 
-    private void addDependsOnIfScriptUrlExistInEachTaskScripts(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder,
-            Task task) {
-
-        if (task.getPreScript() != null && task.getPreScript().getScriptUrl() != null &&
-            !task.getPreScript().getScriptUrl().toString().isEmpty() &&
-            isScriptUrlValid(shortScriptUrl(task.getPreScript().getScriptUrl().toString()))) {
-            addDependsOn(keyValueMapBuilder, shortScriptUrl(task.getPreScript().getScriptUrl().toString()));
-        }
-
-        if (task.getPostScript() != null && task.getPostScript().getScriptUrl() != null &&
-            !task.getPostScript().getScriptUrl().toString().isEmpty() &&
-            isScriptUrlValid(shortScriptUrl(task.getPostScript().getScriptUrl().toString()))) {
-            addDependsOn(keyValueMapBuilder, shortScriptUrl(task.getPostScript().getScriptUrl().toString()));
+    private void addScriptUrls(List<String> scriptUrls, Task task) {
+        addScriptUrl(scriptUrls, task.getPreScript());
+        addScriptUrl(scriptUrls, task.getPostScript());
+        addScriptUrl(scriptUrls, task.getFlowScript());
+        addScriptUrl(scriptUrls, task.getCleaningScript());
+        if (task.getForkEnvironment() != null) {
+            addScriptUrl(scriptUrls, task.getForkEnvironment().getEnvScript());
         }
-
-        if (task.getFlowScript() != null && task.getFlowScript().getScriptUrl() != null &&
-            !task.getFlowScript().getScriptUrl().toString().isEmpty() &&
-            isScriptUrlValid(shortScriptUrl(task.getFlowScript().getScriptUrl().toString()))) {
-            addDependsOn(keyValueMapBuilder, shortScriptUrl(task.getFlowScript().getScriptUrl().toString()));
-        }
-
-        if (task.getCleaningScript() != null && task.getCleaningScript().getScriptUrl() != null &&
-            !task.getCleaningScript().getScriptUrl().toString().isEmpty() &&
-            isScriptUrlValid(shortScriptUrl(task.getCleaningScript().getScriptUrl().toString()))) {
-            addDependsOn(keyValueMapBuilder, shortScriptUrl(task.getCleaningScript().getScriptUrl().toString()));
+        if (task instanceof ScriptTask) {
+            addScriptUrl(scriptUrls, ((ScriptTask) task).getScript());
         }
-
-        if (task.getForkEnvironment() != null && task.getForkEnvironment().getEnvScript() != null &&
-            task.getForkEnvironment().getEnvScript().getScriptUrl() != null &&
-            !task.getForkEnvironment().getEnvScript().getScriptUrl().toString().isEmpty() &&
-            isScriptUrlValid(shortScriptUrl(task.getForkEnvironment().getEnvScript().getScriptUrl().toString()))) {
-            addDependsOn(keyValueMapBuilder,
-                         shortScriptUrl(task.getForkEnvironment().getEnvScript().getScriptUrl().toString()));
+        if (task.getSelectionScripts() != null) {
+            task.getSelectionScripts().forEach(selectionScript -> addScriptUrl(scriptUrls, selectionScript));
         }
+    }
 
-        if (task instanceof ScriptTask && ((ScriptTask) task).getScript() != null &&
-            ((ScriptTask) task).getScript().getScriptUrl() != null &&
-            !((ScriptTask) task).getScript().getScriptUrl().toString().isEmpty() &&
-            isScriptUrlValid(shortScriptUrl(((ScriptTask) task).getScript().getScriptUrl().toString()))) {
-            addDependsOn(keyValueMapBuilder, shortScriptUrl(((ScriptTask) task).getScript().getScriptUrl().toString()));
+    private void addScriptUrl(List<String> scriptUrls, Script<?> script) {
+        if (script != null && script.getScriptUrl() != null) {
+            scriptUrls.add(script.getScriptUrl().toString());
         }
+    }
 
-        if (task.getSelectionScripts() != null) {
-            task.getSelectionScripts().forEach(selectionScript -> {
-                if (selectionScript.getScriptUrl() != null && !selectionScript.getScriptUrl().toString().isEmpty() &&
-                    isScriptUrlValid(shortScriptUrl(selectionScript.getScriptUrl().toString()))) {
-                    addDependsOn(keyValueMapBuilder, shortScriptUrl(selectionScript.getScriptUrl().toString()));
-                }
-            });
+    private void addDependsOnIfScriptUrlIsValid(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder,
+            String scriptUrl) {
+        if (!scriptUrl.isEmpty() && isScriptUrlValid(shortScriptUrl(scriptUrl))) {
+            addDependsOn(keyValueMapBuilder, shortScriptUrl(scriptUrl));
         }
-
     }
 
     private void addDependsOn(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder, String scriptUrl) {
@@ -240,11 +243,15 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
     }
 
     private String shortScriptUrl(String scriptUrl) {
-        return scriptUrl.replace(PASchedulerProperties.CATALOG_REST_URL.getValueAsString(), "");
+        // the streaming extractor does not resolve the variables of the script urls
+        String catalogRestUrl = PASchedulerProperties.CATALOG_REST_URL.getValueAsString();
+        String shortScriptUrl = scriptUrl.replace(CATALOG_REST_URL_VARIABLE, "");
+        return catalogRestUrl == null || catalogRestUrl.isEmpty() ? shortScriptUrl
+                                                                 : shortScriptUrl.replace(catalogRestUrl, "");
     }
 
     private boolean isScriptUrlValid(String scriptUrl) {
-        return scriptUrl.matches(SCRIPT_URL_REGEX);
+        return URL_PATTERN.matcher(scriptUrl).matches();
     }
 
     private String getNameAndBucketFromScriptUrl(String scriptUrl) {
@@ -290,15 +297,15 @@ public final class WorkflowParser extends AbstractCatalogObjectParser {
         }
     }
 
-    private void addJobDescriptionIfNotNullAndNotEmpty(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder, Job job) {
-        String description = job.getDescription();
+    private void addJobDescriptionIfNotNullAndNotEmpty(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder,
+            String description) {
         if (checkIfNotNull(description) && checkIfNotEmpty(description)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(JOB_DESCRIPTION_KEY, description, GENERAL_LABEL));
         }
     }
 
-    private void addJobVizualisationIfNotNullAndNotEmpty(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder, Job job) {
-        String vizualisation = job.getVisualization();
+    private void addJobVizualisationIfNotNullAndNotEmpty(Set<KeyValueLabelMetadataEntity> keyValueMapBuilder,
+            String vizualisation) {
         if (checkIfNotNull(vizualisation) && checkIfNotEmpty(vizualisation)) {
             keyValueMapBuilder.add(new KeyValueLabelMetadataEntity(JOB_VISUALIZATION_KEY,
                                                                    vizualisation,
@@ -0,0 +1,79 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.dto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Sets;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class CatalogRawObjectTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    public void testJsonHasTheFieldsOfTheMetadataAndTheRawObjectOnly() {
+        CatalogObjectMetadata metadata = new CatalogObjectMetadata("bucket",
+                                                                   "name",
+                                                                   "project",
+                                                                   "kind",
+                                                                   "application/xml",
+                                                                   123546587L,
+                                                                   "commitMessage",
+                                                                   "username",
+                                                                   Collections.emptyList(),
+                                                                   "xml");
+        CatalogRawObject rawObject = new CatalogRawObject("bucket",
+                                                          "name",
+                                                          "project",
+                                                          "kind",
+                                                          "application/xml",
+                                                          123546587L,
+                                                          "commitMessage",
+                                                          "username",
+                                                          Collections.emptyList(),
+                                                          "content".getBytes(StandardCharsets.UTF_8),
+                                                          "xml");
+
+        Set<String> expectedFields = Sets.newHashSet(objectMapper.valueToTree(metadata).fieldNames());
+        expectedFields.add("rawObject");
+        JsonNode json = objectMapper.valueToTree(rawObject);
+
+        assertThat(Sets.newHashSet(json.fieldNames())).isEqualTo(expectedFields);
+    }
+}
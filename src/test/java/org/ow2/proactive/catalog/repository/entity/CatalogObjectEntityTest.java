@@ -75,6 +75,18 @@ public class CatalogObjectEntityTest {
         assertThat(catalogObject.getRevisions()).hasSize(1);
     }
 
+    @Test
+    public void testAddRevisionUpdatesLatestRevision() throws Exception {
+        assertThat(catalogObject.getLatestRevision()).isNull();
+
+        catalogObject.addRevision(catalogObjectRevision);
+        assertThat(catalogObject.getLatestRevision()).isSameAs(catalogObjectRevision);
+
+        CatalogObjectRevisionEntity nextRevision = newCatalogObjectRevision(now.plusHours(1));
+        catalogObject.addRevision(nextRevision);
+        assertThat(catalogObject.getLatestRevision()).isSameAs(nextRevision);
+    }
+
     @Test
     public void testSetRevisions() throws Exception {
         catalogObject.addRevision(catalogObjectRevision);
@@ -106,8 +118,9 @@ public class CatalogObjectEntityTest {
                                                "commit message",
                                                "username",
                                                time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                                               null,
                                                catalogObject,
                                                Collections.emptyList(),
-                                               new byte[0]);
+                                               null);
     }
 }
@@ -0,0 +1,85 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.repository.entity;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import com.google.common.base.Strings;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class RawObjectCodecTest {
+
+    private static final byte[] CONTENT = Strings.repeat("<task name=\"task\"/>", 50).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testGzipRoundTrip() {
+        byte[] encoded = RawObjectCodec.GZIP.encode(CONTENT);
+
+        assertThat(encoded.length).isLessThan(CONTENT.length);
+        assertThat(RawObjectCodec.GZIP.decode(encoded)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testGzipResourceIsDecodedWhenRead() throws IOException {
+        Resource decoded = RawObjectCodec.GZIP.decode(new ByteArrayResource(RawObjectCodec.GZIP.encode(CONTENT)));
+
+        try (InputStream inputStream = decoded.getInputStream()) {
+            assertThat(StreamUtils.copyToByteArray(inputStream)).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    public void testNoneKeepsTheStoredBytes() {
+        Resource stored = new ByteArrayResource(CONTENT);
+
+        assertThat(RawObjectCodec.NONE.encode(CONTENT)).isSameAs(CONTENT);
+        assertThat(RawObjectCodec.NONE.decode(CONTENT)).isSameAs(CONTENT);
+        assertThat(RawObjectCodec.NONE.decode(stored)).isSameAs(stored);
+        assertThat(RawObjectCodec.NONE.getContentEncoding()).isNull();
+    }
+
+    @Test
+    public void testRowsWithoutCodecAreNotEncoded() {
+        assertThat(RawObjectCodec.of(RawObjectEntity.builder().hash("hash").build())).isEqualTo(RawObjectCodec.NONE);
+        assertThat(RawObjectCodec.of(RawObjectEntity.builder()
+                                                    .hash("hash")
+                                                    .codec(RawObjectCodec.GZIP)
+                                                    .build())).isEqualTo(RawObjectCodec.GZIP);
+    }
+}
@@ -57,7 +57,6 @@ import org.ow2.proactive.catalog.service.CatalogObjectService;
 import org.ow2.proactive.catalog.service.RestApiAccessService;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper;
-import org.ow2.proactive.catalog.util.ArchiveManagerHelper.ZipArchiveContent;
 import org.ow2.proactive.catalog.util.RawObjectResponseCreator;
 import org.ow2.proactive.microservices.common.exception.NotAuthenticatedException;
 import org.springframework.http.HttpHeaders;
@@ -97,9 +96,7 @@ public class CatalogObjectControllerTest {
         when(response.getOutputStream()).thenReturn(sos);
         List<String> nameList = new ArrayList<>();
         nameList.add("workflowname");
-        ZipArchiveContent content = new ZipArchiveContent();
-        content.setContent(new byte[0]);
-        when(catalogObjectService.getCatalogObjectsAsZipArchive("bucket-name", nameList)).thenReturn(content);
+        when(catalogObjectService.findMissingCatalogObjectNames("bucket-name", nameList)).thenReturn(Collections.emptyList());
         catalogObjectController.list("",
                                      "bucket-name",
                                      Optional.empty(),
@@ -109,12 +106,11 @@ public class CatalogObjectControllerTest {
                                      0,
                                      Integer.MAX_VALUE,
                                      response);
-        verify(catalogObjectService, times(1)).getCatalogObjectsAsZipArchive("bucket-name", nameList);
+        verify(catalogObjectService, times(1)).writeCatalogObjectsAsZipArchive("bucket-name", nameList, sos);
         verify(response, times(1)).setStatus(HttpServletResponse.SC_OK);
         verify(response, times(1)).setContentType("application/zip");
         verify(response, times(1)).addHeader(HttpHeaders.CONTENT_ENCODING, "binary");
         verify(response, times(1)).addHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"archive.zip\"");
-        verify(sos, times(1)).write(any());
         verify(sos, times(1)).flush();
     }
 
@@ -126,10 +122,7 @@ public class CatalogObjectControllerTest {
         when(response.getOutputStream()).thenReturn(sos);
         List<String> nameList = new ArrayList<>();
         nameList.add("workflowname");
-        ZipArchiveContent content = new ZipArchiveContent();
-        content.setContent(new byte[0]);
-        content.setPartial(true);
-        when(catalogObjectService.getCatalogObjectsAsZipArchive("bucket-name", nameList)).thenReturn(content);
+        when(catalogObjectService.findMissingCatalogObjectNames("bucket-name", nameList)).thenReturn(nameList);
         catalogObjectController.list("",
                                      "bucket-name",
                                      Optional.empty(),
@@ -139,8 +132,9 @@ public class CatalogObjectControllerTest {
                                      0,
                                      Integer.MAX_VALUE,
                                      response);
-        verify(catalogObjectService, times(1)).getCatalogObjectsAsZipArchive("bucket-name", nameList);
+        verify(catalogObjectService, times(1)).writeCatalogObjectsAsZipArchive("bucket-name", nameList, sos);
         verify(response, never()).setStatus(HttpServletResponse.SC_OK);
+        verify(response, times(1)).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
     }
 
     @Test
@@ -185,10 +179,29 @@ public class CatalogObjectControllerTest {
         when(restApiAccessService.isAPublicBucket(anyString())).thenReturn(true);
 
         when(catalogObjectService.getCatalogRawObject(anyString(), anyString())).thenReturn(rawObject);
-        when(rawObjectResponseCreator.createRawObjectResponse(rawObject)).thenReturn(responseEntity);
-        ResponseEntity responseEntityFromController = catalogObjectController.getRaw("", "bucket-name", "name");
+        when(rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                              "gzip",
+                                                              "\"etag\"",
+                                                              null,
+                                                              "bytes=0-9",
+                                                              null,
+                                                              RawObjectResponseCreator.LATEST_REVISION_CACHE_CONTROL)).thenReturn(responseEntity);
+        ResponseEntity responseEntityFromController = catalogObjectController.getRaw("",
+                                                                                     "bucket-name",
+                                                                                     "name",
+                                                                                     "gzip",
+                                                                                     "\"etag\"",
+                                                                                     null,
+                                                                                     "bytes=0-9",
+                                                                                     null);
         verify(catalogObjectService, times(1)).getCatalogRawObject(anyString(), anyString());
-        verify(rawObjectResponseCreator, times(1)).createRawObjectResponse(rawObject);
+        verify(rawObjectResponseCreator, times(1)).createRawObjectResponse(rawObject,
+                                                                           "gzip",
+                                                                           "\"etag\"",
+                                                                           null,
+                                                                           "bytes=0-9",
+                                                                           null,
+                                                                           RawObjectResponseCreator.LATEST_REVISION_CACHE_CONTROL);
         assertThat(responseEntityFromController).isNotNull();
         assertThat(responseEntityFromController).isEqualTo(responseEntity);
     }
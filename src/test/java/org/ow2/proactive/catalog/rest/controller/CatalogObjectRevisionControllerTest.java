@@ -94,11 +94,22 @@ public class CatalogObjectRevisionControllerTest {
         when(catalogObjectService.getCatalogObjectRevisionRaw(anyString(),
                                                               anyString(),
                                                               anyLong())).thenReturn(rawObject);
-        when(rawObjectResponseCreator.createRawObjectResponse(rawObject)).thenReturn(responseEntity);
+        when(rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                              null,
+                                                              null,
+                                                              null,
+                                                              null,
+                                                              null,
+                                                              RawObjectResponseCreator.REVISION_CACHE_CONTROL)).thenReturn(responseEntity);
         ResponseEntity responseEntityFromController = catalogObjectRevisionController.getRaw("",
                                                                                              BUCKET_ID,
                                                                                              "name",
-                                                                                             System.currentTimeMillis());
+                                                                                             System.currentTimeMillis(),
+                                                                                             null,
+                                                                                             null,
+                                                                                             null,
+                                                                                             null,
+                                                                                             null);
         verify(catalogObjectService, times(1)).getCatalogObjectRevisionRaw(anyString(), anyString(), anyLong());
         assertThat(responseEntityFromController).isNotNull();
         assertThat(responseEntityFromController).isEqualTo(responseEntity);
@@ -132,4 +132,29 @@ public class AuthorizationServiceTest {
                                                                           BucketService.DEFAULT_BUCKET_OWNER)).isTrue();
     }
 
+
+    @Test
+    public void testAuthorizedBucketOwnersContainPublicOwnerAndUserGroups() {
+        AuthenticatedUser authenticatedUser = AuthenticatedUser.builder()
+                                                               .name("C3PO")
+                                                               .groups(Arrays.asList("secret stuff", "robots"))
+                                                               .build();
+
+        String secretGroup = OwnerGroupStringHelper.GROUP_PREFIX + "secret stuff";
+        String robotsGroup = OwnerGroupStringHelper.GROUP_PREFIX + "robots";
+
+        when(ownerGroupStringHelper.getGroupsWithPrefixFromGroupList(authenticatedUser.getGroups())).thenReturn(Arrays.asList(secretGroup,
+                                                                                                                               robotsGroup));
+
+        assertThat(authorizationService.getAuthorizedBucketOwners(authenticatedUser)).containsExactly(BucketService.DEFAULT_BUCKET_OWNER,
+                                                                                                      "secret stuff",
+                                                                                                      "robots",
+                                                                                                      secretGroup,
+                                                                                                      robotsGroup);
+    }
+
+    @Test
+    public void testAuthenticatedUserNullHasNoAuthorizedBucketOwners() {
+        assertThat(authorizationService.getAuthorizedBucketOwners(null)).isEmpty();
+    }
 }
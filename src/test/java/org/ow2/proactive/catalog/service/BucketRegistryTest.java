@@ -0,0 +1,122 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.ow2.proactive.catalog.repository.BucketRepository;
+import org.ow2.proactive.catalog.repository.entity.BucketEntity;
+import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
+import org.ow2.proactive.catalog.service.model.RegisteredBucket;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class BucketRegistryTest {
+
+    @InjectMocks
+    private BucketRegistry bucketRegistry;
+
+    @Mock
+    private BucketRepository bucketRepository;
+
+    @Test
+    public void testBucketIsLoadedOnce() {
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(newBucket(1L, "bucket", "owner"));
+
+        RegisteredBucket first = bucketRegistry.getBucket("bucket");
+        RegisteredBucket second = bucketRegistry.getBucket("bucket");
+
+        assertThat(first).isEqualTo(new RegisteredBucket(1L, "bucket", "owner"));
+        assertThat(second).isSameAs(first);
+        verify(bucketRepository, times(1)).findOneByBucketName("bucket");
+    }
+
+    @Test(expected = BucketNotFoundException.class)
+    public void testUnknownBucketIsNotFound() {
+        bucketRegistry.getBucket("unknown");
+    }
+
+    @Test
+    public void testUnknownBucketIsNotRemembered() {
+        assertThat(bucketRegistry.findBucket("bucket")).isNull();
+
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(newBucket(1L, "bucket", "owner"));
+
+        assertThat(bucketRegistry.findBucket("bucket").getId()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testRegisteredBucketIsServedWithoutQuery() {
+        bucketRegistry.register(newBucket(1L, "bucket", "new-owner"));
+
+        assertThat(bucketRegistry.getBucket("bucket").getOwner()).isEqualTo("new-owner");
+        verify(bucketRepository, times(0)).findOneByBucketName("bucket");
+    }
+
+    @Test
+    public void testInvalidatedBucketIsReloaded() {
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(newBucket(1L, "bucket", "owner"));
+        bucketRegistry.getBucket("bucket");
+
+        bucketRegistry.invalidate("bucket");
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(null);
+
+        assertThat(bucketRegistry.findBucket("bucket")).isNull();
+    }
+
+    @Test
+    public void testInvalidateAllEvictsEveryBucket() {
+        when(bucketRepository.findOneByBucketName("bucket1")).thenReturn(newBucket(1L, "bucket1", "owner"));
+        when(bucketRepository.findOneByBucketName("bucket2")).thenReturn(newBucket(2L, "bucket2", "owner"));
+        bucketRegistry.getBucket("bucket1");
+        bucketRegistry.getBucket("bucket2");
+
+        bucketRegistry.invalidateAll();
+        bucketRegistry.getBucket("bucket1");
+        bucketRegistry.getBucket("bucket2");
+
+        verify(bucketRepository, times(2)).findOneByBucketName("bucket1");
+        verify(bucketRepository, times(2)).findOneByBucketName("bucket2");
+    }
+
+    private BucketEntity newBucket(Long id, String name, String owner) {
+        BucketEntity bucketEntity = new BucketEntity(name, owner);
+        bucketEntity.setId(id);
+        return bucketEntity;
+    }
+}
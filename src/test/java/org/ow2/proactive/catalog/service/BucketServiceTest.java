@@ -58,6 +58,7 @@ import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.service.exception.BucketNameIsNotValidException;
 import org.ow2.proactive.catalog.service.exception.BucketNotFoundException;
 import org.ow2.proactive.catalog.service.exception.DeleteNonEmptyBucketException;
+import org.ow2.proactive.catalog.service.model.RegisteredBucket;
 import org.ow2.proactive.catalog.util.name.validator.BucketNameValidator;
 import org.ow2.proactive.catalog.util.parser.SupportedParserKinds;
 import org.springframework.data.domain.Sort;
@@ -80,6 +81,12 @@ public class BucketServiceTest {
     @Mock
     private BucketRepository bucketRepository;
 
+    @Mock
+    private BucketRegistry bucketRegistry;
+
+    @Mock
+    private LatestRevisionCache latestRevisionCache;
+
     @Mock
     private BucketNameValidator bucketNameValidator;
 
@@ -143,6 +150,8 @@ public class BucketServiceTest {
         verify(mockedBucket, times(1)).setOwner(DEFAULT_BUCKET_NAME);
         verify(bucketRepository, times(1)).findOneByBucketName(bucketName);
         verify(bucketRepository, times(1)).save(mockedBucket);
+        verify(bucketRegistry, times(1)).register(mockedBucketWithOwner);
+        verify(latestRevisionCache, times(1)).invalidateBucket(bucketName);
         verify(catalogObjectService, times(1)).listCatalogObjectsEntities(Arrays.asList(bucketName),
                                                                           0,
                                                                           Integer.MAX_VALUE);
@@ -161,16 +170,18 @@ public class BucketServiceTest {
 
     @Test
     public void testGetBucketMetadataValidBucket() throws Exception {
-        BucketEntity mockedBucket = newMockedBucket(1L, "bucket-name", LocalDateTime.now());
-        when(bucketRepository.findOneByBucketName(anyString())).thenReturn(mockedBucket);
+        RegisteredBucket registeredBucket = new RegisteredBucket(1L, "bucket-name", "owner");
+        when(bucketRegistry.getBucket(anyString())).thenReturn(registeredBucket);
         BucketMetadata bucketMetadata = bucketService.getBucketMetadata("bucket-name");
-        verify(bucketRepository, times(1)).findOneByBucketName(anyString());
-        assertEquals(mockedBucket.getBucketName(), bucketMetadata.getName());
+        verify(bucketRegistry, times(1)).getBucket("bucket-name");
+        verify(bucketRepository, times(0)).findOneByBucketName(anyString());
+        assertEquals(registeredBucket.getName(), bucketMetadata.getName());
+        assertEquals(registeredBucket.getOwner(), bucketMetadata.getOwner());
     }
 
     @Test(expected = BucketNotFoundException.class)
     public void testGetBucketMetadataInvalidBucket() throws Exception {
-        when(bucketRepository.findOneByBucketName(anyString())).thenReturn(null);
+        when(bucketRegistry.getBucket(anyString())).thenThrow(new BucketNotFoundException("bucket-name"));
         bucketService.getBucketMetadata("bucket-name");
     }
 
@@ -198,6 +209,7 @@ public class BucketServiceTest {
         BucketMetadata bucketMetadata = bucketService.deleteEmptyBucket("bucket-name");
         verify(bucketRepository, times(1)).findBucketForUpdate("bucket-name");
         verify(bucketRepository, times(1)).delete(1L);
+        verify(bucketRegistry, times(1)).invalidate("bucket-name");
         assertEquals(bucketMetadata.getName(), mockedBucket.getBucketName());
     }
 
@@ -225,6 +237,19 @@ public class BucketServiceTest {
         verify(bucketRepository, times(1)).findBucketForUpdate("bucket-name");
     }
 
+    @Test
+    public void testListBucketsUsesStoredObjectCount() {
+        BucketEntity mockedBucket = newMockedBucket(1L, "bucket-name", LocalDateTime.now());
+        when(mockedBucket.getObjectCount()).thenReturn(3);
+        when(bucketRepository.findAll(any(Sort.class))).thenReturn(Collections.singletonList(mockedBucket));
+
+        List<BucketMetadata> buckets = bucketService.listBuckets((String) null, Optional.empty(), Optional.empty());
+
+        assertThat(buckets).hasSize(1);
+        assertThat(buckets.get(0).getObjectCount()).isEqualTo(3);
+        verify(mockedBucket, times(0)).getCatalogObjects();
+    }
+
     private void listBucket(String owner, Optional<String> kind, Optional<String> contentType) {
         when(bucketRepository.findAll()).thenReturn(Collections.emptyList());
         bucketService.listBuckets(owner, (kind), (contentType));
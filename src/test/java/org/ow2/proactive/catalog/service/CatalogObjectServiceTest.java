@@ -26,25 +26,45 @@
 package org.ow2.proactive.catalog.service;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyList;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.ow2.proactive.catalog.service.CatalogObjectService.KIND_NOT_FOUND;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.ZipOutputStream;
 
+import javax.persistence.EntityManager;
+
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.ow2.proactive.catalog.dto.CatalogObjectDependencies;
 import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogObjectNameReference;
+import org.ow2.proactive.catalog.dto.CatalogObjectRevisionSummary;
 import org.ow2.proactive.catalog.dto.DependsOnCatalogObject;
 import org.ow2.proactive.catalog.dto.Metadata;
 import org.ow2.proactive.catalog.repository.BucketRepository;
@@ -54,11 +74,17 @@ import org.ow2.proactive.catalog.repository.entity.BucketEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
 import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
 import org.ow2.proactive.catalog.service.exception.*;
+import org.ow2.proactive.catalog.util.ArchiveManagerHelper;
+import org.ow2.proactive.catalog.util.ArchiveManagerHelper.FileNameAndContent;
 import org.ow2.proactive.catalog.util.SeparatorUtility;
 import org.ow2.proactive.catalog.util.name.validator.KindAndContentTypeValidator;
 import org.ow2.proactive.catalog.util.name.validator.ObjectNameValidator;
 import org.ow2.proactive.catalog.util.parser.WorkflowParser;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.google.common.collect.ImmutableList;
 
@@ -94,8 +120,13 @@ public class CatalogObjectServiceTest {
     @Mock
     private CatalogObjectRevisionRepository catalogObjectRevisionRepository;
 
-    @Mock
-    private BucketRepository bucketRepository;
+    // created here rather than by @Mock so that the bucket registry can be built on it, a @Spy
+    // field already holding a mock being injected as it is
+    @Spy
+    private BucketRepository bucketRepository = mock(BucketRepository.class);
+
+    @Spy
+    private BucketRegistry bucketRegistry = new BucketRegistry(bucketRepository);
 
     @Mock
     private KeyValueLabelMetadataHelper keyValueLabelMetadataHelper;
@@ -112,6 +143,36 @@ public class CatalogObjectServiceTest {
     @Mock
     private SeparatorUtility separatorUtility;
 
+    @Mock
+    private RestApiAccessService restApiAccessService;
+
+    @Mock
+    private RawObjectService rawObjectService;
+
+    @Mock
+    private KeyValueMetadataLoader keyValueMetadataLoader;
+
+    @Mock
+    private ArchiveManagerHelper archiveManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private LatestRevisionCache latestRevisionCache = new LatestRevisionCache();
+
+    @Before
+    public void setUp() {
+        latestRevisionCache.initCaches(1024 * 1024, 1024 * 1024);
+        ReflectionTestUtils.setField(catalogObjectService, "importWorkers", 2);
+        catalogObjectService.initImportExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        catalogObjectService.shutdownImportExecutor();
+    }
+
     @Test(expected = BucketNotFoundException.class)
     public void testCreateCatalogObjectWithInvalidBucket() {
         when(objectNameValidator.isValid(anyString())).thenReturn(true);
@@ -169,11 +230,11 @@ public class CatalogObjectServiceTest {
         CatalogObjectRevisionEntity catalogObjectEntity = newCatalogObjectRevisionEntity(bucketEntity,
                                                                                          System.currentTimeMillis());
         when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenReturn(catalogObjectEntity);
-        when(workflowInfoAdder.addGenericInformationJobNameToRawObjectIfWorkflow(any(),
-                                                                                 any(),
-                                                                                 any(),
-                                                                                 any())).thenReturn(new byte[] {});
-        when(workflowInfoAdder.addProjectNameToRawObjectIfWorkflow(any(), any(), any())).thenReturn(new byte[] {});
+        when(workflowInfoAdder.addGenericInformationJobNameAndProjectNameToRawObjectIfWorkflow(any(),
+                                                                                               any(),
+                                                                                               any(),
+                                                                                               any(),
+                                                                                               any())).thenReturn(new byte[] {});
         List<Metadata> keyValues = ImmutableList.of(new Metadata("key", "value", null));
 
         CatalogObjectMetadata catalogObject = catalogObjectService.createCatalogObject("bucket",
@@ -196,6 +257,178 @@ public class CatalogObjectServiceTest {
         assertThat(catalogObject.getProjectName()).isEqualTo(PROJECT_NAME);
         assertThat(catalogObject.getMetadataList()).isNotEmpty();
         assertThat(catalogObject.getMetadataList()).hasSize(1);
+        verify(bucketRepository, times(1)).addToObjectCount(bucketEntity.getId(), 1);
+        verify(rawObjectService, times(1)).store(any(byte[].class), any(RawObjectEntity.class));
+    }
+
+    @Test
+    public void testDeleteCatalogObjectDecrementsBucketObjectCount() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        bucketEntity.setId(1L);
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        CatalogObjectRevisionEntity catalogObjectEntity = newCatalogObjectRevisionEntity(bucketEntity,
+                                                                                         System.currentTimeMillis());
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                   anyString())).thenReturn(catalogObjectEntity);
+        List<String> rawObjectHashes = Arrays.asList("hash1", "hash2", "hash1");
+        when(catalogObjectRevisionRepository.findRawObjectHashesOfCatalogObject(1L, NAME)).thenReturn(rawObjectHashes);
+        bucketEntity.setObjectCount(3);
+        when(entityManager.find(BucketEntity.class, 1L)).thenReturn(bucketEntity);
+
+        catalogObjectService.delete("bucket", NAME);
+
+        verify(catalogObjectRepository, times(1)).clearLatestRevision(1L, NAME);
+        verify(catalogObjectRepository, times(1)).delete(new CatalogObjectEntity.CatalogObjectEntityKey(1L, NAME));
+        verify(bucketRepository, times(1)).addToObjectCount(1L, -1);
+        // the bucket entity of the transaction is not left with the former count
+        assertThat(bucketEntity.getObjectCount()).isEqualTo(2);
+        verify(rawObjectService, times(1)).release(rawObjectHashes);
+    }
+
+    @Test
+    public void testLatestRevisionIsReadOnceUntilTheObjectChanges() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        bucketEntity.setId(1L);
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        CatalogObjectRevisionEntity catalogObjectEntity = newCatalogObjectRevisionEntity(bucketEntity,
+                                                                                         System.currentTimeMillis());
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                   anyString())).thenReturn(catalogObjectEntity);
+
+        catalogObjectService.getCatalogObjectMetadata("bucket", NAME);
+        catalogObjectService.getCatalogObjectMetadata("bucket", NAME);
+        verify(catalogObjectRevisionRepository, times(1)).findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                                 anyString());
+
+        catalogObjectService.delete("bucket", NAME);
+        verify(latestRevisionCache, times(1)).invalidate("bucket", NAME);
+
+        catalogObjectService.getCatalogObjectMetadata("bucket", NAME);
+        verify(catalogObjectRevisionRepository, times(2)).findDefaultCatalogObjectByNameInBucket(anyList(),
+                                                                                                 anyString());
+    }
+
+    @Test
+    public void testCreateCatalogObjectsFromArchive() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        CatalogObjectEntity existingObject = newCatalogObjectRevisionEntity(bucketEntity, 1L).getCatalogObject();
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(objectNameValidator.isValid(anyString())).thenReturn(true);
+        when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+        when(catalogObjectRepository.findOne(any(CatalogObjectEntity.CatalogObjectEntityKey.class))).thenAnswer(invocation -> NAME.equals(((CatalogObjectEntity.CatalogObjectEntityKey) invocation.getArguments()[0]).getName()) ? existingObject
+                                                                                                                                                                                                                       : null);
+        when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        mockArchiveEntries("workflow_0.xml", NAME + ".xml", "workflow_1.xml");
+
+        List<CatalogObjectMetadata> catalogObjects = catalogObjectService.createCatalogObjects("bucket",
+                                                                                                PROJECT_NAME,
+                                                                                                "workflow",
+                                                                                                COMMIT_MESSAGE,
+                                                                                                USERNAME,
+                                                                                                new ByteArrayInputStream(new byte[0]));
+
+        assertThat(catalogObjects).hasSize(3);
+        assertThat(catalogObjects.get(0).getName()).isEqualTo("workflow_0");
+        assertThat(catalogObjects.get(0).getKind()).isEqualTo("workflow");
+        assertThat(catalogObjects.get(1).getName()).isEqualTo(NAME);
+        assertThat(catalogObjects.get(1).getKind()).isEqualTo(OBJECT);
+        assertThat(catalogObjects.get(2).getName()).isEqualTo("workflow_1");
+        assertThat(existingObject.getRevisions()).hasSize(2);
+        verify(bucketRepository, times(1)).addToObjectCount(bucketEntity.getId(), 2);
+    }
+
+    @Test
+    public void testCreateCatalogObjectsFromArchiveReportsEveryFailingEntry() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(objectNameValidator.isValid("valid")).thenReturn(true);
+        when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+        when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        mockArchiveEntries("invalid_0.xml", "valid.xml", "invalid_1.xml");
+
+        try {
+            catalogObjectService.createCatalogObjects("bucket",
+                                                      PROJECT_NAME,
+                                                      "workflow",
+                                                      COMMIT_MESSAGE,
+                                                      USERNAME,
+                                                      new ByteArrayInputStream(new byte[0]));
+            fail();
+        } catch (UnprocessableEntityException e) {
+            assertThat(e.getMessage()).contains("invalid_0.xml");
+            assertThat(e.getMessage()).contains("invalid_1.xml");
+            assertThat(e.getMessage()).doesNotContain("valid.xml (");
+        }
+        verify(bucketRepository, times(0)).addToObjectCount(any(), anyInt());
+    }
+
+    @Test(expected = QueryTimeoutException.class)
+    public void testCreateCatalogObjectsFromArchiveIsAbortedByAFailureToSave() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(objectNameValidator.isValid(anyString())).thenReturn(true);
+        when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+        when(catalogObjectRevisionRepository.save(any(CatalogObjectRevisionEntity.class))).thenThrow(new QueryTimeoutException("timeout"));
+        mockArchiveEntries("workflow_0.xml", "workflow_1.xml");
+
+        catalogObjectService.createCatalogObjects("bucket",
+                                                  PROJECT_NAME,
+                                                  "workflow",
+                                                  COMMIT_MESSAGE,
+                                                  USERNAME,
+                                                  new ByteArrayInputStream(new byte[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockArchiveEntries(String... fileNames) {
+        doAnswer(invocation -> {
+            Consumer<FileNameAndContent> fileConsumer = (Consumer<FileNameAndContent>) invocation.getArguments()[1];
+            for (String fileName : fileNames) {
+                FileNameAndContent file = new FileNameAndContent();
+                file.setName(fileName.substring(0, fileName.lastIndexOf('.')));
+                file.setFileNameWithExtension(fileName);
+                file.setContent("<job/>".getBytes());
+                fileConsumer.accept(file);
+            }
+            return null;
+        }).when(archiveManager).extractZIP(any(InputStream.class), any(Consumer.class));
+    }
+
+    @Test
+    public void testFindMissingCatalogObjectNames() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        List<String> names = Arrays.asList("workflow_0", "missing", "workflow_1");
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectNamesInBucket(anyList(),
+                                                                                   eq(names))).thenReturn(Arrays.asList("workflow_1",
+                                                                                                                        "workflow_0"));
+
+        assertThat(catalogObjectService.findMissingCatalogObjectNames("bucket", names)).containsExactly("missing");
+    }
+
+    @Test
+    public void testWriteCatalogObjectsAsZipArchiveKeepsTheRequestedOrder() throws IOException {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        List<String> names = Arrays.asList("workflow_1", "missing", "workflow_0");
+        CatalogObjectRevisionEntity revision0 = newCatalogObjectRevisionEntity(bucketEntity, 1L);
+        revision0.getCatalogObject().getId().setName("workflow_0");
+        CatalogObjectRevisionEntity revision1 = newCatalogObjectRevisionEntity(bucketEntity, 2L);
+        revision1.getCatalogObject().getId().setName("workflow_1");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ZipOutputStream zipOutputStream = mock(ZipOutputStream.class);
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectsByNamesInBucket(anyList(),
+                                                                                      eq(names))).thenReturn(Arrays.asList(revision0,
+                                                                                                                           revision1));
+        when(archiveManager.openZIP(outputStream)).thenReturn(zipOutputStream);
+
+        catalogObjectService.writeCatalogObjectsAsZipArchive("bucket", names, outputStream);
+
+        InOrder inOrder = inOrder(archiveManager, entityManager, zipOutputStream);
+        inOrder.verify(archiveManager).addToZIP(zipOutputStream, revision1);
+        inOrder.verify(archiveManager).addToZIP(zipOutputStream, revision0);
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(zipOutputStream).finish();
     }
 
     @Test(expected = WrongParametersException.class)
@@ -278,6 +511,55 @@ public class CatalogObjectServiceTest {
         catalogObjectService.listCatalogObjects(Arrays.asList("wrong-bucket"), 0, Integer.MAX_VALUE);
     }
 
+    @Test
+    public void testListCatalogObjectsReadsKeyValuesOfThePageAtOnce() {
+        BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        when(bucketRepository.findOneByBucketName(anyString())).thenReturn(bucketEntity);
+        List<CatalogObjectRevisionSummary> summaries = Arrays.asList(new CatalogObjectRevisionSummary(1L,
+                                                                                                      "bucket",
+                                                                                                      "object-1",
+                                                                                                      "",
+                                                                                                      OBJECT,
+                                                                                                      APPLICATION_XML,
+                                                                                                      10L,
+                                                                                                      COMMIT_MESSAGE,
+                                                                                                      USERNAME,
+                                                                                                      null),
+                                                                     new CatalogObjectRevisionSummary(2L,
+                                                                                                      "bucket",
+                                                                                                      "object-2",
+                                                                                                      PROJECT_NAME,
+                                                                                                      OBJECT,
+                                                                                                      APPLICATION_XML,
+                                                                                                      20L,
+                                                                                                      COMMIT_MESSAGE,
+                                                                                                      USERNAME,
+                                                                                                      "xml"));
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectSummariesInBucket(anyList(),
+                                                                                      any(Pageable.class))).thenReturn(summaries);
+        Map<Long, List<Metadata>> metadataByRevisionId = new HashMap<>();
+        metadataByRevisionId.put(1L,
+                                 Arrays.asList(new Metadata("project_name", "project", "job_information"),
+                                               new Metadata("key", "value", "label")));
+        when(keyValueMetadataLoader.findMetadataByRevisionId(Arrays.asList(1L, 2L))).thenReturn(metadataByRevisionId);
+
+        List<CatalogObjectMetadata> catalogObjects = catalogObjectService.listCatalogObjects(Collections.singletonList("bucket"),
+                                                                                             0,
+                                                                                             10);
+
+        assertThat(catalogObjects).hasSize(2);
+        assertThat(catalogObjects.get(0).getName()).isEqualTo("object-1");
+        assertThat(catalogObjects.get(0).getProjectName()).isEqualTo("project");
+        assertThat(catalogObjects.get(0).getMetadataList()).containsExactly(new Metadata("project_name",
+                                                                                         "project",
+                                                                                         "job_information"),
+                                                                            new Metadata("key", "value", "label"));
+        assertThat(catalogObjects.get(1).getProjectName()).isEqualTo(PROJECT_NAME);
+        assertThat(catalogObjects.get(1).getExtension()).isEqualTo("xml");
+        assertThat(catalogObjects.get(1).getMetadataList()).isEmpty();
+        verify(keyValueMetadataLoader, times(1)).findMetadataByRevisionId(anyList());
+    }
+
     @Test
     public void testUpdateObjectMetadata() {
         long now = System.currentTimeMillis();
@@ -287,6 +569,7 @@ public class CatalogObjectServiceTest {
         when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
                                                                                     anyString())).thenReturn(catalogObjectEntity);
         when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+        when(rawObjectService.store(any(byte[].class))).thenReturn(RawObjectEntity.builder().hash("updated").build());
 
         CatalogObjectMetadata catalogObject = catalogObjectService.updateObjectMetadata(bucketEntity.getBucketName(),
                                                                                         NAME,
@@ -305,6 +588,8 @@ public class CatalogObjectServiceTest {
         assertThat(catalogObject.getMetadataList()).isNotEmpty();
         assertThat(catalogObject.getMetadataList()).hasSize(1);
         assertThat(catalogObject.getCommitTimeRaw()).isEqualTo(String.valueOf(now));
+        // the rewritten raw object is modified in a later second than its commit
+        assertThat(catalogObjectEntity.getModificationTime()).isAtLeast((now / 1000 + 1) * 1000);
     }
 
     @Test
@@ -316,6 +601,7 @@ public class CatalogObjectServiceTest {
         when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
                                                                                     anyString())).thenReturn(catalogObjectEntity);
         when(kindAndContentTypeValidator.isValid(anyString())).thenReturn(true);
+        when(rawObjectService.store(any(byte[].class))).thenReturn(RawObjectEntity.builder().hash("updated").build());
 
         // only kind should be updated without changing contentType and ProjectName
         CatalogObjectMetadata catalogObjectUpdatedKind = catalogObjectService.updateObjectMetadata(bucketEntity.getBucketName(),
@@ -413,9 +699,12 @@ public class CatalogObjectServiceTest {
                                                                                                                                                                         dependency1Name))
                                                                                                                      .build())
                                                                                    .build();
-        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(BUCKET),
+        BucketEntity bucketEntity = new BucketEntity(BUCKET, "owner");
+        bucketEntity.setId(bucketId);
+        when(bucketRepository.findOneByBucketName(BUCKET)).thenReturn(bucketEntity);
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketId),
                                                                                     OBJECT)).thenReturn(catalogObjectRevisionEntity);
-        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(BUCKET),
+        when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(Collections.singletonList(bucketId),
                                                                                     dependency1Name)).thenReturn(objectDependency1);
         when(catalogObjectRevisionRepository.findDependsOnCatalogObjectNamesFromKeyValueMetadata(BUCKET,
                                                                                                  OBJECT,
@@ -450,6 +739,7 @@ public class CatalogObjectServiceTest {
     public void testGetCatalogObjectMetadata() {
         long now = System.currentTimeMillis();
         BucketEntity bucketEntity = new BucketEntity("bucket", "toto");
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
         CatalogObjectRevisionEntity catalogObjectEntity = newCatalogObjectRevisionEntity(bucketEntity, now);
         when(catalogObjectRevisionRepository.findDefaultCatalogObjectByNameInBucket(anyList(),
                                                                                     anyString())).thenReturn(catalogObjectEntity);
@@ -578,6 +868,7 @@ public class CatalogObjectServiceTest {
     public void testGetCatalogObjectRevision() {
         long now = System.currentTimeMillis();
         BucketEntity bucketEntity = new BucketEntity("bucket", "owner");
+        when(bucketRepository.findOneByBucketName("bucket")).thenReturn(bucketEntity);
         CatalogObjectRevisionEntity catalogObjectEntity = newCatalogObjectRevisionEntity(bucketEntity, now);
         when(catalogObjectRevisionRepository.findCatalogObjectRevisionByCommitTime(anyList(),
                                                                                    anyString(),
@@ -595,4 +886,23 @@ public class CatalogObjectServiceTest {
         assertThat(catalogObjectRevisionEntity.getKeyValueMetadataList()).isNotEmpty();
         assertThat(catalogObjectRevisionEntity.getKeyValueMetadataList()).hasSize(1);
     }
+    @Test
+    public void testAccessibleNameReferencesAreSelectedByBucketOwners() {
+        Set<String> owners = Collections.singleton(BucketService.DEFAULT_BUCKET_OWNER);
+        List<CatalogObjectNameReference> references = Collections.singletonList(new CatalogObjectNameReference("bucket",
+                                                                                                                PROJECT_NAME,
+                                                                                                                NAME));
+        when(restApiAccessService.getAccessibleBucketOwners("sessionId")).thenReturn(owners);
+        when(catalogObjectRevisionRepository.findCatalogObjectNameReferenceByKindAndContentTypeInBucketsOwnedBy(owners,
+                                                                                                                "workflow",
+                                                                                                                "")).thenReturn(references);
+
+        assertThat(catalogObjectService.getAccessibleCatalogObjectsNameReferenceByKindAndContentType(true,
+                                                                                                     "sessionId",
+                                                                                                     Optional.of("workflow"),
+                                                                                                     Optional.empty())).isEqualTo(references);
+        verify(restApiAccessService, times(1)).getAccessibleBucketOwners("sessionId");
+        verify(bucketRepository, times(0)).findAll();
+    }
+
 }
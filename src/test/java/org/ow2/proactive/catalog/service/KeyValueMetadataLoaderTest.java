@@ -0,0 +1,111 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.ow2.proactive.catalog.repository.CatalogObjectRevisionRepository;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class KeyValueMetadataLoaderTest {
+
+    @InjectMocks
+    private KeyValueMetadataLoader keyValueMetadataLoader;
+
+    @Mock
+    private CatalogObjectRevisionRepository catalogObjectRevisionRepository;
+
+    @Test
+    public void testMetadataIsGroupedByRevision() {
+        when(catalogObjectRevisionRepository.findKeyValueMetadataOfRevisions(Arrays.asList(1L,
+                                                                                           2L))).thenReturn(Arrays.asList(new Object[] { 1L,
+                                                                                                                                         "key1",
+                                                                                                                                         "value1",
+                                                                                                                                         "label" },
+                                                                                                                          new Object[] { 2L,
+                                                                                                                                         "key2",
+                                                                                                                                         "value2",
+                                                                                                                                         "label" },
+                                                                                                                          new Object[] { 1L,
+                                                                                                                                         "key3",
+                                                                                                                                         "value3",
+                                                                                                                                         "label" }));
+
+        Map<Long, List<Metadata>> metadataByRevisionId = keyValueMetadataLoader.findMetadataByRevisionId(Arrays.asList(1L,
+                                                                                                                       2L));
+
+        assertThat(metadataByRevisionId.get(1L)).containsExactly(new Metadata("key1", "value1", "label"),
+                                                                 new Metadata("key3", "value3", "label"))
+                                                .inOrder();
+        assertThat(metadataByRevisionId.get(2L)).containsExactly(new Metadata("key2", "value2", "label"));
+    }
+
+    @Test
+    public void testMetadataIsReadOneBatchOfRevisionsAtATime() {
+        List<Long> revisionIds = LongStream.range(0, KeyValueMetadataLoader.BATCH_SIZE + 1)
+                                           .boxed()
+                                           .collect(Collectors.toList());
+        when(catalogObjectRevisionRepository.findKeyValueMetadataOfRevisions(anyCollection())).thenReturn(Collections.emptyList());
+
+        keyValueMetadataLoader.findMetadataByRevisionId(revisionIds);
+
+        verify(catalogObjectRevisionRepository, times(2)).findKeyValueMetadataOfRevisions(anyCollection());
+    }
+
+    @Test
+    public void testInitializedKeyValuesAreNotReadAgain() {
+        CatalogObjectRevisionEntity revision = new CatalogObjectRevisionEntity();
+        revision.setId(1L);
+
+        keyValueMetadataLoader.load(Collections.singletonList(revision));
+
+        verify(catalogObjectRevisionRepository, never()).fetchKeyValueMetadata(anyCollection());
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.catalog.dto.CatalogObjectMetadata;
+import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.dto.Metadata;
+import org.springframework.hateoas.Link;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class LatestRevisionCacheTest {
+
+    private LatestRevisionCache latestRevisionCache;
+
+    private AtomicInteger loadCount;
+
+    private Supplier<CatalogObjectMetadata> metadataLoader;
+
+    @Before
+    public void setUp() {
+        latestRevisionCache = new LatestRevisionCache();
+        latestRevisionCache.initCaches(1024 * 1024, 1024 * 1024);
+        loadCount = new AtomicInteger();
+        metadataLoader = () -> newMetadata(loadCount.incrementAndGet());
+    }
+
+    @After
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(latestRevisionCache);
+    }
+
+    @Test
+    public void testThatMetadataAreLoadedOnce() {
+        CatalogObjectMetadata first = latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+        CatalogObjectMetadata second = latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(second).isNotSameAs(first);
+        assertThat(latestRevisionCache.getMetadataHitCount()).isEqualTo(1);
+        assertThat(latestRevisionCache.getMetadataMissCount()).isEqualTo(1);
+        assertThat(latestRevisionCache.getMetadataHitRate()).isWithin(0.001).of(0.5);
+    }
+
+    @Test
+    public void testThatChangesOfTheReturnedMetadataAreNotCached() {
+        CatalogObjectMetadata first = latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+        first.add(new Link("http://localhost/buckets/bucket/resources/name"));
+        first.getMetadataList().get(0).setValue("changed");
+
+        CatalogObjectMetadata second = latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+
+        assertThat(second.getLinks()).isEmpty();
+        assertThat(second.getMetadataList().get(0).getValue()).isEqualTo("value");
+    }
+
+    @Test
+    public void testThatRawObjectsAreLoadedOnce() {
+        Supplier<CatalogRawObject> rawObjectLoader = () -> newRawObject(loadCount.incrementAndGet());
+
+        CatalogRawObject first = latestRevisionCache.getRawObject("bucket", "name", rawObjectLoader);
+        CatalogRawObject second = latestRevisionCache.getRawObject("bucket", "name", rawObjectLoader);
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getRawObject()).isEqualTo("content".getBytes());
+        assertThat(second.getHash()).isEqualTo(first.getHash());
+        assertThat(latestRevisionCache.getRawObjectHitCount()).isEqualTo(1);
+        assertThat(latestRevisionCache.getRawObjectMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThatInvalidatedObjectIsReloaded() {
+        latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+        latestRevisionCache.getMetadata("bucket", "other", metadataLoader);
+
+        latestRevisionCache.invalidate("bucket", "name");
+
+        assertThat(latestRevisionCache.getMetadata("bucket", "name", metadataLoader).getCommitTimeRaw()).isEqualTo("3");
+        assertThat(latestRevisionCache.getMetadata("bucket", "other", metadataLoader).getCommitTimeRaw()).isEqualTo("2");
+    }
+
+    @Test
+    public void testThatInvalidatedBucketIsReloaded() {
+        latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+        latestRevisionCache.getMetadata("other-bucket", "name", metadataLoader);
+
+        latestRevisionCache.invalidateBucket("bucket");
+
+        assertThat(latestRevisionCache.getMetadata("bucket", "name", metadataLoader).getCommitTimeRaw()).isEqualTo("3");
+        assertThat(latestRevisionCache.getMetadata("other-bucket", "name", metadataLoader)
+                                      .getCommitTimeRaw()).isEqualTo("2");
+
+        latestRevisionCache.invalidateAll();
+
+        assertThat(latestRevisionCache.getMetadata("other-bucket", "name", metadataLoader)
+                                      .getCommitTimeRaw()).isEqualTo("4");
+    }
+
+    @Test
+    public void testThatFailedLoadIsNotCached() {
+        try {
+            latestRevisionCache.getMetadata("bucket", "name", () -> {
+                throw new IllegalStateException("not found");
+            });
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertThat(latestRevisionCache.getMetadata("bucket", "name", metadataLoader).getCommitTimeRaw()).isEqualTo("1");
+    }
+
+    @Test
+    public void testThatModifyingTransactionReadsTheDatabaseUntilItCompletes() {
+        latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+
+        TransactionSynchronizationManager.initSynchronization();
+        latestRevisionCache.invalidate("bucket", "name");
+        latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+        latestRevisionCache.getMetadata("bucket", "name", metadataLoader);
+        assertThat(loadCount.get()).isEqualTo(3);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(latestRevisionCache.getMetadata("bucket", "name", metadataLoader).getCommitTimeRaw()).isEqualTo("4");
+        assertThat(latestRevisionCache.getMetadata("bucket", "name", metadataLoader).getCommitTimeRaw()).isEqualTo("4");
+    }
+
+    @Test
+    public void testThatLoadRacingWithAChangeIsNotCached() {
+        latestRevisionCache.getMetadata("bucket", "name", () -> {
+            CatalogObjectMetadata staleMetadata = metadataLoader.get();
+            latestRevisionCache.invalidate("bucket", "name");
+            return staleMetadata;
+        });
+
+        assertThat(latestRevisionCache.getMetadata("bucket", "name", metadataLoader).getCommitTimeRaw()).isEqualTo("2");
+    }
+
+    private static CatalogObjectMetadata newMetadata(long commitTime) {
+        return new CatalogObjectMetadata("bucket",
+                                         "name",
+                                         "project",
+                                         "workflow/standard",
+                                         "application/xml",
+                                         commitTime,
+                                         "commit message",
+                                         "username",
+                                         newMetadataList(),
+                                         "xml");
+    }
+
+    private static CatalogRawObject newRawObject(long commitTime) {
+        return new CatalogRawObject("bucket",
+                                    "name",
+                                    "project",
+                                    "workflow/standard",
+                                    "application/xml",
+                                    commitTime,
+                                    "commit message",
+                                    "username",
+                                    newMetadataList(),
+                                    "content".getBytes(),
+                                    "xml");
+    }
+
+    private static List<Metadata> newMetadataList() {
+        List<Metadata> metadataList = new ArrayList<>();
+        metadataList.add(new Metadata("key", "value", "label"));
+        return metadataList;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+import org.ow2.proactive.catalog.util.parser.WorkflowParser;
+
+import com.google.common.collect.ImmutableMap;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class ParseResultCacheTest {
+
+    private static final byte[] CONTENT = "<job name=\"job\"/>".getBytes();
+
+    private ParseResultCache parseResultCache;
+
+    private AtomicInteger parseCount;
+
+    private Supplier<List<KeyValueLabelMetadataEntity>> parser;
+
+    @Before
+    public void setUp() {
+        parseResultCache = new ParseResultCache();
+        parseResultCache.initCaches(1024 * 1024, 1024 * 1024);
+        parseCount = new AtomicInteger();
+        parser = () -> {
+            parseCount.incrementAndGet();
+            return new ArrayList<>(Arrays.asList(new KeyValueLabelMetadataEntity("variable",
+                                                                                 "job",
+                                                                                 WorkflowParser.ATTRIBUTE_VARIABLE_LABEL),
+                                                 new KeyValueLabelMetadataEntity("group",
+                                                                                 "user",
+                                                                                 WorkflowParser.ATTRIBUTE_GENERIC_INFORMATION_LABEL)));
+        };
+    }
+
+    @Test
+    public void testThatIdenticalContentIsParsedOnce() {
+        List<KeyValueLabelMetadataEntity> first = parseResultCache.getExtractedMetadata("workflow/standard",
+                                                                                        CONTENT,
+                                                                                        parser);
+        List<KeyValueLabelMetadataEntity> second = parseResultCache.getExtractedMetadata("workflow/standard",
+                                                                                         CONTENT.clone(),
+                                                                                         parser);
+
+        assertThat(parseCount.get()).isEqualTo(1);
+        assertThat(second).containsExactlyElementsIn(first).inOrder();
+        assertThat(parseResultCache.getMetadataHitCount()).isEqualTo(1);
+        assertThat(parseResultCache.getMetadataMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThatOtherKindOrContentIsParsedAgain() {
+        parseResultCache.getExtractedMetadata("workflow/standard", CONTENT, parser);
+        parseResultCache.getExtractedMetadata("script", CONTENT, parser);
+        parseResultCache.getExtractedMetadata("workflow/standard", "<job name=\"other\"/>".getBytes(), parser);
+
+        assertThat(parseCount.get()).isEqualTo(3);
+        assertThat(parseResultCache.getMetadataHitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testThatCachedMetadataIsNotModifiedByCallers() {
+        List<KeyValueLabelMetadataEntity> first = parseResultCache.getExtractedMetadata("workflow/standard",
+                                                                                        CONTENT,
+                                                                                        parser);
+        first.get(1).setValue("admin");
+        first.clear();
+
+        List<KeyValueLabelMetadataEntity> second = parseResultCache.getExtractedMetadata("workflow/standard",
+                                                                                         CONTENT,
+                                                                                         parser);
+
+        assertThat(second).hasSize(2);
+        assertThat(second.get(1).getValue()).isEqualTo("user");
+    }
+
+    @Test
+    public void testThatWorkflowIsRewrittenOncePerValues() {
+        AtomicInteger rewriteCount = new AtomicInteger();
+        Function<byte[], byte[]> rewriter = workflow -> {
+            rewriteCount.incrementAndGet();
+            return workflow.clone();
+        };
+
+        parseResultCache.getRewrittenWorkflow(CONTENT, ImmutableMap.of("group", "user"), "job", "", rewriter);
+        byte[] rewritten = parseResultCache.getRewrittenWorkflow(CONTENT,
+                                                                 ImmutableMap.of("group", "user"),
+                                                                 "job",
+                                                                 "",
+                                                                 rewriter);
+        parseResultCache.getRewrittenWorkflow(CONTENT, ImmutableMap.of("group", "admin"), "job", "", rewriter);
+        parseResultCache.getRewrittenWorkflow(CONTENT, ImmutableMap.of("group", "user"), "job", "project", rewriter);
+        parseResultCache.getRewrittenWorkflow(CONTENT, Collections.emptyMap(), "other", "", rewriter);
+
+        assertThat(rewritten).isEqualTo(CONTENT);
+        assertThat(rewriteCount.get()).isEqualTo(4);
+        assertThat(parseResultCache.getRewriteHitCount()).isEqualTo(1);
+        assertThat(parseResultCache.getRewriteMissCount()).isEqualTo(4);
+    }
+}
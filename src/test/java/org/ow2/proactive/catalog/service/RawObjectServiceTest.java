@@ -0,0 +1,395 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.repository.RawObjectRepository;
+import org.ow2.proactive.catalog.repository.entity.BucketEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
+import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.repository.entity.RawObjectCodec;
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.ow2.proactive.catalog.service.store.RawObjectDelta;
+import org.ow2.proactive.catalog.service.store.RawObjectStore;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.base.Strings;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RawObjectServiceTest {
+
+    private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+    private static final String CONTENT_HASH = "ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73";
+
+    @InjectMocks
+    private RawObjectService rawObjectService;
+
+    @Mock
+    private RawObjectRepository rawObjectRepository;
+
+    @Mock
+    private RawObjectStore rawObjectStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void setUp() {
+        rawObjectService.codecName = "gzip";
+        rawObjectService.codecMinSize = 512;
+        rawObjectService.deltaKeyframeInterval = 3;
+        rawObjectService.deltaCacheMaxSize = 1024 * 1024;
+        rawObjectService.init();
+    }
+
+    @Test
+    public void testHashIsTheHexSha256OfTheContent() {
+        assertThat(RawObjectService.computeHash(CONTENT)).isEqualTo(CONTENT_HASH);
+    }
+
+    @Test
+    public void testNewContentIsInsertedThenReferenced() {
+        givenNewContent(CONTENT);
+
+        RawObjectEntity rawObject = rawObjectService.store(CONTENT);
+
+        assertThat(rawObject.getHash()).isEqualTo(CONTENT_HASH);
+        assertThat(rawObject.getContentLength()).isEqualTo(CONTENT.length);
+        assertThat(rawObject.getReferenceCount()).isEqualTo(0L);
+        assertThat(rawObject.getCodec()).isEqualTo(RawObjectCodec.NONE);
+        verify(rawObjectStore, times(1)).write(rawObject, CONTENT);
+        verify(rawObjectRepository, times(2)).addToReferenceCount(CONTENT_HASH, 1);
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    public void testContentInsertedConcurrentlyIsReferenced() {
+        RawObjectEntity stored = RawObjectEntity.builder().hash(CONTENT_HASH).build();
+        when(rawObjectRepository.addToReferenceCount(CONTENT_HASH, 1)).thenReturn(0, 1);
+        when(rawObjectRepository.saveAndFlush(any(RawObjectEntity.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(rawObjectRepository.getOne(CONTENT_HASH)).thenReturn(stored);
+
+        assertThat(rawObjectService.store(CONTENT)).isSameAs(stored);
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    public void testFailureToDeleteTheContentInsertedByARolledBackTransactionIsNotThrown() {
+        givenNewContent(CONTENT);
+        when(rawObjectRepository.findUnreferencedForUpdate(anyCollection())).thenThrow(new QueryTimeoutException("timeout"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rawObjectService.store(CONTENT);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(rawObjectRepository, times(1)).findUnreferencedForUpdate(Collections.singletonList(CONTENT_HASH));
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStoreGivesUpWhenTheInsertedContentKeepsDisappearing() {
+        when(rawObjectRepository.saveAndFlush(any(RawObjectEntity.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        rawObjectService.store(CONTENT);
+    }
+
+    @Test
+    public void testLargeContentIsStoredCompressed() {
+        byte[] content = Strings.repeat("<task name=\"task\"/>", 100).getBytes(StandardCharsets.UTF_8);
+        givenNewContent(content);
+
+        RawObjectEntity rawObject = rawObjectService.store(content);
+
+        assertThat(rawObject.getCodec()).isEqualTo(RawObjectCodec.GZIP);
+        assertThat(rawObject.getContentLength()).isEqualTo(content.length);
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(rawObjectStore, times(1)).write(any(RawObjectEntity.class), stored.capture());
+        assertThat(rawObject.getStoredLength()).isEqualTo((long) stored.getValue().length);
+        assertThat(stored.getValue().length).isLessThan(content.length);
+        assertThat(RawObjectCodec.GZIP.decode(stored.getValue())).isEqualTo(content);
+    }
+
+    @Test
+    public void testCompressedContentIsDecodedOnRead() {
+        byte[] content = Strings.repeat("content", 100).getBytes(StandardCharsets.UTF_8);
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(CONTENT_HASH).codec(RawObjectCodec.GZIP).build();
+        CatalogObjectRevisionEntity revision = new CatalogObjectRevisionEntity();
+        revision.setRawObjectEntity(rawObject);
+        when(rawObjectStore.read(rawObject)).thenReturn(RawObjectCodec.GZIP.encode(content));
+
+        assertThat(rawObjectService.getContent(revision)).isEqualTo(content);
+    }
+
+    @Test
+    public void testRawObjectIsDescribedWithoutReadingItsContent() throws Exception {
+        byte[] content = Strings.repeat("content", 100).getBytes(StandardCharsets.UTF_8);
+        byte[] stored = RawObjectCodec.GZIP.encode(content);
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(CONTENT_HASH).codec(RawObjectCodec.GZIP).build();
+        CatalogObjectRevisionEntity revision = CatalogObjectRevisionEntity.builder()
+                                                                          .id(1L)
+                                                                          .catalogObject(CatalogObjectEntity.builder()
+                                                                                                            .bucket(new BucketEntity("bucket",
+                                                                                                                                     "owner"))
+                                                                                                            .id(new CatalogObjectEntity.CatalogObjectEntityKey(1L,
+                                                                                                                                                               "name"))
+                                                                                                            .build())
+                                                                          .build();
+        when(rawObjectRepository.findDescriptionOfRevision(1L)).thenReturn(Collections.singletonList(new Object[] { CONTENT_HASH,
+                                                                                                                    (long) content.length,
+                                                                                                                    RawObjectCodec.GZIP,
+                                                                                                                    (long) stored.length,
+                                                                                                                    null }));
+
+        CatalogRawObject catalogRawObject = rawObjectService.getCatalogRawObject(revision);
+
+        assertThat(catalogRawObject.getHash()).isEqualTo(CONTENT_HASH);
+        assertThat(catalogRawObject.getRawObjectLength()).isEqualTo((long) content.length);
+        assertThat(catalogRawObject.getContentEncoding()).isEqualTo("gzip");
+        assertThat(catalogRawObject.getEncodedRawObjectLength()).isEqualTo((long) stored.length);
+        verify(rawObjectRepository, never()).findOne(anyString());
+        verify(rawObjectStore, never()).open(any(RawObjectEntity.class));
+
+        when(rawObjectRepository.findOne(CONTENT_HASH)).thenReturn(rawObject);
+        when(rawObjectStore.open(rawObject)).thenReturn(new ByteArrayResource(stored));
+
+        assertThat(catalogRawObject.getRawObject()).isEqualTo(content);
+    }
+
+    @Test
+    public void testRawObjectsStoredWithoutCodecAreEncoded() {
+        byte[] content = Strings.repeat("content", 100).getBytes(StandardCharsets.UTF_8);
+        RawObjectEntity inline = RawObjectEntity.builder().hash("hash1").content(content).build();
+        RawObjectEntity external = RawObjectEntity.builder().hash("hash2").build();
+        when(rawObjectRepository.findWithoutCodec(any(Pageable.class))).thenReturn(Arrays.asList(inline, external));
+
+        assertThat(rawObjectService.encodeRawObjects(50)).isEqualTo(2);
+
+        assertThat(inline.getCodec()).isEqualTo(RawObjectCodec.GZIP);
+        assertThat(RawObjectCodec.GZIP.decode(inline.getContent())).isEqualTo(content);
+        assertThat(external.getCodec()).isEqualTo(RawObjectCodec.NONE);
+    }
+
+    @Test
+    public void testKnownContentIsReferencedAgain() {
+        RawObjectEntity stored = RawObjectEntity.builder().hash(CONTENT_HASH).build();
+        when(rawObjectRepository.addToReferenceCount(CONTENT_HASH, 1)).thenReturn(1);
+        when(rawObjectRepository.getOne(CONTENT_HASH)).thenReturn(stored);
+
+        assertThat(rawObjectService.store(CONTENT)).isSameAs(stored);
+        verify(rawObjectRepository, never()).saveAndFlush(any(RawObjectEntity.class));
+        verify(rawObjectStore, never()).write(any(RawObjectEntity.class), any(byte[].class));
+    }
+
+    @Test
+    public void testReleaseDropsOneReferencePerRevision() {
+        List<String> unreferencedHashes = Collections.singletonList("hash2");
+        when(rawObjectRepository.findUnreferencedForUpdate(anyCollection())).thenReturn(unreferencedHashes);
+
+        rawObjectService.release(Arrays.asList("hash1", "hash2", "hash1"));
+
+        verify(rawObjectRepository, times(1)).flush();
+        verify(rawObjectRepository, times(1)).addToReferenceCount("hash1", -2L);
+        verify(rawObjectRepository, times(1)).addToReferenceCount("hash2", -1L);
+        ArgumentCaptor<Collection> released = ArgumentCaptor.forClass(Collection.class);
+        verify(rawObjectRepository, times(1)).findUnreferencedForUpdate(released.capture());
+        assertThat(new HashSet<>(released.getValue())).containsExactly("hash1", "hash2");
+        verify(rawObjectRepository, times(1)).deleteUnreferenced(unreferencedHashes);
+        verify(rawObjectStore, times(1)).delete(unreferencedHashes);
+    }
+
+    @Test
+    public void testReleaseKeepsReferencedRawObjects() {
+        when(rawObjectRepository.findUnreferencedForUpdate(anyCollection())).thenReturn(Collections.emptyList());
+
+        rawObjectService.release(Collections.singletonList("hash1"));
+
+        verify(rawObjectRepository, never()).deleteUnreferenced(anyCollection());
+        verify(rawObjectStore, never()).delete(anyCollection());
+    }
+
+    @Test
+    public void testContentIsReadFromTheStore() {
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(CONTENT_HASH).build();
+        CatalogObjectRevisionEntity revision = new CatalogObjectRevisionEntity();
+        revision.setRawObjectEntity(rawObject);
+        when(rawObjectStore.read(rawObject)).thenReturn(CONTENT);
+
+        assertThat(rawObjectService.getContent(revision)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testRevisionWithoutRawObjectHasNoContent() {
+        CatalogObjectRevisionEntity revision = new CatalogObjectRevisionEntity();
+
+        assertThat(rawObjectService.getContent(revision)).isNull();
+        assertThat(rawObjectService.getContentLength(revision)).isEqualTo(0L);
+        verify(rawObjectStore, never()).read(any(RawObjectEntity.class));
+    }
+
+    @Test
+    public void testContentIsStoredAsADeltaAgainstItsBase() {
+        byte[] baseContent = workflow("task");
+        byte[] content = workflow("renamed");
+        RawObjectEntity base = RawObjectEntity.builder().hash("base").codec(RawObjectCodec.NONE).build();
+        when(rawObjectStore.read(base)).thenReturn(baseContent);
+        givenNewContent(content);
+
+        RawObjectEntity rawObject = rawObjectService.store(content, base);
+
+        assertThat(rawObject.getBaseHash()).isEqualTo("base");
+        assertThat(rawObject.getDeltaDepth()).isEqualTo(1);
+        assertThat(rawObject.getContentLength()).isEqualTo(content.length);
+        verify(rawObjectRepository, times(1)).addToReferenceCount("base", 1);
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(rawObjectStore, times(1)).write(any(RawObjectEntity.class), stored.capture());
+        assertThat(stored.getValue().length).isLessThan(content.length / 2);
+
+        when(rawObjectStore.read(rawObject)).thenReturn(stored.getValue());
+        when(rawObjectRepository.findOne("base")).thenReturn(base);
+        CatalogObjectRevisionEntity revision = new CatalogObjectRevisionEntity();
+        revision.setRawObjectEntity(rawObject);
+        assertThat(rawObjectService.getContent(revision)).isEqualTo(content);
+    }
+
+    @Test
+    public void testContentIsStoredInFullAtTheKeyframeInterval() {
+        RawObjectEntity base = RawObjectEntity.builder().hash("base").deltaDepth(2).build();
+        givenNewContent(workflow("renamed"));
+
+        RawObjectEntity rawObject = rawObjectService.store(workflow("renamed"), base);
+
+        assertThat(rawObject.getBaseHash()).isNull();
+        assertThat(rawObject.getDeltaDepth()).isNull();
+        verify(rawObjectRepository, never()).addToReferenceCount("base", 1);
+        verify(rawObjectStore, never()).read(base);
+    }
+
+    @Test
+    public void testRebuiltContentIsCached() {
+        byte[] baseContent = workflow("task");
+        byte[] content = workflow("renamed");
+        RawObjectEntity base = RawObjectEntity.builder().hash("base").build();
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash("delta").baseHash("base").deltaDepth(1).build();
+        when(rawObjectStore.read(base)).thenReturn(baseContent);
+        when(rawObjectStore.read(rawObject)).thenReturn(RawObjectDelta.compute(baseContent, content));
+        when(rawObjectRepository.findOne("base")).thenReturn(base);
+        CatalogObjectRevisionEntity revision = new CatalogObjectRevisionEntity();
+        revision.setRawObjectEntity(rawObject);
+
+        assertThat(rawObjectService.getContent(revision)).isEqualTo(content);
+        assertThat(rawObjectService.getContent(revision)).isEqualTo(content);
+
+        verify(rawObjectStore, times(1)).read(rawObject);
+        verify(rawObjectStore, times(1)).read(base);
+        assertThat(rawObjectService.getRebuiltContentHitCount()).isEqualTo(1L);
+        assertThat(rawObjectService.getRebuiltContentMissCount()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testReleasingADeltaReleasesItsBase() {
+        List<String> deltaHash = Collections.singletonList("delta");
+        when(rawObjectRepository.findUnreferencedForUpdate(Collections.singleton("delta"))).thenReturn(deltaHash);
+        when(rawObjectRepository.findBaseHashes(deltaHash)).thenReturn(Collections.singletonList("base"));
+
+        rawObjectService.release(deltaHash);
+
+        verify(rawObjectRepository, times(1)).addToReferenceCount("delta", -1L);
+        verify(rawObjectRepository, times(1)).addToReferenceCount("base", -1L);
+    }
+
+    @Test
+    public void testReleaseWithoutHashesDoesNothing() {
+        rawObjectService.release(Collections.emptyList());
+
+        verify(rawObjectRepository, never()).addToReferenceCount(anyString(), anyLong());
+        verify(rawObjectRepository, never()).deleteUnreferenced(anyCollection());
+    }
+
+    /**
+     * Stubs the repository so that the content is unknown until inserted, the inserted raw object
+     * being the one referenced afterwards.
+     */
+    private void givenNewContent(byte[] content) {
+        String hash = RawObjectService.computeHash(content);
+        RawObjectEntity[] inserted = new RawObjectEntity[1];
+        when(rawObjectRepository.addToReferenceCount(hash, 1)).thenReturn(0, 1);
+        when(rawObjectRepository.saveAndFlush(any(RawObjectEntity.class))).thenAnswer(invocation -> {
+            inserted[0] = (RawObjectEntity) invocation.getArguments()[0];
+            return inserted[0];
+        });
+        when(rawObjectRepository.getOne(hash)).thenAnswer(invocation -> inserted[0]);
+    }
+
+    private static byte[] workflow(String taskName) {
+        StringBuilder workflow = new StringBuilder("<job name=\"job\">\n");
+        for (int i = 0; i < 50; i++) {
+            workflow.append("  <task name=\"").append(i == 25 ? taskName : "task" + i).append("\"/>\n");
+        }
+        return workflow.append("</job>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -25,19 +25,23 @@
  */
 package org.ow2.proactive.catalog.service;
 
+import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.ow2.proactive.catalog.dto.BucketMetadata;
 import org.ow2.proactive.catalog.service.exception.AccessDeniedException;
 import org.ow2.proactive.catalog.service.model.AuthenticatedUser;
+import org.ow2.proactive.catalog.service.model.RegisteredBucket;
 import org.ow2.proactive.microservices.common.exception.NotAuthenticatedException;
 
 
@@ -58,7 +62,7 @@ public class RestApiAccessServiceTest {
     private SchedulerUserAuthenticationService schedulerUserAuthenticationService;
 
     @Mock
-    private BucketService bucketService;
+    private BucketRegistry bucketRegistry;
 
     @Test
     public void testSessionIdIsHandedToAuthenticationService() throws NotAuthenticatedException, AccessDeniedException {
@@ -69,9 +73,9 @@ public class RestApiAccessServiceTest {
 
         when(authorizationService.askUserAuthorizationByBucketOwner(any(), any())).thenReturn(true);
 
-        BucketMetadata bucketMetadata = new BucketMetadata("name", BucketService.DEFAULT_BUCKET_OWNER);
+        RegisteredBucket bucket = new RegisteredBucket(1L, "name", BucketService.DEFAULT_BUCKET_OWNER);
 
-        when(bucketService.getBucketMetadata(any())).thenReturn(bucketMetadata);
+        when(bucketRegistry.getBucket(any())).thenReturn(bucket);
 
         restApiAccessService.getUserDataFromSessionidAndCheckAccess(true, "testSessionId", "test");
 
@@ -87,9 +91,9 @@ public class RestApiAccessServiceTest {
 
         when(authorizationService.askUserAuthorizationByBucketOwner(any(), any())).thenReturn(true);
 
-        BucketMetadata bucketMetadata = new BucketMetadata("name", BucketService.DEFAULT_BUCKET_OWNER);
+        RegisteredBucket bucket = new RegisteredBucket(1L, "name", BucketService.DEFAULT_BUCKET_OWNER);
 
-        when(bucketService.getBucketMetadata(any())).thenReturn(bucketMetadata);
+        when(bucketRegistry.getBucket(any())).thenReturn(bucket);
 
         restApiAccessService.getUserDataFromSessionidAndCheckAccess(true, "testSessionId", null);
 
@@ -98,17 +102,17 @@ public class RestApiAccessServiceTest {
     }
 
     @Test
-    public void testThatBucketServiceRequestsCorrectBucketId() throws NotAuthenticatedException, AccessDeniedException {
+    public void testThatBucketRegistryRequestsCorrectBucketOnce() throws NotAuthenticatedException, AccessDeniedException {
 
         when(schedulerUserAuthenticationService.authenticateBySessionId(any())).thenReturn(AuthenticatedUser.EMPTY);
 
         when(authorizationService.askUserAuthorizationByBucketOwner(any(), any())).thenReturn(true);
 
-        when(bucketService.getBucketMetadata("bucket-name")).thenReturn(new BucketMetadata("bucket-name", "owner"));
+        when(bucketRegistry.getBucket("bucket-name")).thenReturn(new RegisteredBucket(1L, "bucket-name", "owner"));
 
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(true, "testSessionId", "bucket-name");
 
-        verify(bucketService, times(2)).getBucketMetadata("bucket-name");
+        verify(bucketRegistry, times(1)).getBucket("bucket-name");
 
     }
 
@@ -120,7 +124,7 @@ public class RestApiAccessServiceTest {
 
         when(authorizationService.askUserAuthorizationByBucketOwner(any(), any())).thenReturn(true);
 
-        when(bucketService.getBucketMetadata("bucket-name")).thenReturn(new BucketMetadata("bucket-name", "owner"));
+        when(bucketRegistry.getBucket("bucket-name")).thenReturn(new RegisteredBucket(1L, "bucket-name", "owner"));
 
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(true, "testSessionId", "bucket-name");
 
@@ -136,10 +140,34 @@ public class RestApiAccessServiceTest {
 
         when(authorizationService.askUserAuthorizationByBucketOwner(any(), any())).thenReturn(false);
 
-        when(bucketService.getBucketMetadata("bucket-name")).thenReturn(new BucketMetadata("bucket-name", "owner"));
+        when(bucketRegistry.getBucket("bucket-name")).thenReturn(new RegisteredBucket(1L, "bucket-name", "owner"));
 
         restApiAccessService.checkAccessBySessionIdForBucketAndThrowIfDeclined(true, "testSessionId", "bucket-name");
 
     }
 
+    @Test
+    public void testAccessibleBucketOwnersAreComputedFromASingleAuthentication() {
+        AuthenticatedUser authenticatedUser = AuthenticatedUser.builder()
+                                                               .name("user")
+                                                               .groups(Collections.singletonList("group"))
+                                                               .build();
+        Set<String> owners = Collections.singleton(BucketService.DEFAULT_BUCKET_OWNER);
+
+        when(schedulerUserAuthenticationService.authenticateBySessionId("testSessionId")).thenReturn(authenticatedUser);
+        when(authorizationService.getAuthorizedBucketOwners(authenticatedUser)).thenReturn(owners);
+
+        assertThat(restApiAccessService.getAccessibleBucketOwners("testSessionId")).isEqualTo(owners);
+        verify(schedulerUserAuthenticationService, times(1)).authenticateBySessionId("testSessionId");
+        verify(bucketRegistry, times(0)).getBucket(any());
+    }
+
+    @Test
+    public void testOnlyPublicBucketsAreAccessibleWithARejectedSession() {
+        when(schedulerUserAuthenticationService.authenticateBySessionId("testSessionId")).thenThrow(new NotAuthenticatedException("SessionId is invalid"));
+
+        assertThat(restApiAccessService.getAccessibleBucketOwners("testSessionId")).containsExactly(BucketService.DEFAULT_BUCKET_OWNER);
+        verify(authorizationService, times(0)).getAuthorizedBucketOwners(any());
+    }
+
 }
@@ -27,11 +27,15 @@ package org.ow2.proactive.catalog.service;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.HashSet;
 
+import javax.ws.rs.ProcessingException;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -71,7 +75,9 @@ public class SchedulerUserAuthenticationServiceTest {
         userData.setGroups(new HashSet<>(Arrays.asList("user", "technical")));
         when(schedulerRestInterfaceMock.getUserDataFromSessionId(any())).thenReturn(userData);
         when(schedulerRestClientMock.getScheduler()).thenReturn(schedulerRestInterfaceMock);
-        when(schedulerRestClientCreator.getNewClientInitializedWithSchedulerRestUrl()).thenReturn(schedulerRestClientMock);
+        when(schedulerRestClientCreator.getSchedulerRestClient()).thenReturn(schedulerRestClientMock);
+        schedulerUserAuthenticationService.initSessionCaches(100, 60, 300, 5);
+        schedulerUserAuthenticationService.initCircuitBreaker(2, 60000);
     }
 
     @Test(expected = NotAuthenticatedException.class)
@@ -100,4 +106,51 @@ public class SchedulerUserAuthenticationServiceTest {
         assertThat(authenticatedUser.getGroups()).containsExactly("user", "technical");
     }
 
+    @Test
+    public void testThatAuthenticatedSessionIsValidatedOnlyOnceByTheScheduler() throws NotAuthenticatedException {
+        schedulerUserAuthenticationService.authenticateBySessionId("session");
+        AuthenticatedUser authenticatedUser = schedulerUserAuthenticationService.authenticateBySessionId("session");
+        assertThat(authenticatedUser.getName()).isEqualTo("testUser");
+        verify(schedulerRestInterfaceMock, times(1)).getUserDataFromSessionId("session");
+    }
+
+    @Test
+    public void testThatRejectedSessionIsNotSentAgainToTheScheduler() {
+        when(schedulerRestInterfaceMock.getUserDataFromSessionId(any())).thenReturn(null);
+        for (int i = 0; i < 2; i++) {
+            try {
+                schedulerUserAuthenticationService.authenticateBySessionId("rejected");
+            } catch (NotAuthenticatedException expected) {
+                // expected
+            }
+        }
+        verify(schedulerRestInterfaceMock, times(1)).getUserDataFromSessionId("rejected");
+    }
+
+    @Test
+    public void testThatUnreachableSchedulerFailureIsNotRemembered() {
+        when(schedulerRestInterfaceMock.getUserDataFromSessionId(any())).thenThrow(NullPointerException.class);
+        for (int i = 0; i < 2; i++) {
+            try {
+                schedulerUserAuthenticationService.authenticateBySessionId("unreachable");
+            } catch (NotAuthenticatedException expected) {
+                // expected
+            }
+        }
+        verify(schedulerRestInterfaceMock, times(2)).getUserDataFromSessionId("unreachable");
+    }
+
+    @Test
+    public void testThatUnreachableSchedulerOpensTheCircuitBreaker() {
+        when(schedulerRestInterfaceMock.getUserDataFromSessionId(any())).thenThrow(new ProcessingException("down"));
+        for (int i = 0; i < 5; i++) {
+            try {
+                schedulerUserAuthenticationService.authenticateBySessionId("session" + i);
+            } catch (NotAuthenticatedException expected) {
+                // expected
+            }
+        }
+        verify(schedulerRestInterfaceMock, times(2)).getUserDataFromSessionId(any());
+    }
+
 }
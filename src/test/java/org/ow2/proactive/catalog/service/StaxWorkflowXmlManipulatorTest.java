@@ -0,0 +1,130 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.ow2.proactive.catalog.service.exception.ParsingObjectException;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class StaxWorkflowXmlManipulatorTest extends WorkflowXmlManipulatorTest {
+
+    private static final String TASK_FLOW = "  <taskFlow>\n" + "    <task name=\"Tâche\">\n" +
+                                            "      <genericInformation>\n" +
+                                            "        <info name=\"insideTaskGenInfo\" value=\"TaskGenInfoValue\"/>\n" +
+                                            "      </genericInformation>\n" + "      <scriptExecutable>\n" +
+                                            "        <script><code language=\"groovy\"><![CDATA[ println 'é' ]]></code></script>\n" +
+                                            "      </scriptExecutable>\n" + "    </task>\n" + "  </taskFlow>\n" +
+                                            "</job>\n";
+
+    @Override
+    protected WorkflowXmlManipulator newWorkflowXmlManipulator() {
+        return new StaxWorkflowXmlManipulator();
+    }
+
+    @Test
+    public void testThatWorkflowIsUnchangedOutsideOfTheJobLevel() {
+        String workflow = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                          "<job xmlns=\"urn:proactive:jobdescriptor:3.8\"   name='old' projectName=\"old\" priority=\"normal\">\n" +
+                          "  <!-- a comment -->\n" + "  <genericInformation>\n" +
+                          "    <info name=\"first\" value=\"value1\"/>\n" + "  </genericInformation>\n" + TASK_FLOW;
+
+        String modifiedWorkflow = new String(workflowXmlManipulator.replaceGenericInformationNameAndProjectNameOnJobLevel(workflow.getBytes(StandardCharsets.UTF_8),
+                                                                                                                         Collections.singletonMap("bucketName",
+                                                                                                                                                  "bucket"),
+                                                                                                                         "new",
+                                                                                                                         "project"),
+                                             StandardCharsets.UTF_8);
+
+        assertThat(modifiedWorkflow).isEqualTo("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                                               "<job xmlns=\"urn:proactive:jobdescriptor:3.8\"   name='new' projectName=\"project\" priority=\"normal\">\n" +
+                                               "  <!-- a comment -->\n" + "  <genericInformation>\n" +
+                                               "    <info name=\"bucketName\" value=\"bucket\"/>\n" +
+                                               "  </genericInformation>\n" + TASK_FLOW);
+    }
+
+    @Test
+    public void testThatUnchangedJobLevelKeepsTheWorkflowBytes() {
+        byte[] modifiedWorkflow = workflowXmlManipulator.replaceOrAddOrRemoveProjectNameOnJobLevel(simpleWorkflowWithoutGenericInfo,
+                                                                                                   "");
+
+        assertThat(modifiedWorkflow).isEqualTo(simpleWorkflowWithoutGenericInfo);
+    }
+
+    @Test
+    public void testThatGenericInfoIsAddedWithTheIndentationOfTheFollowingElement() {
+        String workflow = "<job name=\"old\">\n" + TASK_FLOW;
+
+        String modifiedWorkflow = new String(workflowXmlManipulator.replaceGenericInformationAndNameOnJobLevel(workflow.getBytes(StandardCharsets.UTF_8),
+                                                                                                               Collections.singletonMap("group",
+                                                                                                                                        "public-objects"),
+                                                                                                               "new"),
+                                             StandardCharsets.UTF_8);
+
+        assertThat(modifiedWorkflow).isEqualTo("<job name=\"new\">\n" + "  <genericInformation>\n" +
+                                               "    <info name=\"group\" value=\"public-objects\"/>\n" +
+                                               "  </genericInformation>\n" + TASK_FLOW);
+    }
+
+    @Test
+    public void testThatOriginalEncodingIsKept() {
+        String workflow = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n" + "<job name=\"old\">\n" + TASK_FLOW;
+
+        byte[] modifiedWorkflow = workflowXmlManipulator.replaceOrAddOrRemoveProjectNameOnJobLevel(workflow.getBytes(StandardCharsets.ISO_8859_1),
+                                                                                                   "Projet \"Café\" 日本");
+
+        assertThat(new String(modifiedWorkflow,
+                              StandardCharsets.ISO_8859_1)).isEqualTo("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n" +
+                                                                      "<job name=\"old\" projectName=\"Projet &quot;Café&quot; &#26085;&#26412;\">\n" +
+                                                                      TASK_FLOW);
+    }
+
+    @Test
+    public void testThatProjectNameIsRemovedWithItsLeadingWhitespace() {
+        String workflow = "<job name=\"old\"\n    projectName=\"project\"\n    priority=\"normal\">\n" + TASK_FLOW;
+
+        String modifiedWorkflow = new String(workflowXmlManipulator.replaceOrAddOrRemoveProjectNameOnJobLevel(workflow.getBytes(StandardCharsets.UTF_8),
+                                                                                                              " "),
+                                             StandardCharsets.UTF_8);
+
+        assertThat(modifiedWorkflow).isEqualTo("<job name=\"old\"\n    priority=\"normal\">\n" + TASK_FLOW);
+    }
+
+    @Test(expected = ParsingObjectException.class)
+    public void testThatMalformedWorkflowIsRejected() {
+        workflowXmlManipulator.replaceOrAddOrRemoveProjectNameOnJobLevel("<job name=\"old\"".getBytes(StandardCharsets.UTF_8),
+                                                                         "project");
+    }
+
+}
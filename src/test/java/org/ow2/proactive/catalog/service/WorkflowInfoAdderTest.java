@@ -25,16 +25,20 @@
  */
 package org.ow2.proactive.catalog.service;
 
+import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.ow2.proactive.catalog.util.parser.SupportedParserKinds;
 
@@ -52,17 +56,27 @@ public class WorkflowInfoAdderTest {
     @Mock
     private WorkflowXmlManipulator workflowXmlManipulator;
 
+    @Spy
+    private ParseResultCache parseResultCache = new ParseResultCache();
+
+    @Before
+    public void setUp() {
+        parseResultCache.initCaches(1024 * 1024, 1024 * 1024);
+    }
+
     @Test
     public void testThatWorkflowParserKindTriggersXmlManipulation() {
-        genericInformationAdder.addGenericInformationJobNameToRawObjectIfWorkflow(new byte[] {},
-                                                                                  SupportedParserKinds.WORKFLOW.toString() +
-                                                                                                 "specific-workflow-kind",
-                                                                                  Collections.emptyMap(),
-                                                                                  "");
-
-        verify(workflowXmlManipulator).replaceGenericInformationAndNameOnJobLevel(Mockito.any(),
-                                                                                  Mockito.any(),
-                                                                                  Mockito.any());
+        genericInformationAdder.addGenericInformationJobNameAndProjectNameToRawObjectIfWorkflow(new byte[] {},
+                                                                                                SupportedParserKinds.WORKFLOW.toString() +
+                                                                                                               "specific-workflow-kind",
+                                                                                                Collections.emptyMap(),
+                                                                                                "",
+                                                                                                "");
+
+        verify(workflowXmlManipulator).replaceGenericInformationNameAndProjectNameOnJobLevel(Mockito.any(),
+                                                                                             Mockito.any(),
+                                                                                             Mockito.any(),
+                                                                                             Mockito.any());
     }
 
     @Test
@@ -75,16 +89,42 @@ public class WorkflowInfoAdderTest {
         verify(workflowXmlManipulator).replaceOrAddOrRemoveProjectNameOnJobLevel(Mockito.any(), Mockito.any());
     }
 
+    @Test
+    public void testThatIdenticalWorkflowIsRewrittenOnce() {
+        byte[] rewritten = "<job name=\"job\"/>".getBytes();
+        when(workflowXmlManipulator.replaceGenericInformationNameAndProjectNameOnJobLevel(Mockito.any(),
+                                                                                          Mockito.any(),
+                                                                                          Mockito.any(),
+                                                                                          Mockito.any())).thenReturn(rewritten);
+
+        for (int i = 0; i < 2; i++) {
+            byte[] result = genericInformationAdder.addGenericInformationJobNameAndProjectNameToRawObjectIfWorkflow("<job name=\"other\"/>".getBytes(),
+                                                                                                                   SupportedParserKinds.WORKFLOW.toString(),
+                                                                                                                   Collections.singletonMap("group",
+                                                                                                                                            "user"),
+                                                                                                                   "job",
+                                                                                                                   "");
+            assertThat(result).isEqualTo(rewritten);
+        }
+
+        verify(workflowXmlManipulator).replaceGenericInformationNameAndProjectNameOnJobLevel(Mockito.any(),
+                                                                                             Mockito.any(),
+                                                                                             Mockito.any(),
+                                                                                             Mockito.any());
+    }
+
     @Test
     public void testThatOtherKindNotTriggersXmlManipulation() {
-        genericInformationAdder.addGenericInformationJobNameToRawObjectIfWorkflow(new byte[] {},
-                                                                                  SupportedParserKinds.PCW_RULE.toString(),
-                                                                                  Collections.emptyMap(),
-                                                                                  "");
-
-        verify(workflowXmlManipulator, times(0)).replaceGenericInformationAndNameOnJobLevel(Mockito.any(),
-                                                                                            Mockito.any(),
-                                                                                            Mockito.any());
+        genericInformationAdder.addGenericInformationJobNameAndProjectNameToRawObjectIfWorkflow(new byte[] {},
+                                                                                                SupportedParserKinds.PCW_RULE.toString(),
+                                                                                                Collections.emptyMap(),
+                                                                                                "",
+                                                                                                "");
+
+        verify(workflowXmlManipulator, times(0)).replaceGenericInformationNameAndProjectNameOnJobLevel(Mockito.any(),
+                                                                                                       Mockito.any(),
+                                                                                                       Mockito.any(),
+                                                                                                       Mockito.any());
     }
 
     @Test
@@ -34,18 +34,17 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.junit.Before;
 import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.Spy;
-import org.mockito.runners.MockitoJUnitRunner;
 
 
 /**
+ * Tests shared by the {@link WorkflowXmlManipulator} implementations.
+ *
  * @author ActiveEon Team
  * @since 16/08/2017
  */
-@RunWith(MockitoJUnitRunner.class)
-public class WorkflowXmlManipulatorTest {
+public abstract class WorkflowXmlManipulatorTest {
 
     protected final static String TASK_FLOW_START_TAG = "<taskFlow>";
 
@@ -62,42 +61,42 @@ public class WorkflowXmlManipulatorTest {
     protected final static String GENERIC_INFO_TAG_ENTITY = GENERIC_INFORMATION_START_TAG + "[\\D\\d]*?" +
                                                             GENERIC_INFORMATION_END_TAG + "[\\r\\n]";
 
-    private final byte[] simpleWorkflowWithoutGenericInfo = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + "<job\n" +
-                                                             "  xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
-                                                             "  xmlns=\"urn:proactive:jobdescriptor:3.8\"\n" +
-                                                             "     xsi:schemaLocation=\"urn:proactive:jobdescriptor:3.8 http://www.activeeon.com/public_content/schemas/proactive/jobdescriptor/3.8/schedulerjob.xsd\"\n" +
-                                                             "    name=\"TestGenericInfo\" \n" +
-                                                             "    priority=\"normal\"\n" +
-                                                             "    onTaskError=\"continueJobExecution\"\n" +
-                                                             "     maxNumberOfExecution=\"2\"\n" + ">\n" +
-                                                             "  <taskFlow>\n" + "   " + " <task name=\"Task1\">\n" +
-                                                             "      <scriptExecutable>\n" + "      " + "  <script>\n" +
-                                                             "          <code language=\"python\">\n" +
-                                                             "            <![CDATA[\n" + "for x in range(1, 11):\n" +
-                                                             "    print x\n" + "]]>\n" + "      " + "    </code>\n" +
-                                                             "       " + " </script>\n" +
-                                                             "      </scriptExecutable>\n" + "   " + " </task>\n" +
-                                                             "  </taskFlow>\n" + "</job>").getBytes();
-
-    private final byte[] simpleWorkflowWithGenericInfo = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + "<job\n" +
-                                                          "  xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
-                                                          "  xmlns=\"urn:proactive:jobdescriptor:3.8\"\n" +
-                                                          "     xsi:schemaLocation=\"urn:proactive:jobdescriptor:3.8 http://www.activeeon.com/public_content/schemas/proactive/jobdescriptor/3.8/schedulerjob.xsd\"\n" +
-                                                          "    name=\"TestGenericInfo\" \n" +
-                                                          "    priority=\"normal\"\n" +
-                                                          "    onTaskError=\"continueJobExecution\"\n" +
-                                                          "     maxNumberOfExecution=\"2\"\n" + ">\n" +
-                                                          "  <genericInformation>\n" +
-                                                          "    <info name=\"first\" value=\"value1\"/>\n" +
-                                                          "    <info name=\"second\" value=\"value2\"/>\n" +
-                                                          "  </genericInformation>\n" + "  <taskFlow>\n" +
-                                                          "    <task name=\"Task1\">\n" + "      <scriptExecutable>\n" +
-                                                          "        <script>\n" +
-                                                          "          <code language=\"python\">\n" +
-                                                          "            <![CDATA[\n" + "for x in range(1, 11):\n" +
-                                                          "    print x\n" + "]]>\n" + "          </code>\n" +
-                                                          "        </script>\n" + "      </scriptExecutable>\n" +
-                                                          "    </task>\n" + "  </taskFlow>\n" + "</job>").getBytes();
+    protected final byte[] simpleWorkflowWithoutGenericInfo = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + "<job\n" +
+                                                               "  xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+                                                               "  xmlns=\"urn:proactive:jobdescriptor:3.8\"\n" +
+                                                               "     xsi:schemaLocation=\"urn:proactive:jobdescriptor:3.8 http://www.activeeon.com/public_content/schemas/proactive/jobdescriptor/3.8/schedulerjob.xsd\"\n" +
+                                                               "    name=\"TestGenericInfo\" \n" +
+                                                               "    priority=\"normal\"\n" +
+                                                               "    onTaskError=\"continueJobExecution\"\n" +
+                                                               "     maxNumberOfExecution=\"2\"\n" + ">\n" +
+                                                               "  <taskFlow>\n" + "   " + " <task name=\"Task1\">\n" +
+                                                               "      <scriptExecutable>\n" + "      " + "  <script>\n" +
+                                                               "          <code language=\"python\">\n" +
+                                                               "            <![CDATA[\n" + "for x in range(1, 11):\n" +
+                                                               "    print x\n" + "]]>\n" + "      " + "    </code>\n" +
+                                                               "       " + " </script>\n" +
+                                                               "      </scriptExecutable>\n" + "   " + " </task>\n" +
+                                                               "  </taskFlow>\n" + "</job>").getBytes();
+
+    protected final byte[] simpleWorkflowWithGenericInfo = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + "<job\n" +
+                                                            "  xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+                                                            "  xmlns=\"urn:proactive:jobdescriptor:3.8\"\n" +
+                                                            "     xsi:schemaLocation=\"urn:proactive:jobdescriptor:3.8 http://www.activeeon.com/public_content/schemas/proactive/jobdescriptor/3.8/schedulerjob.xsd\"\n" +
+                                                            "    name=\"TestGenericInfo\" \n" +
+                                                            "    priority=\"normal\"\n" +
+                                                            "    onTaskError=\"continueJobExecution\"\n" +
+                                                            "     maxNumberOfExecution=\"2\"\n" + ">\n" +
+                                                            "  <genericInformation>\n" +
+                                                            "    <info name=\"first\" value=\"value1\"/>\n" +
+                                                            "    <info name=\"second\" value=\"value2\"/>\n" +
+                                                            "  </genericInformation>\n" + "  <taskFlow>\n" +
+                                                            "    <task name=\"Task1\">\n" + "      <scriptExecutable>\n" +
+                                                            "        <script>\n" +
+                                                            "          <code language=\"python\">\n" +
+                                                            "            <![CDATA[\n" + "for x in range(1, 11):\n" +
+                                                            "    print x\n" + "]]>\n" + "          </code>\n" +
+                                                            "        </script>\n" + "      </scriptExecutable>\n" +
+                                                            "    </task>\n" + "  </taskFlow>\n" + "</job>").getBytes();
 
     private final byte[] workflowWithGenericInfoAtJobAndTaskLevel_BeforeTaskFlow = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
                                                                                     "<job\n" +
@@ -166,8 +165,7 @@ public class WorkflowXmlManipulatorTest {
                                                                                    "    </genericInformation>\n" +
                                                                                    "</job>").getBytes();
 
-    @Spy
-    private WorkflowXmlManipulator workflowXmlManipulator;
+    protected WorkflowXmlManipulator workflowXmlManipulator;
 
     private final static Pattern genericInformationPatternInsideTaskFlow = Pattern.compile(ANY_CHARACTER_OR_NEW_LINE +
                                                                                            TASK_FLOW_START_TAG +
@@ -181,6 +179,13 @@ public class WorkflowXmlManipulatorTest {
 
     private static Pattern pythonCodePattern = Pattern.compile(PYTHON_CODE_REGEXP);
 
+    protected abstract WorkflowXmlManipulator newWorkflowXmlManipulator();
+
+    @Before
+    public void setUp() {
+        workflowXmlManipulator = newWorkflowXmlManipulator();
+    }
+
     @Test
     public void testThatWorkflowHasGenericInfoTagAdded() {
         String modifiedWorkflow = new String(workflowXmlManipulator.replaceGenericInformationAndNameOnJobLevel(simpleWorkflowWithoutGenericInfo,
@@ -238,6 +243,26 @@ public class WorkflowXmlManipulatorTest {
 
     }
 
+    @Test
+    public void testThatWorkflowHasGenericInfoJobNameAndProjectNameReplacedTogether() {
+        String modifiedWorkflow = new String(workflowXmlManipulator.replaceGenericInformationNameAndProjectNameOnJobLevel(simpleWorkflowWithGenericInfo,
+                                                                                                                         this.getTwoSimpleEntries(),
+                                                                                                                         "newJobName",
+                                                                                                                         "newProjectName"));
+        assertThat(modifiedWorkflow).contains("name=\"newJobName\"");
+        assertThat(modifiedWorkflow).doesNotContain("name=\"TestGenericInfo\"");
+        assertThat(modifiedWorkflow).contains("projectName=\"newProjectName\"");
+        assertThat(modifiedWorkflow).contains("<info name=\"firstTestKey\"");
+        assertThat(modifiedWorkflow).contains("<info name=\"secondTestKey\"");
+
+        String workflowWithoutProjectName = new String(workflowXmlManipulator.replaceGenericInformationNameAndProjectNameOnJobLevel(simpleWorkflowWithGenericInfo,
+                                                                                                                                   null,
+                                                                                                                                   "newJobName",
+                                                                                                                                   ""));
+        assertThat(workflowWithoutProjectName).contains("name=\"TestGenericInfo\"");
+        assertThat(workflowWithoutProjectName).doesNotContain("projectName");
+    }
+
     @Test
     public void testThatWorkflowHasGenericInfoReplacedIfAlreadyThere() {
         String modifiedWorkflow = new String(workflowXmlManipulator.replaceGenericInformationAndNameOnJobLevel(simpleWorkflowWithGenericInfo,
@@ -344,7 +369,7 @@ public class WorkflowXmlManipulatorTest {
         assertThat(nullByteArray.length).isEqualTo(0);
     }
 
-    private Map<String, String> getTwoSimpleEntries() {
+    protected Map<String, String> getTwoSimpleEntries() {
         Map<String, String> returnList = new HashMap<>();
 
         returnList.put("firstTestKey", "firstTestValue");
@@ -0,0 +1,197 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.store;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ow2.proactive.catalog.repository.RawObjectRepository;
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StreamUtils;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class FileSystemRawObjectStoreTest {
+
+    private static final String HASH = "ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73";
+
+    private static final int INLINE_MAX_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private FileSystemRawObjectStore store;
+
+    private RawObjectRepository rawObjectRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        rawObjectRepository = mock(RawObjectRepository.class);
+        store = new FileSystemRawObjectStore(temporaryFolder.getRoot().getAbsolutePath(),
+                                             INLINE_MAX_SIZE,
+                                             rawObjectRepository,
+                                             mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void testSmallContentStaysInline() {
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(HASH).build();
+        byte[] content = new byte[INLINE_MAX_SIZE];
+
+        store.write(rawObject, content);
+
+        assertThat(rawObject.getContent()).isEqualTo(content);
+        assertThat(Files.exists(store.pathOf(HASH))).isFalse();
+        assertThat(store.read(rawObject)).isEqualTo(content);
+    }
+
+    @Test
+    public void testLargeContentIsWrittenToAShardedFile() throws Exception {
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(HASH).build();
+        byte[] content = newContent(INLINE_MAX_SIZE + 1);
+
+        store.write(rawObject, content);
+
+        Path path = store.pathOf(HASH);
+        assertThat(rawObject.getContent()).isNull();
+        assertThat(path).isEqualTo(temporaryFolder.getRoot().toPath().resolve("ed").resolve("70").resolve(HASH));
+        assertThat(Files.readAllBytes(path)).isEqualTo(content);
+        assertThat(store.read(rawObject)).isEqualTo(content);
+        try (InputStream inputStream = store.open(rawObject).getInputStream()) {
+            assertThat(StreamUtils.copyToByteArray(inputStream)).isEqualTo(content);
+        }
+    }
+
+    @Test
+    public void testFileTakesItsPlaceWhenTheTransactionCommits() throws Exception {
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(HASH).build();
+        byte[] content = newContent(INLINE_MAX_SIZE + 1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.write(rawObject, content);
+            assertThat(Files.exists(store.pathOf(HASH))).isFalse();
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(Files.readAllBytes(store.pathOf(HASH))).isEqualTo(content);
+    }
+
+    @Test
+    public void testNoFileIsLeftWhenTheTransactionRollsBack() throws Exception {
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(HASH).build();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.write(rawObject, newContent(INLINE_MAX_SIZE + 1));
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        try (Stream<Path> files = Files.walk(temporaryFolder.getRoot().toPath())) {
+            assertThat(files.filter(Files::isRegularFile).count()).isEqualTo(0L);
+        }
+    }
+
+    @Test
+    public void testDeleteRemovesTheFile() throws Exception {
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(HASH).build();
+        store.write(rawObject, newContent(INLINE_MAX_SIZE + 1));
+        when(rawObjectRepository.findExistingHashes(anyCollection())).thenReturn(Collections.emptyList());
+
+        store.delete(Collections.singletonList(HASH));
+
+        assertThat(Files.exists(store.pathOf(HASH))).isFalse();
+    }
+
+    @Test
+    public void testDeleteKeepsTheFileOfARawObjectStoredAgain() throws Exception {
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(HASH).build();
+        store.write(rawObject, newContent(INLINE_MAX_SIZE + 1));
+        when(rawObjectRepository.findExistingHashes(anyCollection())).thenReturn(Collections.singletonList(HASH));
+
+        store.delete(Collections.singletonList(HASH));
+
+        assertThat(Files.exists(store.pathOf(HASH))).isTrue();
+    }
+
+    @Test
+    public void testDeleteKeepsTheFileOfARawObjectBeingWrittenAgain() throws Exception {
+        RawObjectEntity rawObject = RawObjectEntity.builder().hash(HASH).build();
+        store.write(rawObject, newContent(INLINE_MAX_SIZE + 1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.write(rawObject, newContent(INLINE_MAX_SIZE + 2));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        store.delete(Collections.singletonList(HASH));
+
+        assertThat(Files.exists(store.pathOf(HASH))).isTrue();
+        verify(rawObjectRepository, never()).findExistingHashes(anyCollection());
+    }
+
+    private void completeTransaction(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.beforeCommit(false);
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private byte[] newContent(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.service.store;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class RawObjectDeltaTest {
+
+    private static final String BASE = "<job>\n  <task name=\"a\"/>\r\n  <task name=\"b\"/>\n  <task name=\"c\"/>\n</job>";
+
+    @Test
+    public void testEditedLinesAreRebuilt() {
+        assertRoundTrip(BASE, BASE.replace("\"b\"", "\"renamed\""));
+    }
+
+    @Test
+    public void testInsertedAndRemovedLinesAreRebuilt() {
+        assertRoundTrip(BASE, "<job>\n  <task name=\"c\"/>\n  <task name=\"d\"/>\n  <task name=\"a\"/>\r\n</job>\n");
+    }
+
+    @Test
+    public void testEmptyVersionsAreRebuilt() {
+        assertRoundTrip("", BASE);
+        assertRoundTrip(BASE, "");
+    }
+
+    @Test
+    public void testUnchangedLinesAreCopied() {
+        StringBuilder base = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            base.append("<task name=\"task").append(i).append("\"/>\n");
+        }
+        String target = base.toString().replace("\"task500\"", "\"renamed\"");
+
+        byte[] delta = assertRoundTrip(base.toString(), target);
+
+        assertThat(delta.length).isLessThan(100);
+    }
+
+    private static byte[] assertRoundTrip(String base, String target) {
+        byte[] baseBytes = base.getBytes(StandardCharsets.UTF_8);
+        byte[] targetBytes = target.getBytes(StandardCharsets.UTF_8);
+        byte[] delta = RawObjectDelta.compute(baseBytes, targetBytes);
+        assertThat(RawObjectDelta.apply(baseBytes, delta)).isEqualTo(targetBytes);
+        return delta;
+    }
+}
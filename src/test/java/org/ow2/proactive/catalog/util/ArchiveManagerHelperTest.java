@@ -26,20 +26,25 @@
 package org.ow2.proactive.catalog.util;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -50,8 +55,11 @@ import org.mockito.MockitoAnnotations;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectEntity.CatalogObjectEntityKey;
 import org.ow2.proactive.catalog.repository.entity.CatalogObjectRevisionEntity;
+import org.ow2.proactive.catalog.repository.entity.RawObjectEntity;
+import org.ow2.proactive.catalog.service.RawObjectService;
+import org.ow2.proactive.catalog.service.exception.ArchiveTooLargeException;
 import org.ow2.proactive.catalog.util.ArchiveManagerHelper.FileNameAndContent;
-import org.ow2.proactive.catalog.util.ArchiveManagerHelper.ZipArchiveContent;
+import org.springframework.core.io.ByteArrayResource;
 
 
 public class ArchiveManagerHelperTest {
@@ -69,12 +77,21 @@ public class ArchiveManagerHelperTest {
     @Mock
     private RawObjectResponseCreator rawObjectResponseCreator;
 
+    @Mock
+    private RawObjectService rawObjectService;
+
     @InjectMocks
     private ArchiveManagerHelper archiveManager;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+        archiveManager.entryMaxSize = 1024 * 1024;
+        archiveManager.totalMaxSize = 10 * 1024 * 1024;
+        archiveManager.compressionLevel = 6;
+        archiveManager.storedContentTypes = new String[] { "application/zip", "image/*" };
+        when(rawObjectService.getContentResource(any(CatalogObjectRevisionEntity.class))).thenAnswer(invocation -> new ByteArrayResource(((CatalogObjectRevisionEntity) invocation.getArguments()[0]).getRawObjectEntity()
+                                                                                                                                                                                              .getContent()));
     }
 
     @BeforeClass
@@ -88,13 +105,19 @@ public class ArchiveManagerHelperTest {
 
     private CatalogObjectRevisionEntity getCatalogObjectRevisionEntity(String name, byte[] fileContent,
             String extension) throws IOException {
+        return getCatalogObjectRevisionEntity(name, fileContent, extension, null);
+    }
+
+    private CatalogObjectRevisionEntity getCatalogObjectRevisionEntity(String name, byte[] fileContent,
+            String extension, String contentType) throws IOException {
         CatalogObjectEntity object = new CatalogObjectEntity();
         object.setId(new CatalogObjectEntityKey(1L, name));
         object.setExtension(extension);
+        object.setContentType(contentType);
 
         CatalogObjectRevisionEntity revision = new CatalogObjectRevisionEntity();
         revision.setCatalogObject(object);
-        revision.setRawObject(fileContent);
+        revision.setRawObjectEntity(RawObjectEntity.builder().content(fileContent).build());
 
         return revision;
     }
@@ -102,8 +125,6 @@ public class ArchiveManagerHelperTest {
     @Test
     public void testCompressZipWithDifferentFileTypes() throws IOException {
 
-        assertNull(archiveManager.compressZIP(null));
-
         byte[] workflowByteArray0 = convertFromURIToByteArray(XML_FILE_0);
         byte[] jsonByteArray1 = convertFromURIToByteArray(XML_FILE_1);
         when(rawObjectResponseCreator.getNameWithFileExtension("workflow_0", "xml", null)).thenReturn("workflow_0.xml");
@@ -112,9 +133,9 @@ public class ArchiveManagerHelperTest {
         expectedFiles.add(getCatalogObjectRevisionEntity("workflow_0", workflowByteArray0, "xml"));
         expectedFiles.add(getCatalogObjectRevisionEntity("array", jsonByteArray1, "json"));
         //Compress
-        ZipArchiveContent archive = archiveManager.compressZIP(expectedFiles);
+        byte[] archive = compressZIP(expectedFiles);
         //Then extract
-        List<FileNameAndContent> actualFiles = archiveManager.extractZIP(archive.getContent());
+        List<FileNameAndContent> actualFiles = archiveManager.extractZIP(archive);
         assertEquals(2, actualFiles.size());
 
         compare(workflowByteArray0, actualFiles.get(0).getContent());
@@ -126,8 +147,6 @@ public class ArchiveManagerHelperTest {
     @Test
     public void testCompressZip() throws IOException {
 
-        assertNull(archiveManager.compressZIP(null));
-
         byte[] workflowByteArray0 = convertFromURIToByteArray(XML_FILE_0);
         byte[] workflowByteArray1 = convertFromURIToByteArray(XML_FILE_1);
         List<CatalogObjectRevisionEntity> expectedFiles = new ArrayList<>();
@@ -136,9 +155,9 @@ public class ArchiveManagerHelperTest {
         when(rawObjectResponseCreator.getNameWithFileExtension("workflow_0", "xml", null)).thenReturn("workflow_0.xml");
         when(rawObjectResponseCreator.getNameWithFileExtension("workflow_1", "xml", null)).thenReturn("workflow_1.xml");
         //Compress
-        ZipArchiveContent archive = archiveManager.compressZIP(expectedFiles);
+        byte[] archive = compressZIP(expectedFiles);
         //Then extract
-        List<FileNameAndContent> actualFiles = archiveManager.extractZIP(archive.getContent());
+        List<FileNameAndContent> actualFiles = archiveManager.extractZIP(archive);
         assertEquals(2, actualFiles.size());
 
         compare(workflowByteArray0, actualFiles.get(0).getContent());
@@ -147,6 +166,31 @@ public class ArchiveManagerHelperTest {
         assertEquals("workflow_1.xml", actualFiles.get(1).getFileNameWithExtension());
     }
 
+    @Test
+    public void testCompressZipStoresAlreadyCompressedContent() throws IOException {
+        byte[] workflowByteArray0 = convertFromURIToByteArray(XML_FILE_0);
+        byte[] zipByteArray = convertFromURIToByteArray(ZIP_FILE);
+        when(rawObjectResponseCreator.getNameWithFileExtension("workflow_0", "xml", null)).thenReturn("workflow_0.xml");
+        when(rawObjectResponseCreator.getNameWithFileExtension("archive", "zip", null)).thenReturn("archive.zip");
+        List<CatalogObjectRevisionEntity> expectedFiles = new ArrayList<>();
+        expectedFiles.add(getCatalogObjectRevisionEntity("workflow_0", workflowByteArray0, "xml", "application/xml"));
+        expectedFiles.add(getCatalogObjectRevisionEntity("archive", zipByteArray, "zip", "application/zip"));
+
+        byte[] archive = compressZIP(expectedFiles);
+
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry workflowEntry = zipInputStream.getNextEntry();
+            assertEquals("workflow_0.xml", workflowEntry.getName());
+            assertEquals(ZipEntry.DEFLATED, workflowEntry.getMethod());
+            ZipEntry zipEntry = zipInputStream.getNextEntry();
+            assertEquals("archive.zip", zipEntry.getName());
+            assertEquals(ZipEntry.STORED, zipEntry.getMethod());
+            assertEquals(zipByteArray.length, zipEntry.getSize());
+        }
+        List<FileNameAndContent> actualFiles = archiveManager.extractZIP(archive);
+        assertTrue(Arrays.equals(zipByteArray, actualFiles.get(1).getContent()));
+    }
+
     @Test
     public void testExtractZip() throws IOException {
         assertTrue(archiveManager.extractZIP(null).isEmpty());
@@ -167,6 +211,73 @@ public class ArchiveManagerHelperTest {
         compare(convertFromURIToByteArray(XML_FILE_0), files.get(1).getContent());
     }
 
+    @Test
+    public void testExtractZipFromStream() throws IOException {
+        List<FileNameAndContent> files = new ArrayList<>();
+        archiveManager.extractZIP(new ByteArrayInputStream(convertFromURIToByteArray(ZIP_FILE)), files::add);
+        assertEquals(2, files.size());
+
+        compare(convertFromURIToByteArray(XML_FILE_0), files.get(0).getContent());
+        compare(convertFromURIToByteArray(XML_FILE_1), files.get(1).getContent());
+        assertEquals("workflow_0", files.get(0).getName());
+    }
+
+    @Test
+    public void testExtractZipWithTooLargeEntry() throws IOException {
+        byte[] archive = convertFromURIToByteArray(ZIP_FILE);
+        archiveManager.entryMaxSize = convertFromURIToByteArray(XML_FILE_0).length - 1;
+
+        try {
+            archiveManager.extractZIP(new ByteArrayInputStream(archive), file -> fail());
+            fail();
+        } catch (ArchiveTooLargeException e) {
+            assertTrue(e.getMessage().contains("entry"));
+        }
+    }
+
+    @Test
+    public void testExtractZipWithTooLargeContent() throws IOException {
+        byte[] archive = convertFromURIToByteArray(ZIP_FILE);
+        archiveManager.totalMaxSize = convertFromURIToByteArray(XML_FILE_0).length;
+        List<FileNameAndContent> files = new ArrayList<>();
+
+        try {
+            archiveManager.extractZIP(new ByteArrayInputStream(archive), files::add);
+            fail();
+        } catch (ArchiveTooLargeException e) {
+            // the entries are handed over one at a time, the first one fitting in the limit
+            assertEquals(1, files.size());
+            assertTrue(e.getMessage().contains("extracted content"));
+        }
+    }
+
+    @Test
+    public void testExtractZipReportsTheTotalLimitWhenTheEntryFitsItsOwn() throws IOException {
+        byte[] archive = convertFromURIToByteArray(ZIP_FILE);
+        archiveManager.totalMaxSize = convertFromURIToByteArray(XML_FILE_0).length;
+        // each entry fits the entry limit
+        archiveManager.entryMaxSize = Math.max(convertFromURIToByteArray(XML_FILE_0).length,
+                                               convertFromURIToByteArray(XML_FILE_1).length);
+
+        try {
+            archiveManager.extractZIP(new ByteArrayInputStream(archive), file -> {
+            });
+            fail();
+        } catch (ArchiveTooLargeException e) {
+            assertTrue(e.getMessage().contains("extracted content"));
+        }
+    }
+
+    private byte[] compressZIP(List<CatalogObjectRevisionEntity> catalogObjectList) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        ZipOutputStream zipOutputStream = archiveManager.openZIP(byteArrayOutputStream);
+        for (CatalogObjectRevisionEntity catalogObjectRevision : catalogObjectList) {
+            archiveManager.addToZIP(zipOutputStream, catalogObjectRevision);
+        }
+        zipOutputStream.finish();
+        return byteArrayOutputStream.toByteArray();
+    }
+
     /**
      * Compares 2 files as byte arrays
      * @param expectedFile first file to compare
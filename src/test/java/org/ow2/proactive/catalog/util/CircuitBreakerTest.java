@@ -0,0 +1,92 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    public void testThatCircuitStaysClosedBelowTheFailureThreshold() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(3, 60000);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    public void testThatSuccessResetsConsecutiveFailures() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 60000);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    public void testThatOpenCircuitRefusesRequests() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 60000);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    public void testThatASingleProbeIsAllowedAfterTheOpenDelay() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 10);
+        circuitBreaker.recordFailure();
+        Thread.sleep(20);
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+        circuitBreaker.recordSuccess();
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    public void testThatFailedProbeOpensTheCircuitAgain() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(1, 50);
+        circuitBreaker.recordFailure();
+        Thread.sleep(60);
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatNonPositiveThresholdIsRejected() {
+        new CircuitBreaker(0, 10);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+
+/**
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class MimeTypeDetectorTest {
+
+    private static final String WORKFLOW = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                                           "<job xmlns=\"urn:proactive:jobdescriptor:3.12\" name=\"workflow\">\n" +
+                                           "  <taskFlow/>\n" + "</job>\n";
+
+    private final MimeTypeDetector mimeTypeDetector = new MimeTypeDetector();
+
+    @Test
+    public void testThatCatalogObjectsAreDetectedFromTheirExtension() {
+        assertThat(detect("workflow.xml", WORKFLOW)).isEqualTo("application/xml");
+        assertThat(detect("workflow.xml", "\uFEFF" + WORKFLOW)).isEqualTo("application/xml");
+        assertThat(detect("script.groovy", "println 'hello'\n")).isEqualTo("text/x-groovy");
+        assertThat(detect("script.py", "print('hello')\n")).isEqualTo("text/x-python");
+        assertThat(detect("script.js", "print('hello');\n")).isEqualTo("application/javascript");
+        assertThat(detect("nodesource.json", "{\"name\": \"nodesource\"}")).isEqualTo("application/json");
+        assertThat(detect("calendar.ics", "BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n")).isEqualTo("text/calendar");
+    }
+
+    @Test
+    public void testThatOtherXmlDocumentsAreDetectedByTika() {
+        assertThat(detect("image.xml",
+                          "<?xml version=\"1.0\"?>\n<svg xmlns=\"http://www.w3.org/2000/svg\"/>")).isEqualTo("image/svg+xml");
+    }
+
+    @Test
+    public void testThatOtherFilesAreDetectedByTika() {
+        byte[] png = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0x0D, 'I', 'H', 'D', 'R' };
+        assertThat(mimeTypeDetector.detect("picture", png)).isEqualTo("image/png");
+        assertThat(mimeTypeDetector.detect("data", new byte[] { 0, 1, 2, 3, (byte) 0xFF })).isEqualTo("application/octet-stream");
+    }
+
+    @Test
+    public void testThatDetectorCanBeSharedByThreads() {
+        List<String> mimeTypes = IntStream.range(0, 64)
+                                          .parallel()
+                                          .mapToObj(i -> i % 2 == 0 ? detect("workflow.xml", WORKFLOW)
+                                                                    : detect("readme.txt", "hello\n"))
+                                          .distinct()
+                                          .sorted()
+                                          .collect(Collectors.toList());
+        assertThat(mimeTypes).containsExactly("application/xml", "text/plain").inOrder();
+    }
+
+    private String detect(String fileName, String content) {
+        return mimeTypeDetector.detect(fileName, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -207,8 +207,17 @@ public class ProActiveCatalogObjectParserTest {
                                            "job_information").trim()).isEqualTo(getJobVisualizationExpectedContent());
     }
 
-    private List<KeyValueLabelMetadataEntity> parseWorkflow(String xmlFilename) throws XMLStreamException {
-        AbstractCatalogObjectParser parser = new WorkflowParser();
+    @Test(expected = ParsingObjectException.class)
+    public void testParseXmlWhichIsNotAWorkflow() throws Exception {
+        newParser().parse(ProActiveCatalogObjectParserTest.class.getResourceAsStream("/pcw-rules/pcwRule.xml"));
+    }
+
+    protected AbstractCatalogObjectParser newParser() {
+        return new WorkflowParser();
+    }
+
+    protected List<KeyValueLabelMetadataEntity> parseWorkflow(String xmlFilename) throws XMLStreamException {
+        AbstractCatalogObjectParser parser = newParser();
 
         return parser.parse(ProActiveCatalogObjectParserTest.class.getResourceAsStream("/workflows/" + xmlFilename));
     }
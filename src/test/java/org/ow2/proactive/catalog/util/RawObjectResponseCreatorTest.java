@@ -27,14 +27,21 @@ package org.ow2.proactive.catalog.util;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.Test;
 import org.ow2.proactive.catalog.dto.CatalogRawObject;
+import org.ow2.proactive.catalog.util.ByteRangesResource.ByteRange;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 
 
 /**
@@ -47,6 +54,8 @@ public class RawObjectResponseCreatorTest {
 
     private static final String PROJECT_NAME = "projectName";
 
+    private static final String CONTENT_HASH = "ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73";
+
     @Test
     public void testCreateRawObjectResponseGeneralKindRightContentType() {
         String objectName = "object name";
@@ -195,4 +204,255 @@ public class RawObjectResponseCreatorTest {
         assertThat(responseEntity.getHeaders().getContentType()).isNull();
     }
 
+    @Test
+    public void testContentCodingIsAcceptedWhenListed() {
+        assertThat(RawObjectResponseCreator.isContentCodingAccepted("gzip, deflate, br", "gzip")).isTrue();
+        assertThat(RawObjectResponseCreator.isContentCodingAccepted("deflate;q=1.0, GZIP;q=0.5", "gzip")).isTrue();
+        assertThat(RawObjectResponseCreator.isContentCodingAccepted("*", "gzip")).isTrue();
+    }
+
+    @Test
+    public void testContentCodingIsNotAcceptedWhenMissingOrRefused() {
+        assertThat(RawObjectResponseCreator.isContentCodingAccepted(null, "gzip")).isFalse();
+        assertThat(RawObjectResponseCreator.isContentCodingAccepted("identity", "gzip")).isFalse();
+        assertThat(RawObjectResponseCreator.isContentCodingAccepted("gzip;q=0", "gzip")).isFalse();
+        assertThat(RawObjectResponseCreator.isContentCodingAccepted("deflate, gzip; q=0.0", "gzip")).isFalse();
+    }
+
+    @Test
+    public void testRawObjectResponseHasValidatorsAndCacheControl() {
+        CatalogRawObject rawObject = createRawObject("content".getBytes());
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         null,
+                                                                                         null,
+                                                                                         null,
+                                                                                         null,
+                                                                                         null,
+                                                                                         RawObjectResponseCreator.REVISION_CACHE_CONTROL);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo("\"" + CONTENT_HASH + "\"");
+        assertThat(responseEntity.getHeaders().getLastModified()).isEqualTo(1400000L);
+        assertThat(responseEntity.getHeaders()
+                                 .getCacheControl()).isEqualTo(RawObjectResponseCreator.REVISION_CACHE_CONTROL);
+        assertThat(responseEntity.getBody()).isNotNull();
+    }
+
+    @Test
+    public void testMatchingETagIsNotModified() {
+        CatalogRawObject rawObject = createRawObject("content".getBytes());
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         null,
+                                                                                         "\"other\", W/\"" +
+                                                                                               CONTENT_HASH + "\"",
+                                                                                         null,
+                                                                                         null,
+                                                                                         null,
+                                                                                         RawObjectResponseCreator.LATEST_REVISION_CACHE_CONTROL);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo("\"" + CONTENT_HASH + "\"");
+        assertThat(responseEntity.getHeaders()
+                                 .getCacheControl()).isEqualTo(RawObjectResponseCreator.LATEST_REVISION_CACHE_CONTROL);
+        assertThat(responseEntity.getBody()).isNull();
+    }
+
+    @Test
+    public void testOtherETagIsSentInFull() {
+        CatalogRawObject rawObject = createRawObject("content".getBytes());
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectResponse(rawObject,
+                                                                                         null,
+                                                                                         "\"other\"",
+                                                                                         "Thu, 01 Jan 2099 00:00:00 GMT",
+                                                                                         null,
+                                                                                         null,
+                                                                                         null);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    public void testIfModifiedSinceIsComparedToTheCommitTime() {
+        assertThat(RawObjectResponseCreator.isNotModified(null,
+                                                          1400000L,
+                                                          null,
+                                                          "Thu, 01 Jan 1970 00:23:20 GMT")).isTrue();
+        assertThat(RawObjectResponseCreator.isNotModified(null,
+                                                          1400999L,
+                                                          null,
+                                                          "Thu, 01 Jan 1970 00:23:20 GMT")).isTrue();
+        assertThat(RawObjectResponseCreator.isNotModified(null,
+                                                          1401000L,
+                                                          null,
+                                                          "Thu, 01 Jan 1970 00:23:20 GMT")).isFalse();
+        assertThat(RawObjectResponseCreator.isNotModified(null, 1400000L, null, "yesterday")).isFalse();
+    }
+
+    @Test
+    public void testHeadResponseHasNoBody() {
+        byte[] content = "content".getBytes();
+        CatalogRawObject rawObject = createRawObject(content);
+        ResponseEntity responseEntity = rawObjectResponseCreator.createRawObjectHeadResponse(rawObject,
+                                                                                             null,
+                                                                                             null,
+                                                                                             null,
+                                                                                             null,
+                                                                                             null,
+                                                                                             RawObjectResponseCreator.REVISION_CACHE_CONTROL);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getContentLength()).isEqualTo((long) content.length);
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo("\"" + CONTENT_HASH + "\"");
+        assertThat(responseEntity.getBody()).isNull();
+    }
+
+    @Test
+    public void testSingleRangeIsSentAsPartialContent() throws IOException {
+        CatalogRawObject rawObject = createRawObject("0123456789".getBytes());
+        ResponseEntity responseEntity = createRangeResponse(rawObject, "bytes=2-5", null);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(responseEntity.getHeaders().getContentLength()).isEqualTo(4L);
+        assertThat(responseEntity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_XML);
+        assertThat(readBody(responseEntity)).isEqualTo("2345");
+    }
+
+    @Test
+    public void testSuffixRangeIsSentAsPartialContent() throws IOException {
+        CatalogRawObject rawObject = createRawObject("0123456789".getBytes());
+        ResponseEntity responseEntity = createRangeResponse(rawObject, "bytes=-3", null);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(readBody(responseEntity)).isEqualTo("789");
+    }
+
+    @Test
+    public void testMultipleRangesAreSentAsMultipartByteRanges() throws IOException {
+        CatalogRawObject rawObject = createRawObject("0123456789".getBytes());
+        ResponseEntity responseEntity = createRangeResponse(rawObject, "bytes=0-1, 8-", null);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isNull();
+
+        MediaType contentType = responseEntity.getHeaders().getContentType();
+        assertThat(contentType.getType()).isEqualTo("multipart");
+        assertThat(contentType.getSubtype()).isEqualTo("byteranges");
+        String boundary = contentType.getParameter("boundary");
+        assertThat(boundary).isNotEmpty();
+
+        String body = readBody(responseEntity);
+        assertThat(body).isEqualTo("\r\n--" + boundary + "\r\n" + "Content-Type: application/xml\r\n" +
+                                   "Content-Range: bytes 0-1/10\r\n\r\n" + "01" + "\r\n--" + boundary + "\r\n" +
+                                   "Content-Type: application/xml\r\n" + "Content-Range: bytes 8-9/10\r\n\r\n" +
+                                   "89" + "\r\n--" + boundary + "--\r\n");
+        assertThat(responseEntity.getHeaders().getContentLength()).isEqualTo((long) body.length());
+    }
+
+    @Test
+    public void testRangesAreSortedAndCoalesced() throws IOException {
+        List<ByteRange> ranges = RawObjectResponseCreator.getRequestedRanges("bytes=8-, 0-1, 1-2, 3-3", 10);
+        assertThat(ranges).containsExactly(new ByteRange(0, 3), new ByteRange(8, 9)).inOrder();
+
+        CatalogRawObject rawObject = createRawObject("0123456789".getBytes());
+        ResponseEntity responseEntity = createRangeResponse(rawObject, "bytes=8-, 0-1", null);
+        String boundary = responseEntity.getHeaders().getContentType().getParameter("boundary");
+        assertThat(readBody(responseEntity)).isEqualTo("\r\n--" + boundary + "\r\n" + "Content-Type: application/xml\r\n" +
+                                                       "Content-Range: bytes 0-1/10\r\n\r\n" + "01" + "\r\n--" +
+                                                       boundary + "\r\n" + "Content-Type: application/xml\r\n" +
+                                                       "Content-Range: bytes 8-9/10\r\n\r\n" + "89" + "\r\n--" +
+                                                       boundary + "--\r\n");
+    }
+
+    @Test
+    public void testTooManyRangesAreIgnored() throws IOException {
+        byte[] content = new byte[4 * RawObjectResponseCreator.MAX_RANGES];
+        CatalogRawObject rawObject = createRawObject(content);
+
+        ResponseEntity limitResponseEntity = createRangeResponse(rawObject,
+                                                                 disjointRanges(RawObjectResponseCreator.MAX_RANGES),
+                                                                 null);
+        assertThat(limitResponseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+
+        ResponseEntity responseEntity = createRangeResponse(rawObject,
+                                                            disjointRanges(RawObjectResponseCreator.MAX_RANGES + 1),
+                                                            null);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getContentLength()).isEqualTo((long) content.length);
+    }
+
+    @Test
+    public void testRangesCoveringTheContentAreSentInFull() throws IOException {
+        CatalogRawObject rawObject = createRawObject("0123456789".getBytes());
+        ResponseEntity responseEntity = createRangeResponse(rawObject, "bytes=0-6, 4-", null);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(readBody(responseEntity)).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void testUnsatisfiableRangeIsRejected() {
+        CatalogRawObject rawObject = createRawObject("0123456789".getBytes());
+        ResponseEntity responseEntity = createRangeResponse(rawObject, "bytes=10-20", null);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        assertThat(responseEntity.getBody()).isNull();
+    }
+
+    @Test
+    public void testMalformedRangeIsIgnored() throws IOException {
+        CatalogRawObject rawObject = createRawObject("0123456789".getBytes());
+        ResponseEntity responseEntity = createRangeResponse(rawObject, "lines=1-2", null);
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(readBody(responseEntity)).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void testRangeIsOnlySentWhenIfRangeMatches() throws IOException {
+        byte[] content = "content".getBytes();
+        ResponseEntity matchingResponseEntity = createRangeResponse(createRawObject(content),
+                                                                    "bytes=0-2",
+                                                                    "\"" + CONTENT_HASH + "\"");
+        assertThat(matchingResponseEntity.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(readBody(matchingResponseEntity)).isEqualTo("con");
+
+        ResponseEntity otherResponseEntity = createRangeResponse(createRawObject(content), "bytes=0-2", "\"other\"");
+        assertThat(otherResponseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(readBody(otherResponseEntity)).isEqualTo("content");
+
+        assertThat(RawObjectResponseCreator.isRangeApplicable("Thu, 01 Jan 1970 00:23:20 GMT",
+                                                              null,
+                                                              1400000L)).isTrue();
+        assertThat(RawObjectResponseCreator.isRangeApplicable("Thu, 01 Jan 1970 00:23:19 GMT",
+                                                              null,
+                                                              1400000L)).isFalse();
+        assertThat(RawObjectResponseCreator.isRangeApplicable("W/\"" + CONTENT_HASH + "\"",
+                                                              "\"" + CONTENT_HASH + "\"",
+                                                              1400000L)).isFalse();
+    }
+
+    private ResponseEntity createRangeResponse(CatalogRawObject rawObject, String range, String ifRange) {
+        return rawObjectResponseCreator.createRawObjectResponse(rawObject, null, null, null, range, ifRange, null);
+    }
+
+    private String readBody(ResponseEntity responseEntity) throws IOException {
+        try (InputStream body = ((Resource) responseEntity.getBody()).getInputStream()) {
+            return StreamUtils.copyToString(body, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private CatalogRawObject createRawObject(byte[] content) {
+        return new CatalogRawObject("bucket-name",
+                                    "name",
+                                    PROJECT_NAME,
+                                    "workflow/standard",
+                                    "application/xml",
+                                    1400000L,
+                                    "commit message",
+                                    "username",
+                                    Collections.emptyList(),
+                                    content,
+                                    "xml");
+    }
+
+    private static String disjointRanges(int count) {
+        StringBuilder ranges = new StringBuilder("bytes=");
+        for (int i = 0; i < count; i++) {
+            ranges.append(i == 0 ? "" : ",").append(4 * i).append('-').append(4 * i + 1);
+        }
+        return ranges.toString();
+    }
 }
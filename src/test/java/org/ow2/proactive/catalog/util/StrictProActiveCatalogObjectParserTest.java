@@ -0,0 +1,82 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package org.ow2.proactive.catalog.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.ow2.proactive.catalog.repository.entity.KeyValueLabelMetadataEntity;
+import org.ow2.proactive.catalog.util.parser.AbstractCatalogObjectParser;
+import org.ow2.proactive.catalog.util.parser.WorkflowParser;
+import org.ow2.proactive.scheduler.core.properties.PASchedulerProperties;
+
+
+/**
+ * Runs the {@link WorkflowParser} tests with the scheduler job factory.
+ *
+ * @author ActiveEon Team
+ * @since 18/10/2026
+ */
+public class StrictProActiveCatalogObjectParserTest extends ProActiveCatalogObjectParserTest {
+
+    private final String catalogRestUrl = PASchedulerProperties.CATALOG_REST_URL.getValueAsString();
+
+    @After
+    public void restoreCatalogRestUrl() {
+        if (catalogRestUrl != null) {
+            PASchedulerProperties.CATALOG_REST_URL.updateProperty(catalogRestUrl);
+        }
+    }
+
+    @Override
+    protected AbstractCatalogObjectParser newParser() {
+        return new WorkflowParser(true);
+    }
+
+    @Test
+    public void testStreamingAndStrictParsersExtractTheSameMetadata() throws Exception {
+        PASchedulerProperties.CATALOG_REST_URL.updateProperty("http://localhost:8080/catalog");
+        for (String workflow : new String[] { "workflow.xml", "workflow-no-generic-information-no-variable.xml",
+                                              "workflow-no-project-name.xml", "workflow-visualization.xml",
+                                              "workflow_variables_with_catalog_object_model.xml",
+                                              "workflow_variables_with_model.xml", "workflow_with_script_url.xml" }) {
+            List<KeyValueLabelMetadataEntity> streamed = new WorkflowParser(false).parse(getClass().getResourceAsStream("/workflows/" +
+                                                                                                                        workflow));
+            List<KeyValueLabelMetadataEntity> parsed = parseWorkflow(workflow);
+
+            assertThat(streamed).hasSize(parsed.size());
+            for (int index = 0; index < parsed.size(); index++) {
+                assertThat(streamed.get(index).getKey()).isEqualTo(parsed.get(index).getKey());
+                assertThat(streamed.get(index).getValue()).isEqualTo(parsed.get(index).getValue());
+                assertThat(streamed.get(index).getLabel()).isEqualTo(parsed.get(index).getLabel());
+            }
+        }
+    }
+
+}